@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Measures time-to-first-output of one-shot commands, before and after the startup optimizations.
+#
+#   mvn -Pfast-startup package -DskipTests
+#   scripts/startup-benchmark.sh [runs] [command...]
+#
+# Each launch mode runs the command (default: summary) against a throwaway home directory and
+# records the time from starting the JVM until the first line of output arrives:
+#   plain       java -jar on the packaged jar, as before
+#   lazy        extracted jar with the fast-startup profile (lazy bean initialization)
+#   lazy+aot    the above plus the AOT-generated bean definitions
+#   lazy+aot+cds  the above plus the class data sharing archive recorded at build time
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+runs=${1:-5}
+shift || true
+command=("${@:-summary}")
+
+jar=$(ls target/expense-tracker-*.jar | grep -v -- '-plain' | head -n 1)
+fast=target/fast-startup
+if [[ ! -f "$fast/expense-tracker.jsa" ]]; then
+  echo "Missing $fast/expense-tracker.jsa, build with: mvn -Pfast-startup package -DskipTests" >&2
+  exit 1
+fi
+fast_jar="$fast/$(basename "$jar")"
+home=$(mktemp -d)
+trap 'rm -rf "$home"' EXIT
+
+# Milliseconds until the first line of output, then waits for the process to exit.
+first_output_ms() {
+  local start line end
+  start=$(date +%s%N)
+  exec 3< <("$@" 2>/dev/null)
+  IFS= read -r line <&3 || true
+  end=$(date +%s%N)
+  cat <&3 >/dev/null
+  exec 3<&-
+  wait
+  echo $(((end - start) / 1000000))
+}
+
+run_mode() {
+  local name=$1
+  shift
+  local times=()
+  for ((i = 0; i < runs; i++)); do
+    times+=("$(first_output_ms java -Duser.home="$home" "$@" "${command[@]}")")
+  done
+  local sorted
+  sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+  printf '%-14s median %6d ms   min %6d ms   runs: %s\n' "$name" \
+    "$(sed -n "$(((runs + 1) / 2))p" <<<"$sorted")" "$(head -n 1 <<<"$sorted")" "${times[*]}"
+}
+
+echo "Time to first output of '${command[*]}', $runs runs each"
+run_mode plain -jar "$jar"
+run_mode lazy -Dspring.profiles.active=fast-startup -jar "$fast_jar"
+run_mode lazy+aot -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup \
+  -jar "$fast_jar"
+run_mode lazy+aot+cds -XX:SharedArchiveFile="$fast/expense-tracker.jsa" -Xlog:cds=off \
+  -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup -jar "$fast_jar"
@@ -0,0 +1,79 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.budget.service.GetBudgetService;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseRequest;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseResponse;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.domain.expense.service.AddExpenseService;
+import com.marwan.dev.expense_tracker.domain.expense.service.SummaryExpensesService;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.BudgetRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ColumnarExpenseRepository;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the full {@code add} command path: save, budget lookup and the monthly summary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddExpenseServiceBenchmark {
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  int ledgerSize;
+
+  @Param({"json", "journal", "columnar"})
+  String engine;
+
+  private Path home;
+  private ExpenseRepositoryI expenseRepository;
+  private AddExpenseService service;
+  private CreateExpenseRequest request;
+
+  @Setup
+  public void setUp() throws IOException {
+    home = Ledger.temporaryHome();
+    expenseRepository = ExpenseRepositoryBenchmark.populate(engine, home,
+        Ledger.generate(ledgerSize));
+    final var today = LocalDate.now();
+    final var budgetRepository = new BudgetRepository(new ReentrantReadWriteLock(),
+        Ledger.fileHandler());
+    budgetRepository.save(new Budget(5_000.0, today.getMonthValue(), today.getYear()));
+    service = new AddExpenseService(expenseRepository,
+        new SummaryExpensesService(expenseRepository), new GetBudgetService(budgetRepository));
+    request = new CreateExpenseRequest("benchmark", new BigDecimal("12.50"), "food");
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    if (expenseRepository instanceof ColumnarExpenseRepository columnar) {
+      columnar.close();
+    }
+    Ledger.delete(home);
+  }
+
+  @Benchmark
+  public CreateExpenseResponse execute() {
+    return service.execute(request);
+  }
+}
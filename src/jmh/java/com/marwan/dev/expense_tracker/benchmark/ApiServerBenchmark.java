@@ -0,0 +1,138 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.budget.service.GetBudgetService;
+import com.marwan.dev.expense_tracker.domain.budget.service.UpdateBudgetService;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.domain.expense.service.AddExpenseService;
+import com.marwan.dev.expense_tracker.domain.expense.service.ListExpensesService;
+import com.marwan.dev.expense_tracker.domain.expense.service.SummaryExpensesService;
+import com.marwan.dev.expense_tracker.infrastructure.http.ExpenseApiServer;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.BudgetRepository;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load test of the HTTP server: concurrent clients over kept-alive connections, reporting requests
+ * per second for each route.
+ * <p>
+ * By default the server runs in the benchmark JVM over a synthetic ledger. Point {@code url} at a
+ * running {@code serve} process instead, e.g. {@code -p url=http://127.0.0.1:8080}, to measure it
+ * as deployed; the {@code add} benchmark then writes to that process's ledger. Vary the client
+ * count with {@code -t}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ApiServerBenchmark {
+
+  @Param({"10000"})
+  int ledgerSize;
+
+  /**
+   * Base URL of a running server, empty to start one in the benchmark JVM.
+   */
+  @Param({""})
+  String url;
+
+  private Path home;
+  private ExpenseApiServer server;
+  private HttpClient client;
+  private String baseUrl;
+  private HttpRequest budgetRequest;
+
+  @Setup
+  public void setUp() throws IOException {
+    if (url.isEmpty()) {
+      home = Ledger.temporaryHome();
+      final ExpenseRepositoryI expenseRepository = ExpenseRepositoryBenchmark.populate("json",
+          home, Ledger.generate(ledgerSize));
+      final var budgetRepository = new BudgetRepository(new ReentrantReadWriteLock(),
+          Ledger.fileHandler());
+      final var today = LocalDate.now();
+      budgetRepository.save(new Budget(5_000.0, today.getMonthValue(), today.getYear()));
+      final var summaryService = new SummaryExpensesService(expenseRepository);
+      final var getBudgetService = new GetBudgetService(budgetRepository);
+      server = new ExpenseApiServer(
+          new AddExpenseService(expenseRepository, summaryService, getBudgetService),
+          new ListExpensesService(expenseRepository), summaryService, getBudgetService,
+          new UpdateBudgetService(budgetRepository),
+          new ObjectMapper().registerModule(new JavaTimeModule()));
+      baseUrl = "http://127.0.0.1:" + server.start("127.0.0.1", 0).getPort();
+    } else {
+      baseUrl = url;
+    }
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    final var today = LocalDate.now();
+    budgetRequest = get("/budgets?month=" + today.getMonthValue() + "&year=" + today.getYear());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    if (server != null) {
+      server.stop();
+      Ledger.delete(home);
+    }
+  }
+
+  @Benchmark
+  public String summary() throws Exception {
+    final int month = 1 + ThreadLocalRandom.current().nextInt(12);
+    return send(get("/expenses/summary?month=" + month));
+  }
+
+  @Benchmark
+  public String budget() throws Exception {
+    return send(budgetRequest);
+  }
+
+  @Benchmark
+  public String add() throws Exception {
+    return send(HttpRequest.newBuilder(URI.create(baseUrl + "/expenses"))
+        .POST(BodyPublishers.ofString(
+            "{\"description\":\"load test\",\"amount\":1.5,\"category\":\"FOOD\"}"))
+        .header("Content-Type", "application/json").build());
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+  }
+
+  private String send(HttpRequest request) throws Exception {
+    final var response = client.send(request, BodyHandlers.ofString());
+    if (response.statusCode() >= 400) {
+      throw new IllegalStateException(response.statusCode() + " " + response.body());
+    }
+    return response.body();
+  }
+}
@@ -0,0 +1,75 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.Durability;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency distribution of atomic ledger writes and journal appends at each durability
+ * level. Sampling reports percentiles, since fsync cost shows up in the tail rather than the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DurabilityBenchmark {
+
+  @Param({"1000"})
+  int ledgerSize;
+
+  @Param({"none", "fsync", "group-commit"})
+  String durability;
+
+  private Path home;
+  private JsonFileHandler fileHandler;
+  private List<Expense> ledger;
+  private List<Expense> entry;
+  private String writePath;
+  private String appendPath;
+
+  @Setup
+  public void setUp() throws IOException {
+    home = Ledger.temporaryHome();
+    fileHandler = Ledger.fileHandler(Durability.from(durability));
+    ledger = Ledger.generate(ledgerSize);
+    entry = List.of(new Expense(ledgerSize + 1, ledger.getFirst().getCreatedAt(), null,
+        "benchmark", 12.5, Category.FOOD));
+    writePath = home.resolve("write.json").toString();
+    appendPath = home.resolve("append.jsonl").toString();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    fileHandler.close();
+    Ledger.delete(home);
+  }
+
+  @Benchmark
+  public void write() {
+    fileHandler.write(writePath, ledger);
+  }
+
+  @Benchmark
+  public void append() {
+    fileHandler.appendAll(appendPath, entry);
+  }
+}
@@ -0,0 +1,169 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ColumnarExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.SqlExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.ParallelScan;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.SqlDatabase;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the repository hot paths for every storage engine over a pre-populated ledger.
+ * <p>
+ * {@link #save()} appends a new expense on each call, so the ledger grows by the number of
+ * measured operations; that is small next to the larger ledger sizes but should be kept in mind
+ * when comparing the 1k row results.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseRepositoryBenchmark {
+
+  private static final int MONTH = 6;
+  private static final int PAGE_SIZE = 20;
+  private static final LocalDate RANGE_FROM = LocalDate.of(2022, 6, 1);
+  private static final LocalDate RANGE_TO = LocalDate.of(2022, 6, 30);
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  int ledgerSize;
+
+  @Param({"json", "journal", "columnar", "sql"})
+  String engine;
+
+  private Path home;
+  private ExpenseRepositoryI repository;
+
+  @Setup
+  public void setUp() throws IOException {
+    home = Ledger.temporaryHome();
+    repository = populate(engine, home, Ledger.generate(ledgerSize));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    if (repository instanceof ColumnarExpenseRepository columnar) {
+      columnar.close();
+    }
+    Ledger.delete(home);
+  }
+
+  @Benchmark
+  public Expense save() {
+    return repository.save(new Expense("benchmark", 12.5, Category.FOOD));
+  }
+
+  @Benchmark
+  public List<Expense> findByMonthAndCategory() {
+    return repository.findByMonthAndCategory(MONTH, Category.FOOD);
+  }
+
+  /**
+   * The first page of a month and category filter, which only a small share of the ledger matches.
+   * On the in-memory engines it should not grow with the ledger size.
+   */
+  @Benchmark
+  public List<Expense> firstPageOfMonthAndCategory() {
+    return repository.findPage(MONTH, Category.FOOD, 0, 0, PAGE_SIZE);
+  }
+
+  @Benchmark
+  public long summeryAll() {
+    return repository.summeryAll();
+  }
+
+  @Benchmark
+  public long summeryByMonthAndCategory() {
+    return repository.summeryByMonthAndCategory(MONTH, Category.FOOD);
+  }
+
+  @Benchmark
+  public List<Expense> findBetween() {
+    return repository.findBetween(RANGE_FROM, RANGE_TO);
+  }
+
+  /**
+   * The first page of a range without an end date. It should cost the same as a short range.
+   */
+  @Benchmark
+  public List<Expense> firstPageOfOpenRange() {
+    return repository.findPageBetween(RANGE_FROM, null, null, null, 0, PAGE_SIZE);
+  }
+
+  @Benchmark
+  public long sumBetween() {
+    return repository.sumBetween(RANGE_FROM, RANGE_TO);
+  }
+
+  /**
+   * Creates a repository of the given engine under {@code home}, holding the given ledger.
+   *
+   * @param engine the engine name, as in {@code expense-tracker.storage.engine}
+   * @param home   the temporary home directory
+   * @param ledger the expenses to store
+   * @return the loaded repository
+   */
+  static ExpenseRepositoryI populate(String engine, Path home, List<Expense> ledger) {
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    final JsonFileHandler fileHandler = Ledger.fileHandler();
+    switch (engine) {
+      case "json" -> {
+        fileHandler.write(StorageFormat.JSON.expenseFilePath(), ledger);
+        final var repository = new ExpenseRepository(lock, fileHandler);
+        repository.initializeMaxId();
+        return repository;
+      }
+      case "journal" -> {
+        fileHandler.write(StorageFormat.JSON.expenseFilePath(), ledger);
+        final var repository = new JournalExpenseRepository(lock, fileHandler, StorageFormat.JSON,
+            1_048_576);
+        repository.initializeMaxId();
+        return repository;
+      }
+      case "columnar" -> {
+        final var repository = new ColumnarExpenseRepository(lock,
+            home.resolve("expense-tracker/columnar").toString(), ParallelScan.sequential());
+        repository.open();
+        ledger.forEach(repository::save);
+        return repository;
+      }
+      case "sql" -> {
+        // the ledger is loaded by the one-time migration from the JSON file
+        fileHandler.write(StorageFormat.JSON.expenseFilePath(), ledger);
+        final var repository = new SqlExpenseRepository(new SqlDatabase(
+            "jdbc:h2:file:" + home.resolve("expense-tracker/expense-tracker"), fileHandler,
+            StorageFormat.JSON));
+        repository.summeryAll();
+        return repository;
+      }
+      default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures reading and writing a whole ledger file in each storage format, both into a list and
+ * streamed one expense at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFileHandlerBenchmark {
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  int ledgerSize;
+
+  @Param({"JSON", "SMILE", "CBOR", "BINARY"})
+  StorageFormat format;
+
+  private Path home;
+  private JsonFileHandler fileHandler;
+  private List<Expense> ledger;
+  private String readPath;
+  private String writePath;
+
+  @Setup
+  public void setUp() throws IOException {
+    home = Ledger.temporaryHome();
+    fileHandler = Ledger.fileHandler();
+    ledger = Ledger.generate(ledgerSize);
+    readPath = home.resolve("read." + format.getExtension()).toString();
+    writePath = home.resolve("write." + format.getExtension()).toString();
+    fileHandler.write(readPath, ledger);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Ledger.delete(home);
+  }
+
+  @Benchmark
+  public List<Expense> read() {
+    return fileHandler.read(readPath, Expense.class);
+  }
+
+  @Benchmark
+  public void readEach(Blackhole blackhole) {
+    fileHandler.readEach(readPath, Expense.class, blackhole::consume);
+  }
+
+  @Benchmark
+  public void write() {
+    fileHandler.write(writePath, ledger);
+  }
+}
@@ -0,0 +1,107 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.Durability;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic data and sandboxing shared by the benchmarks.
+ * <p>
+ * Ledgers are generated from a fixed seed, so every run and every engine sees the same expenses.
+ * The repositories resolve their files under {@code user.home}, so benchmarks point it at a
+ * temporary directory before constructing them and never touch the real ledger.
+ * </p>
+ */
+public final class Ledger {
+
+  public static final long SEED = 20250601L;
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+  private static final int DAYS = 6 * 365;
+  private static final String[] WORDS = {"coffee", "groceries", "rent", "taxi", "cinema", "books",
+      "pharmacy", "lunch", "fuel", "gift"};
+
+  private Ledger() {
+  }
+
+  /**
+   * Generates a reproducible ledger of expenses with IDs 1 to {@code size}, spread over six years
+   * and every category.
+   *
+   * @param size the number of expenses
+   * @return the generated expenses, in ID order
+   */
+  public static List<Expense> generate(int size) {
+    final var random = new Random(SEED);
+    final var categories = Category.values();
+    final List<Expense> expenses = new ArrayList<>(size);
+    for (int id = 1; id <= size; id++) {
+      final LocalDate createdAt = FIRST_DAY.plusDays(random.nextInt(DAYS));
+      expenses.add(new Expense(id, createdAt, random.nextInt(10) == 0 ? createdAt.plusDays(1) : null,
+          WORDS[random.nextInt(WORDS.length)] + " " + id, random.nextInt(100_000) / 100.0,
+          categories[random.nextInt(categories.length)]));
+    }
+    return expenses;
+  }
+
+  /**
+   * Creates a file handler configured like the application's.
+   *
+   * @return a new file handler
+   */
+  public static JsonFileHandler fileHandler() {
+    return fileHandler(Durability.FSYNC);
+  }
+
+  /**
+   * Creates a file handler configured like the application's, with the given durability level.
+   *
+   * @param durability when writes are forced to disk
+   * @return a new file handler
+   */
+  public static JsonFileHandler fileHandler(Durability durability) {
+    final var mapper = new ObjectMapper();
+    mapper.registerModule(new JavaTimeModule());
+    return new JsonFileHandler(mapper, false, durability, Duration.ofMillis(50));
+  }
+
+  /**
+   * Creates a temporary directory and makes it the {@code user.home} of this JVM.
+   *
+   * @return the temporary home directory
+   * @throws IOException if the directory cannot be created
+   */
+  public static Path temporaryHome() throws IOException {
+    final Path home = Files.createTempDirectory("expense-tracker-bench");
+    Files.createDirectories(home.resolve("expense-tracker"));
+    System.setProperty("user.home", home.toString());
+    return home;
+  }
+
+  /**
+   * Recursively deletes a temporary home directory.
+   *
+   * @param home the directory to delete
+   * @throws IOException if a file cannot be deleted
+   */
+  public static void delete(Path home) throws IOException {
+    try (Stream<Path> paths = Files.walk(home)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+}
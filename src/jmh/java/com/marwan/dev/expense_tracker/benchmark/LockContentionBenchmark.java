@@ -0,0 +1,90 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.OptimisticReadWriteLock;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures read throughput of the in-memory repository while one thread keeps writing, with the
+ * classic read-write lock and with the optimistic one.
+ * <p>
+ * The journal engine is used so each write appends one entry instead of rewriting the ledger,
+ * keeping the write lock hold time short. Scaling across cores shows up by varying the number of
+ * reader threads, e.g. {@code -tg 1,1}, {@code -tg 4,1} and {@code -tg 8,1}: with the optimistic
+ * lock readers do not write to shared lock state, so their throughput should grow with the thread
+ * count instead of flattening out on the lock's cache line.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockContentionBenchmark {
+
+  private static final int LEDGER_SIZE = 10_000;
+
+  @Param({"reentrant", "optimistic"})
+  String lock;
+
+  private Path home;
+  private JournalExpenseRepository repository;
+
+  @Setup
+  public void setUp() throws IOException {
+    home = Ledger.temporaryHome();
+    final JsonFileHandler fileHandler = Ledger.fileHandler();
+    fileHandler.write(StorageFormat.JSON.expenseFilePath(), Ledger.generate(LEDGER_SIZE));
+    final ReadWriteLock readWriteLock = "optimistic".equals(lock) ? new OptimisticReadWriteLock()
+        : new ReentrantReadWriteLock();
+    repository = new JournalExpenseRepository(readWriteLock, fileHandler, StorageFormat.JSON,
+        Long.MAX_VALUE);
+    repository.initializeMaxId();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Ledger.delete(home);
+  }
+
+  @Benchmark
+  @Group("readWhileWriting")
+  @GroupThreads(3)
+  public long read() {
+    final int id = 1 + ThreadLocalRandom.current().nextInt(LEDGER_SIZE);
+    return repository.summeryAll() + repository.findById(id).map(Expense::getAmountCents)
+        .orElse(0L);
+  }
+
+  @Benchmark
+  @Group("readWhileWriting")
+  @GroupThreads(1)
+  public void write() {
+    final Expense added = repository.save(new Expense("benchmark", 12.5, Category.FOOD));
+    repository.deleteById(added.getId());
+  }
+}
@@ -0,0 +1,86 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ColumnarExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.ParallelScan;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the full-column scans of the columnar engine on the calling thread and split over a
+ * fork/join pool, across ledger sizes and worker counts.
+ * <p>
+ * {@code threads = 0} is the sequential baseline; any other value forces the parallel path with a
+ * pool of that many workers, whatever the ledger size, so the crossover point for
+ * {@code expense-tracker.aggregation.parallel-threshold} can be read off the results. Worker counts
+ * above the number of cores only measure the task overhead.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelScanBenchmark {
+
+  private static final int MONTH = 6;
+
+  @Param({"10000", "100000", "1000000"})
+  int ledgerSize;
+
+  @Param({"0", "1", "2", "4", "8", "16"})
+  int threads;
+
+  private Path home;
+  private ParallelScan scan;
+  private ColumnarExpenseRepository repository;
+
+  @Setup
+  public void setUp() throws IOException {
+    home = Ledger.temporaryHome();
+    scan = threads == 0 ? ParallelScan.sequential() : new ParallelScan(0, threads);
+    repository = new ColumnarExpenseRepository(new ReentrantReadWriteLock(),
+        home.resolve("expense-tracker/columnar").toString(), scan);
+    repository.open();
+    Ledger.generate(ledgerSize).forEach(repository::save);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    repository.close();
+    scan.close();
+    Ledger.delete(home);
+  }
+
+  @Benchmark
+  public long summeryAll() {
+    return repository.summeryAll();
+  }
+
+  @Benchmark
+  public long summeryByMonthAndCategory() {
+    return repository.summeryByMonthAndCategory(MONTH, Category.FOOD);
+  }
+
+  @Benchmark
+  public List<Expense> findByMonthAndCategory() {
+    return repository.findByMonthAndCategory(MONTH, Category.FOOD);
+  }
+}
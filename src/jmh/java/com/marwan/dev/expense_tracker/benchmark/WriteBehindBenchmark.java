@@ -0,0 +1,83 @@
+package com.marwan.dev.expense_tracker.benchmark;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.OptimisticReadWriteLock;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.WriteBehindFileHandler;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures save throughput and latency percentiles of the JSON engine under a burst of concurrent
+ * saves, writing every save on its own ({@code window=0}) and through write-behind batches of
+ * growing windows. Each save updates an existing expense, so the ledger keeps its size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class WriteBehindBenchmark {
+
+  @Param({"1000"})
+  int ledgerSize;
+
+  /**
+   * Write-behind window in milliseconds, {@code 0} to write synchronously.
+   */
+  @Param({"0", "1", "5", "20"})
+  int window;
+
+  private Path home;
+  private JsonFileHandlerI fileHandler;
+  private ExpenseRepository repository;
+
+  @Setup
+  public void setUp() throws IOException {
+    home = Ledger.temporaryHome();
+    final JsonFileHandler plain = Ledger.fileHandler();
+    plain.write(StorageFormat.JSON.expenseFilePath(), Ledger.generate(ledgerSize));
+    fileHandler = window == 0 ? plain
+        : new WriteBehindFileHandler(plain, Duration.ofMillis(window), 256);
+    repository = new ExpenseRepository(new OptimisticReadWriteLock(), fileHandler);
+    repository.initializeMaxId();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    if (fileHandler instanceof WriteBehindFileHandler writeBehind) {
+      writeBehind.close();
+    }
+    Ledger.delete(home);
+  }
+
+  @Benchmark
+  public Expense save() {
+    final int id = 1 + ThreadLocalRandom.current().nextInt(ledgerSize);
+    return repository.save(new Expense(id, LocalDate.of(2025, 6, 1), null, "benchmark", 12.5,
+        Category.FOOD));
+  }
+}
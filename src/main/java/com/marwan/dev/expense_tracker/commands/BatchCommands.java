@@ -0,0 +1,211 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+/**
+ * BatchCommands runs scripts of expense and budget commands, for scripted workloads that would
+ * otherwise start one shell command at a time.
+ * <p>
+ * Read-only commands ({@code summary}, {@code get-budget}) between two mutations run concurrently on
+ * virtual threads, while mutations ({@code add}, {@code delete}) run alone and in script order: a
+ * mutation waits for the reads before it, and the reads after it only start once it is done. Every
+ * command therefore sees exactly the data it would see if the script ran line by line.
+ * </p>
+ */
+@Command
+public class BatchCommands {
+
+  private final ExpensesCommands expensesCommands;
+  private final BudgetCommands budgetCommands;
+
+  /**
+   * Constructor for dependency injection.
+   *
+   * @param expensesCommands Commands the expense lines are dispatched to.
+   * @param budgetCommands   Commands the budget lines are dispatched to.
+   */
+  public BatchCommands(ExpensesCommands expensesCommands, BudgetCommands budgetCommands) {
+    this.expensesCommands = expensesCommands;
+    this.budgetCommands = budgetCommands;
+  }
+
+  /**
+   * Runs a script of {@code add}, {@code delete}, {@code summary} and {@code get-budget} commands.
+   *
+   * @param file        The script to run, one command per line.
+   * @param sequential  Run every command one after another, to compare wall times.
+   * @param quiet       Only print failures and the timing report.
+   * @param parallelism Maximum number of read-only commands running at once.
+   * @return Each command's output prefixed with its line number, followed by the timing report.
+   */
+  @Command(command = "batch", description = "Run a script of add, delete, summary and get-budget commands.")
+  public String batch(
+      @Option(longNames = "file", shortNames = 'f', description = "Script to run, one command per line", required = true) String file,
+      @Option(longNames = "sequential", description = "Run every command one after another", defaultValue = "false") boolean sequential,
+      @Option(longNames = "quiet", shortNames = 'q', description = "Only print failures and timings", defaultValue = "false") boolean quiet,
+      @Option(longNames = "parallelism", description = "Read-only commands running at once (default 64)", defaultValue = "64") @Positive int parallelism) {
+    final List<BatchScript.Step> steps;
+    try {
+      steps = BatchScript.parse(Files.readAllLines(Path.of(file)));
+    } catch (IOException e) {
+      return "Failed to read script: " + e.getMessage();
+    }
+    final Result[] results = new Result[steps.size()];
+    final long start = System.nanoTime();
+    try {
+      if (sequential) {
+        for (int i = 0; i < steps.size(); i++) {
+          results[i] = run(steps.get(i));
+        }
+      } else {
+        runConcurrently(steps, results, Math.max(1, parallelism));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return "Batch interrupted.";
+    }
+    return report(steps, results, System.nanoTime() - start, sequential, quiet);
+  }
+
+  /**
+   * Utility: Run the reads between two mutations on virtual threads, and each mutation on the
+   * calling thread once the reads before it are done.
+   */
+  private void runConcurrently(List<BatchScript.Step> steps, Result[] results, int parallelism)
+      throws InterruptedException {
+    final Semaphore permits = new Semaphore(parallelism);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      final List<Future<?>> reads = new ArrayList<>();
+      for (int i = 0; i < steps.size(); i++) {
+        final int index = i;
+        final BatchScript.Step step = steps.get(i);
+        if (step.readOnly()) {
+          permits.acquire();
+          reads.add(executor.submit(() -> {
+            try {
+              results[index] = run(step);
+            } finally {
+              permits.release();
+            }
+          }));
+        } else {
+          awaitAll(reads);
+          results[index] = run(step);
+        }
+      }
+      awaitAll(reads);
+    }
+  }
+
+  private static void awaitAll(List<Future<?>> futures) throws InterruptedException {
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        // run() reports failures in the result, so only an unexpected error gets here
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+    futures.clear();
+  }
+
+  /**
+   * Utility: Run one step and time it. Failures are recorded in the result instead of stopping the
+   * script.
+   */
+  private Result run(BatchScript.Step step) {
+    if (step.error() != null) {
+      return new Result("Failed: " + step.error(), 0, true);
+    }
+    final long start = System.nanoTime();
+    try {
+      final String output = dispatch(step.command(), step.options());
+      return new Result(output, System.nanoTime() - start, false);
+    } catch (RuntimeException e) {
+      return new Result("Failed: " + e.getMessage(), System.nanoTime() - start, true);
+    }
+  }
+
+  private String dispatch(String command, Map<String, String> options) {
+    return switch (command) {
+      case "add" -> expensesCommands.addExpense(required(options, "description"),
+          new BigDecimal(required(options, "amount")), required(options, "category"));
+      case "delete" -> expensesCommands.deleteExpense(Integer.valueOf(required(options, "id")));
+      case "summary" -> expensesCommands.summaryExpenses(integer(options.get("month")),
+          options.get("category"), options.get("from"), options.get("to"));
+      case "get-budget" -> budgetCommands.getBudget(integer(options.get("month")),
+          integer(options.get("year")));
+      default -> throw new IllegalArgumentException("unknown command " + command);
+    };
+  }
+
+  private static String required(Map<String, String> options, String name) {
+    final String value = options.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("missing --" + name);
+    }
+    return value;
+  }
+
+  private static Integer integer(String value) {
+    return value == null ? null : Integer.valueOf(value);
+  }
+
+  /**
+   * Utility: List the outputs in script order, then compare the wall time with the sum of the
+   * commands' own times, which is about what running them one after another takes.
+   */
+  private static String report(List<BatchScript.Step> steps, Result[] results, long wallNanos,
+      boolean sequential, boolean quiet) {
+    final StringBuilder report = new StringBuilder();
+    long commandNanos = 0;
+    int reads = 0;
+    int writes = 0;
+    int failed = 0;
+    for (int i = 0; i < steps.size(); i++) {
+      final Result result = results[i];
+      commandNanos += result.nanos();
+      if (steps.get(i).readOnly()) {
+        reads++;
+      } else if (steps.get(i).error() == null) {
+        writes++;
+      }
+      if (result.failed()) {
+        failed++;
+      }
+      if (!quiet || result.failed()) {
+        report.append(steps.get(i).line()).append("> ").append(result.output()).append('\n');
+      }
+    }
+    report.append(String.format("Ran %d commands (%d reads, %d writes) in %.1f ms", steps.size(),
+        reads, writes, wallNanos / 1e6));
+    if (sequential) {
+      report.append(" one after another");
+    } else {
+      report.append(String.format(", about %.1f ms one after another (%.1fx)",
+          commandNanos / 1e6, wallNanos == 0 ? 1.0 : (double) commandNanos / wallNanos));
+    }
+    return report.append(String.format(", %d failed.", failed)).toString();
+  }
+
+  /**
+   * Output and duration of one command.
+   */
+  private record Result(String output, long nanos, boolean failed) {
+
+  }
+}
@@ -0,0 +1,151 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses batch scripts: one shell command per line, written as it would be typed in the shell.
+ * Blank lines and lines starting with {@code #} are skipped, and values containing spaces are
+ * quoted with single or double quotes.
+ */
+final class BatchScript {
+
+  /**
+   * The commands a script may use, each with its long option names and their short names.
+   */
+  private static final Map<String, Map<String, String>> COMMANDS = Map.of(
+      "add", options("description:d", "amount:a", "category:c"),
+      "delete", options("id:i"),
+      "summary", options("month:m", "category:c", "from", "to"),
+      "get-budget", options("month:m", "year:y"));
+
+  /**
+   * Commands that only read, so they may run at the same time as each other.
+   */
+  private static final List<String> READ_ONLY = List.of("summary", "get-budget");
+
+  private BatchScript() {
+  }
+
+  /**
+   * One command of a script.
+   *
+   * @param line    the 1-based line number in the script
+   * @param command the command name, e.g. {@code add}
+   * @param options the option values by long name
+   * @param error   why the line could not be parsed, or null
+   */
+  record Step(int line, String command, Map<String, String> options, String error) {
+
+    /**
+     * Checks if the step only reads data.
+     *
+     * @return {@code true} for parsed read-only commands
+     */
+    boolean readOnly() {
+      return error == null && READ_ONLY.contains(command);
+    }
+  }
+
+  /**
+   * Parses every command line of a script. Lines that cannot be parsed become steps carrying the
+   * error, so one bad line does not stop the rest of the script.
+   *
+   * @param lines the script's lines
+   * @return the steps, in script order
+   */
+  static List<Step> parse(List<String> lines) {
+    final List<Step> steps = new ArrayList<>();
+    for (int i = 0; i < lines.size(); i++) {
+      final String line = lines.get(i).strip();
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        steps.add(parseLine(i + 1, line));
+      }
+    }
+    return steps;
+  }
+
+  private static Step parseLine(int number, String line) {
+    final List<String> tokens;
+    try {
+      tokens = tokenize(line);
+    } catch (IllegalArgumentException e) {
+      return new Step(number, line, Map.of(), e.getMessage());
+    }
+    final String command = tokens.getFirst();
+    final Map<String, String> names = COMMANDS.get(command);
+    if (names == null) {
+      return new Step(number, command, Map.of(), "unknown command " + command
+          + ", expected one of " + COMMANDS.keySet().stream().sorted().toList());
+    }
+    final Map<String, String> options = new HashMap<>();
+    for (int t = 1; t < tokens.size(); t += 2) {
+      final String name = names.get(tokens.get(t));
+      if (name == null) {
+        return new Step(number, command, Map.of(), "unknown option " + tokens.get(t));
+      }
+      if (t + 1 == tokens.size()) {
+        return new Step(number, command, Map.of(), "missing value for " + tokens.get(t));
+      }
+      options.put(name, tokens.get(t + 1));
+    }
+    return new Step(number, command, options, null);
+  }
+
+  /**
+   * Utility: Split a line on whitespace, keeping quoted values together.
+   */
+  private static List<String> tokenize(String line) {
+    final List<String> tokens = new ArrayList<>();
+    final StringBuilder token = new StringBuilder();
+    char quote = 0;
+    boolean inToken = false;
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        } else {
+          token.append(c);
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+        inToken = true;
+      } else if (Character.isWhitespace(c)) {
+        if (inToken) {
+          tokens.add(token.toString());
+          token.setLength(0);
+          inToken = false;
+        }
+      } else {
+        token.append(c);
+        inToken = true;
+      }
+    }
+    if (quote != 0) {
+      throw new IllegalArgumentException("unterminated quote");
+    }
+    if (inToken) {
+      tokens.add(token.toString());
+    }
+    return tokens;
+  }
+
+  /**
+   * Utility: Map {@code --long} and {@code -s} option names to long names, from specs written as
+   * {@code long:s}, or just {@code long} for options without a short name.
+   */
+  private static Map<String, String> options(String... specs) {
+    final Map<String, String> names = new HashMap<>();
+    for (String spec : specs) {
+      final String[] parts = spec.split(":");
+      names.put("--" + parts[0], parts[0]);
+      if (parts.length > 1) {
+        names.put("-" + parts[1], parts[0]);
+      }
+    }
+    return Map.copyOf(names);
+  }
+}
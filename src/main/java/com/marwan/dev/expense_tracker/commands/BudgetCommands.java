@@ -6,6 +6,7 @@ import com.marwan.dev.expense_tracker.domain.budget.service.GetBudgetService;
 import com.marwan.dev.expense_tracker.domain.budget.service.UpdateBudgetService;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import org.springframework.shell.command.annotation.Command;
 import org.springframework.shell.command.annotation.Option;
@@ -42,7 +43,7 @@ public class BudgetCommands {
    */
   @Command(command = "add-budget", description = "Set a new budget amount for a given month and year.")
   public String addBudget(
-      @Option(longNames = "budget", shortNames = 'b', description = "Enter a floating point number.", required = true) Double amount,
+      @Option(longNames = "budget", shortNames = 'b', description = "Enter a decimal number.", required = true) BigDecimal amount,
       @Option(longNames = "month", shortNames = 'm', description = "Month (1-12)", required = true) @Min(1) @Max(12) Integer month,
       @Option(longNames = "year", shortNames = 'y', description = "Year (2000-2100)") @Min(2000) @Max(2100) Integer year) {
     if (year == null) {
@@ -0,0 +1,73 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders expenses as rows of the {@code list} table.
+ * <p>
+ * Produces the same layout as {@link Expense#toString()} but appends straight into a shared
+ * {@link StringBuilder} with a cached date formatter, instead of running {@code String.format} and
+ * building intermediate strings for every row.
+ * </p>
+ */
+final class ExpenseRowFormatter {
+
+  static final String HEADER = String.format("%-4s %-12s %-12s %-20s %10s%n", "ID", "Date",
+      "Category", "Description", "Amount");
+
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+  private static final int DESCRIPTION_WIDTH = 20;
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private ExpenseRowFormatter() {
+  }
+
+  /**
+   * Appends one table row, followed by a line separator.
+   *
+   * @param table   the table being built
+   * @param expense the expense to render
+   */
+  static void appendRow(StringBuilder table, Expense expense) {
+    int start = table.length();
+    table.append(expense.getId());
+    padTo(table, start + 4);
+    table.append(' ');
+
+    start = table.length();
+    DATE_FORMAT.formatTo(expense.getCreatedAt(), table);
+    padTo(table, start + 12);
+    table.append(' ');
+
+    start = table.length();
+    table.append(expense.getCategory());
+    padTo(table, start + 12);
+    table.append(' ');
+
+    start = table.length();
+    appendDescription(table, expense.getDescription());
+    padTo(table, start + DESCRIPTION_WIDTH);
+    table.append(' ');
+
+    final String amount = expense.getAmount().toPlainString();
+    for (int i = amount.length() + 1; i < 10; i++) {
+      table.append(' ');
+    }
+    table.append('$').append(amount).append(LINE_SEPARATOR);
+  }
+
+  private static void appendDescription(StringBuilder table, String description) {
+    if (description.length() <= DESCRIPTION_WIDTH) {
+      table.append(description);
+    } else {
+      table.append(description, 0, DESCRIPTION_WIDTH - 3).append("...");
+    }
+  }
+
+  private static void padTo(StringBuilder table, int length) {
+    while (table.length() < length) {
+      table.append(' ');
+    }
+  }
+}
@@ -1,50 +1,56 @@
 package com.marwan.dev.expense_tracker.commands;
 
-import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
 import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseRequest;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.ExpensePage;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.MonthlyReport;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.PageArgsForList;
 import com.marwan.dev.expense_tracker.domain.expense.model.dto.SearchArgsForList;
 import com.marwan.dev.expense_tracker.domain.expense.service.AddExpenseService;
 import com.marwan.dev.expense_tracker.domain.expense.service.DeleteExpenseService;
-import com.marwan.dev.expense_tracker.domain.expense.service.ListExpensesService;
+import com.marwan.dev.expense_tracker.domain.expense.service.PageExpensesService;
+import com.marwan.dev.expense_tracker.domain.expense.service.ReportExpensesService;
 import com.marwan.dev.expense_tracker.domain.expense.service.SummaryExpensesService;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.Month;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import org.springframework.shell.command.annotation.Command;
 import org.springframework.shell.command.annotation.Option;
 
 /**
  * ExpenseCommands provides CLI commands for managing expenses, including adding, deleting, listing,
- * and summarizing expense records.
+ * summarizing and reporting expense records.
  */
 @Command
 public class ExpensesCommands {
 
-  private static final String TABLE_HEADER = String.format("%-4s %-12s %-12s %-20s %10s%n", "ID",
-      "Date", "Category", "Description", "Amount");
-
   private final AddExpenseService addExpenseService;
   private final DeleteExpenseService deleteExpenseService;
-  private final ListExpensesService listExpenseService;
+  private final PageExpensesService pageExpensesService;
   private final SummaryExpensesService summaryExpenseService;
+  private final ReportExpensesService reportExpensesService;
 
   /**
    * Constructs an ExpensesCommands object with injected services.
    *
    * @param addExpenseService      Service for adding new expenses.
    * @param deleteExpenseService   Service for deleting existing expenses.
-   * @param listAllExpenseService  Service for listing expenses.
+   * @param pageExpensesService    Service for listing expenses one page at a time.
    * @param summeryExpensesService Service for summarizing expenses.
+   * @param reportExpensesService  Service for the monthly report against the budgets.
    */
   public ExpensesCommands(AddExpenseService addExpenseService,
-      DeleteExpenseService deleteExpenseService, ListExpensesService listAllExpenseService,
-      SummaryExpensesService summeryExpensesService) {
+      DeleteExpenseService deleteExpenseService, PageExpensesService pageExpensesService,
+      SummaryExpensesService summeryExpensesService, ReportExpensesService reportExpensesService) {
     this.addExpenseService = addExpenseService;
     this.deleteExpenseService = deleteExpenseService;
-    this.listExpenseService = listAllExpenseService;
+    this.pageExpensesService = pageExpensesService;
     this.summaryExpenseService = summeryExpensesService;
+    this.reportExpensesService = reportExpensesService;
   }
 
   /**
@@ -58,14 +64,14 @@ public class ExpensesCommands {
   @Command(command = "add", description = "Add a new expense entry.")
   public String addExpense(
       @Option(longNames = "description", shortNames = 'd', required = true, description = "Describe your the expense") String description,
-      @Option(longNames = "amount", shortNames = 'a', required = true, description = "Expense amount (must be positive)") double amount,
+      @Option(longNames = "amount", shortNames = 'a', required = true, description = "Expense amount (must be positive)") BigDecimal amount,
       @Option(longNames = "category", shortNames = 'c', required = true, description =
           "Category of the expense, categories are {FOOD, FRUITS, INTERNET_BILL, TELEPHONE_BILL, "
               + "ELECTRICITY_BILL, WATER_bill, GAS_BILL, CLEANING_AND_GARBAGE, DEBTS, OTHER}") String category) {
     try {
       final var expenseResponse = addExpenseService.execute(
           new CreateExpenseRequest(description, amount, category));
-      if (expenseResponse.balanceLeft() > 0) {
+      if (expenseResponse.balanceLeft() == null || expenseResponse.balanceLeft().signum() > 0) {
         return String.format("Expense added successfully (ID: %d)",
             expenseResponse.expense().getId());
       } else {
@@ -94,51 +100,106 @@ public class ExpensesCommands {
   }
 
   /**
-   * Lists expenses by optional month and/or category.
+   * Lists one page of expenses by optional month, category and date range. Expenses are listed in
+   * ID order, or in date order when a date range is given.
    *
    * @param month    Optional month (1-12)
    * @param category Optional category
-   * @return Table of expenses or not-found message
+   * @param from     Optional first date (yyyy-MM-dd), inclusive
+   * @param to       Optional last date (yyyy-MM-dd), inclusive
+   * @param page     Page number, ignored when {@code afterId} is given
+   * @param limit    Number of expenses per page
+   * @param afterId  Only list expenses with a greater ID
+   * @return Table of expenses with the next-page hint, or not-found message
    */
   @Command(command = "list", description = "list expenses")
   public String listExpenses(
       @Option(longNames = "month", shortNames = 'm', description = "Enter a month to search") @Min(1) @Max(12) Integer month,
-      @Option(longNames = "category", shortNames = 'c', description = "Enter a category to filter with") String category) {
-    final List<Expense> expenses = listExpenseService.execute(
-        new SearchArgsForList(month, category));
-    if (expenses.isEmpty()) {
+      @Option(longNames = "category", shortNames = 'c', description = "Enter a category to filter with") String category,
+      @Option(longNames = "from", description = "First date to list (yyyy-MM-dd)") String from,
+      @Option(longNames = "to", description = "Last date to list (yyyy-MM-dd)") String to,
+      @Option(longNames = "page", shortNames = 'p', description = "Page number, starting at 1") @Positive Integer page,
+      @Option(longNames = "limit", shortNames = 'l', description = "Expenses per page (default 50, at most 1000)") @Positive Integer limit,
+      @Option(longNames = "after-id", description = "Continue after the expense with this ID") Integer afterId) {
+    final ExpensePage result;
+    try {
+      result = pageExpensesService.execute(new PageArgsForList(month, category, parseDate(from),
+          parseDate(to), page, limit, afterId));
+    } catch (DateTimeParseException | IllegalArgumentException e) {
+      return "Invalid input: " + e.getMessage();
+    }
+    if (result.expenses().isEmpty()) {
       return "No expenses found.";
     }
     final StringBuilder table = tableHeader();
-    expenses.forEach(e -> table.append(e).append(System.lineSeparator()));
+    result.expenses().forEach(e -> ExpenseRowFormatter.appendRow(table, e));
+    if (result.nextAfterId() != null) {
+      table.append("More expenses, continue with --after-id ").append(result.nextAfterId());
+    } else if (result.nextPage() != null) {
+      table.append("More expenses, continue with --page ").append(result.nextPage());
+    }
     return table.toString();
   }
 
   /**
-   * Summarizes expenses by optional month and/or category.
+   * Summarizes expenses by optional month, category and date range.
    *
    * @param month    Optional month
    * @param category Optional category
+   * @param from     Optional first date (yyyy-MM-dd), inclusive
+   * @param to       Optional last date (yyyy-MM-dd), inclusive
    * @return Summary message
    */
   @Command(command = "summary", description = "get summary, enter a month summary of")
   public String summaryExpenses(
       @Option(longNames = "month", shortNames = 'm', description = "Enter a month to search") @Min(1) @Max(12) Integer month,
-      @Option(longNames = "category", shortNames = 'c', description = "Enter a category to search") String category) {
-    final var args = new SearchArgsForList(month, category);
-    return formatSummaryResult(summaryExpenseService.execute(args), args);
+      @Option(longNames = "category", shortNames = 'c', description = "Enter a category to search") String category,
+      @Option(longNames = "from", description = "First date to sum (yyyy-MM-dd)") String from,
+      @Option(longNames = "to", description = "Last date to sum (yyyy-MM-dd)") String to) {
+    try {
+      final var args = new SearchArgsForList(month, category, parseDate(from), parseDate(to));
+      return formatSummaryResult(summaryExpenseService.execute(args), args);
+    } catch (DateTimeParseException | IllegalArgumentException e) {
+      return "Invalid input: " + e.getMessage();
+    }
+  }
+
+  /**
+   * Reports the spending of every month per category, with the month's budget and what is left of
+   * it. A negative variance means the budget was exceeded.
+   *
+   * @param year Optional year, every year with expenses if omitted
+   * @return Table of months, or not-found message
+   */
+  @Command(command = "report", description = "report spending per month and category against the budget")
+  public String reportExpenses(
+      @Option(longNames = "year", shortNames = 'y', description = "Year (2000-2100)") @Min(2000) @Max(2100) Integer year) {
+    final List<MonthlyReport> report = reportExpensesService.execute(year);
+    if (report.isEmpty()) {
+      return "No expenses found.";
+    }
+    return MonthlyReportFormatter.format(report);
   }
 
   private StringBuilder tableHeader() {
-    return new StringBuilder(TABLE_HEADER);
+    return new StringBuilder(ExpenseRowFormatter.HEADER);
   }
 
+  private static LocalDate parseDate(String date) {
+    return date == null ? null : LocalDate.parse(date);
+  }
 
-  private String formatSummaryResult(Double summery, SearchArgsForList args) {
+  private String formatSummaryResult(BigDecimal summery, SearchArgsForList args) {
     final boolean isMonthNull = args.month() == null;
     final boolean isCategoryNull = args.category() == null;
 
-    if (isMonthNull && isCategoryNull) {
+    if (args.hasDateRange()) {
+      final String filters = (isCategoryNull ? "" : "for " + args.category() + " ")
+          + (isMonthNull ? "" : "in " + Month.of(args.month()) + " ");
+      return String.format("Total expenses %sfrom %s to %s: $%.2f", filters,
+          args.from() == null ? "the start" : args.from(),
+          args.to() == null ? "the end" : args.to(), summery);
+    } else if (isMonthNull && isCategoryNull) {
       return String.format("Total expenses: $%.2f", summery);
     } else if (!isMonthNull && isCategoryNull) {
       return String.format("Total expenses for %s: $%.2f", Month.of(args.month()), summery);
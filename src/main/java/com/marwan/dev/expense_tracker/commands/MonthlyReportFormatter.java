@@ -0,0 +1,57 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.MonthlyReport;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the rows of the {@code report} table: one line per month with the spending of every
+ * category that has any, then the month's total, budget and variance.
+ */
+final class MonthlyReportFormatter {
+
+  private static final int AMOUNT_WIDTH = 10;
+  private static final String NO_BUDGET = "-";
+
+  private MonthlyReportFormatter() {
+  }
+
+  /**
+   * Formats the report as a table, with a column only for the categories spent on.
+   *
+   * @param report the months to render, in order
+   * @return the table, each line ending with a line separator
+   */
+  static String format(List<MonthlyReport> report) {
+    final List<Category> columns = new ArrayList<>();
+    for (Category category : Category.values()) {
+      if (report.stream().anyMatch(row -> row.spending().amount(category) != 0)) {
+        columns.add(category);
+      }
+    }
+
+    final StringBuilder table = new StringBuilder(String.format("%-7s", "Month"));
+    columns.forEach(category -> table.append(String.format(" %" + width(category) + "s",
+        category)));
+    table.append(String.format(" %10s %10s %10s%n", "Spent", "Budget", "Variance"));
+
+    for (MonthlyReport row : report) {
+      table.append(String.format("%04d-%02d", row.spending().year(), row.spending().month()));
+      columns.forEach(category -> table.append(String.format(" %" + width(category) + "s",
+          Money.toAmount(row.spending().amount(category)))));
+      table.append(String.format(" %10s %10s %10s%n", Money.toAmount(row.spent()),
+          amount(row.budget()), amount(row.variance())));
+    }
+    return table.toString();
+  }
+
+  private static int width(Category category) {
+    return Math.max(AMOUNT_WIDTH, category.name().length());
+  }
+
+  private static String amount(Long cents) {
+    return cents == null ? NO_BUDGET : Money.toAmount(cents).toPlainString();
+  }
+}
@@ -0,0 +1,62 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import com.marwan.dev.expense_tracker.infrastructure.http.ExpenseApiServer;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import org.springframework.shell.command.CommandContext;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+/**
+ * ServerCommands runs the application as a local HTTP/JSON server, so scripts can call one warm
+ * process instead of starting the shell for every command.
+ */
+@Command
+public class ServerCommands {
+
+  private final ExpenseApiServer apiServer;
+
+  /**
+   * Constructor for dependency injection.
+   *
+   * @param apiServer Server exposing the expense and budget services over HTTP.
+   */
+  public ServerCommands(ExpenseApiServer apiServer) {
+    this.apiServer = apiServer;
+  }
+
+  /**
+   * Serves the expense and budget services over HTTP until interrupted.
+   *
+   * @param host    Address to listen on.
+   * @param port    Port to listen on.
+   * @param context Command context giving access to the terminal.
+   * @return Message once the server stopped, or error message.
+   */
+  @Command(command = "serve", description = "Serve the expense and budget services over HTTP until interrupted.")
+  public String serve(
+      @Option(longNames = "host", description = "Address to listen on", defaultValue = "127.0.0.1") String host,
+      @Option(longNames = "port", shortNames = 'p', description = "Port to listen on", defaultValue = "8080") @Min(0) @Max(65535) int port,
+      CommandContext context) {
+    final InetSocketAddress address;
+    try {
+      address = apiServer.start(host, port);
+    } catch (IOException | RuntimeException e) {
+      return "Failed to start server: " + e.getMessage();
+    }
+    context.getTerminal().writer().printf("Serving on http://%s:%d, press Ctrl+C to stop.%n",
+        address.getHostString(), address.getPort());
+    context.getTerminal().flush();
+    try {
+      new CountDownLatch(1).await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      apiServer.stop();
+    }
+    return "Server stopped.";
+  }
+}
@@ -0,0 +1,134 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ExportExpensesRequest;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ImportExpensesRequest;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.MigrateStorageRequest;
+import com.marwan.dev.expense_tracker.domain.storage.service.ExportExpensesService;
+import com.marwan.dev.expense_tracker.domain.storage.service.ImportExpensesService;
+import com.marwan.dev.expense_tracker.domain.storage.service.MigrateStorageService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import org.springframework.shell.command.CommandContext;
+import org.springframework.shell.command.annotation.Command;
+import org.springframework.shell.command.annotation.Option;
+
+/**
+ * StorageCommands provides CLI commands for maintaining the on-disk expense data.
+ */
+@Command
+public class StorageCommands {
+
+  private final MigrateStorageService migrateStorageService;
+  private final ImportExpensesService importExpensesService;
+  private final ExportExpensesService exportExpensesService;
+
+  /**
+   * Constructor for dependency injection.
+   *
+   * @param migrateStorageService Service to convert the expense file between formats.
+   * @param importExpensesService Service to bulk-import expenses from a file.
+   * @param exportExpensesService Service to stream expenses to a file or the terminal.
+   */
+  public StorageCommands(MigrateStorageService migrateStorageService,
+      ImportExpensesService importExpensesService, ExportExpensesService exportExpensesService) {
+    this.migrateStorageService = migrateStorageService;
+    this.importExpensesService = importExpensesService;
+    this.exportExpensesService = exportExpensesService;
+  }
+
+  /**
+   * Converts the expense file from one storage format to another.
+   *
+   * @param from The current format.
+   * @param to   The format to convert to.
+   * @return Migration report or error message.
+   */
+  @Command(command = "migrate-storage", description = "Convert the expense file between storage formats.")
+  public String migrateStorage(
+      @Option(longNames = "from", shortNames = 'f', description = "Current format {json, smile, cbor, binary}", defaultValue = "json") String from,
+      @Option(longNames = "to", shortNames = 't', description = "Target format {json, smile, cbor, binary}", required = true) String to) {
+    try {
+      final var result = migrateStorageService.execute(new MigrateStorageRequest(from, to));
+      return String.format(
+          "Migrated %d expenses from %s (%d bytes) to %s (%d bytes).%n"
+              + "Set expense-tracker.storage.format=%s to use the new file.", result.expenses(),
+          result.source(), result.sourceBytes(), result.target(), result.targetBytes(), to);
+    } catch (RuntimeException e) {
+      return "Failed to migrate storage: " + e.getMessage();
+    }
+  }
+
+  /**
+   * Imports expenses from a CSV or JSON-lines file in one batch.
+   *
+   * @param file   The file to import.
+   * @param format The file format, inferred from the extension when omitted.
+   * @return Import report with throughput and rejected rows, or error message.
+   */
+  @Command(command = "import", description = "Bulk import expenses from a CSV or JSON-lines file.")
+  public String importExpenses(
+      @Option(longNames = "file", shortNames = 'f', description = "File to import", required = true) String file,
+      @Option(longNames = "format", description = "File format {csv, jsonl}, defaults to the file extension") String format) {
+    try {
+      final var result = importExpensesService.execute(new ImportExpensesRequest(file, format));
+      final var report = new StringBuilder(String.format(
+          "Imported %d expenses in %d ms (%.0f rows/sec), rejected %d rows.%n", result.imported(),
+          result.elapsedNanos() / 1_000_000, result.rowsPerSecond(), result.rejected()));
+      result.errors().forEach(error -> report.append("  ").append(error).append('\n'));
+      if (result.rejected() > result.errors().size()) {
+        report.append(String.format("  ... and %d more%n",
+            result.rejected() - result.errors().size()));
+      }
+      return report.toString();
+    } catch (RuntimeException e) {
+      return "Failed to import expenses: " + e.getMessage();
+    }
+  }
+
+  /**
+   * Streams filtered expenses as CSV or JSON lines to a file, or to the terminal when no file is
+   * given.
+   *
+   * @param file     Optional output file.
+   * @param format   Output format.
+   * @param month    Optional month (1-12).
+   * @param category Optional category.
+   * @param from     Optional first date (yyyy-MM-dd), inclusive.
+   * @param to       Optional last date (yyyy-MM-dd), inclusive.
+   * @param context  Command context giving access to the terminal.
+   * @return Export report when writing to a file, or error message.
+   */
+  @Command(command = "export", description = "Export expenses as CSV or JSON lines.")
+  public String exportExpenses(
+      @Option(longNames = "file", shortNames = 'f', description = "File to write, prints to the terminal when omitted") String file,
+      @Option(longNames = "format", description = "Output format {csv, jsonl}", defaultValue = "csv") String format,
+      @Option(longNames = "month", shortNames = 'm', description = "Enter a month to filter with") @Min(1) @Max(12) Integer month,
+      @Option(longNames = "category", shortNames = 'c', description = "Enter a category to filter with") String category,
+      @Option(longNames = "from", description = "First date to export (yyyy-MM-dd)") String from,
+      @Option(longNames = "to", description = "Last date to export (yyyy-MM-dd)") String to,
+      CommandContext context) {
+    try {
+      final LocalDate fromDate = from == null ? null : LocalDate.parse(from);
+      final LocalDate toDate = to == null ? null : LocalDate.parse(to);
+      if (file == null) {
+        final Writer out = new BufferedWriter(context.getTerminal().writer());
+        exportExpensesService.execute(
+            new ExportExpensesRequest(out, format, month, category, fromDate, toDate));
+        return null;
+      }
+      try (Writer out = Files.newBufferedWriter(Path.of(file))) {
+        final int exported = exportExpensesService.execute(
+            new ExportExpensesRequest(out, format, month, category, fromDate, toDate));
+        return String.format("Exported %d expenses to %s.", exported, file);
+      }
+    } catch (IOException | RuntimeException e) {
+      return "Failed to export expenses: " + e.getMessage();
+    }
+  }
+}
@@ -1,20 +1,25 @@
 package com.marwan.dev.expense_tracker.domain.budget.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.marwan.dev.expense_tracker.domain.budget.model.dto.UpdateBudgetRequest;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.math.BigDecimal;
 import lombok.Data;
 
 /**
- * Represents a monthly budget configuration with amount, month, and year.
+ * Represents a monthly budget configuration with amount, month, and year. The amount is held as
+ * whole cents and read and written as a decimal {@code amount}.
  */
 @Data
 public class Budget {
 
   /**
-   * The budget amount for a specific month.
+   * The budget amount for a specific month, in cents.
    */
-  private Double amount;
+  @JsonIgnore
+  private long amountCents;
 
   /**
    * The month of the budget (1 - 12).
@@ -29,18 +34,45 @@ public class Budget {
   /**
    * Constructor for deserializing a Budget from JSON.
    *
-   * @param amount the budget amount
+   * @param amount the budget amount, rounded to the cent, or null for zero
    * @param month  the month (1-12)
    * @param year   the year
    */
   @JsonCreator
-  public Budget(@JsonProperty("amount") Double amount, @JsonProperty("month") Integer month,
+  public Budget(@JsonProperty("amount") BigDecimal amount, @JsonProperty("month") Integer month,
       @JsonProperty("year") Integer year) {
-    this.amount = amount;
+    this.amountCents = Money.toCents(amount);
     this.month = month;
     this.year = year;
   }
 
+  /**
+   * Constructs a Budget with a floating-point amount.
+   *
+   * @param amount the budget amount, rounded to the cent
+   * @param month  the month (1-12)
+   * @param year   the year
+   */
+  public Budget(double amount, Integer month, Integer year) {
+    this(BigDecimal.valueOf(amount), month, year);
+  }
+
+  /**
+   * Returns the budget amount, with two decimals.
+   */
+  public BigDecimal getAmount() {
+    return Money.toAmount(amountCents);
+  }
+
+  /**
+   * Sets the budget amount, rounded to the cent.
+   *
+   * @param amount the amount, or null for zero
+   */
+  public void setAmount(BigDecimal amount) {
+    this.amountCents = Money.toCents(amount);
+  }
+
   /**
    * Factory method to create a Budget from an UpdateBudgetRequest DTO.
    *
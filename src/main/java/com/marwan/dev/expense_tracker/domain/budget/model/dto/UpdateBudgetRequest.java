@@ -1,5 +1,7 @@
 package com.marwan.dev.expense_tracker.domain.budget.model.dto;
 
-public record UpdateBudgetRequest(Integer month, Integer year, Double amount) {
+import java.math.BigDecimal;
+
+public record UpdateBudgetRequest(Integer month, Integer year, BigDecimal amount) {
 
 }
\ No newline at end of file
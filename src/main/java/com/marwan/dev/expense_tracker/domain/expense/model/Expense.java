@@ -1,7 +1,10 @@
 package com.marwan.dev.expense_tracker.domain.expense.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import lombok.EqualsAndHashCode;
@@ -11,7 +14,9 @@ import lombok.Setter;
 /**
  * Represents an expense entry, including description, amount, category, and timestamps.
  * <p>
- * Used to store and manipulate expense records, supports serialization for JSON persistence.
+ * Used to store and manipulate expense records, supports serialization for JSON persistence. The
+ * amount is held as whole cents; it is read and written as a decimal {@code amount}, so files
+ * written with floating-point amounts load unchanged.
  * </p>
  */
 @Getter
@@ -19,6 +24,8 @@ import lombok.Setter;
 @EqualsAndHashCode
 public class Expense {
 
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
   /**
    * The date the expense was created.
    */
@@ -40,9 +47,10 @@ public class Expense {
   private String description;
 
   /**
-   * The amount of money spent.
+   * The amount of money spent, in cents.
    */
-  private Double amount;
+  @JsonIgnore
+  private long amountCents;
 
   /**
    * The category to which this expense belongs.
@@ -57,37 +65,74 @@ public class Expense {
    * @param createdAt   the creation date
    * @param updatedAt   the last update date
    * @param description the description
-   * @param amount      the amount spent
+   * @param amount      the amount spent, rounded to the cent, or null for zero
    * @param category    the category
    */
   @JsonCreator
   public Expense(@JsonProperty("expenseId") Integer id,
       @JsonProperty("createAt") LocalDate createdAt, @JsonProperty("updatedAt") LocalDate updatedAt,
-      @JsonProperty("description") String description, @JsonProperty("amount") Double amount,
+      @JsonProperty("description") String description, @JsonProperty("amount") BigDecimal amount,
       @JsonProperty("category") Category category) {
     this.id = id;
     this.createdAt = createdAt;
     this.updatedAt = updatedAt;
     this.description = description;
-    this.amount = amount;
+    this.amountCents = Money.toCents(amount);
     this.category = category;
   }
 
+  /**
+   * Constructs a new {@code Expense} with full parameters and a floating-point amount.
+   *
+   * @param id          the ID of the expense
+   * @param createdAt   the creation date
+   * @param updatedAt   the last update date
+   * @param description the description
+   * @param amount      the amount spent, rounded to the cent
+   * @param category    the category
+   */
+  public Expense(Integer id, LocalDate createdAt, LocalDate updatedAt, String description,
+      double amount, Category category) {
+    this(id, createdAt, updatedAt, description, BigDecimal.valueOf(amount), category);
+  }
+
   /**
    * Constructs a new {@code Expense} using minimal user input. Automatically assigns ID 0, current
    * date, and null update timestamp.
    *
    * @param description the description of the expense
-   * @param amount      the amount spent
+   * @param amount      the amount spent, rounded to the cent
    * @param category    the category of the expense
    */
-  public Expense(String description, Double amount, Category category) {
-    this.id = 0;
-    this.createdAt = LocalDate.now();
-    this.updatedAt = null;
-    this.description = description;
-    this.amount = amount;
-    this.category = category;
+  public Expense(String description, BigDecimal amount, Category category) {
+    this(0, LocalDate.now(), null, description, amount, category);
+  }
+
+  /**
+   * Constructs a new {@code Expense} from minimal user input with a floating-point amount.
+   *
+   * @param description the description of the expense
+   * @param amount      the amount spent, rounded to the cent
+   * @param category    the category of the expense
+   */
+  public Expense(String description, double amount, Category category) {
+    this(description, BigDecimal.valueOf(amount), category);
+  }
+
+  /**
+   * Returns the amount spent, with two decimals.
+   */
+  public BigDecimal getAmount() {
+    return Money.toAmount(amountCents);
+  }
+
+  /**
+   * Sets the amount spent, rounded to the cent.
+   *
+   * @param amount the amount, or null for zero
+   */
+  public void setAmount(BigDecimal amount) {
+    this.amountCents = Money.toCents(amount);
   }
 
   /**
@@ -99,8 +144,8 @@ public class Expense {
   @Override
   public String toString() {
     return String.format("%-4d %-12s %-12s %-20s %10s", id,
-        createdAt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), category,
-        truncateDescription(description, 20), String.format("$%.2f", amount));
+        createdAt.format(DATE_FORMAT), category,
+        truncateDescription(description, 20), "$" + getAmount());
   }
 
   /**
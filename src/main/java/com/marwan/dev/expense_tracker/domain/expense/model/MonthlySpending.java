@@ -0,0 +1,34 @@
+package com.marwan.dev.expense_tracker.domain.expense.model;
+
+/**
+ * The amount spent in one calendar month, per category, in cents.
+ *
+ * @param year       the year
+ * @param month      the month (1-12)
+ * @param byCategory the cents spent per category, indexed by {@link Category#ordinal()}
+ */
+public record MonthlySpending(int year, int month, long[] byCategory) {
+
+  /**
+   * Returns the amount spent on one category.
+   *
+   * @param category the category
+   * @return the amount in cents, zero if nothing was spent
+   */
+  public long amount(Category category) {
+    return byCategory[category.ordinal()];
+  }
+
+  /**
+   * Returns the amount spent on every category together.
+   *
+   * @return the month's total in cents
+   */
+  public long total() {
+    long total = 0;
+    for (long amount : byCategory) {
+      total += amount;
+    }
+    return total;
+  }
+}
@@ -1,5 +1,7 @@
 package com.marwan.dev.expense_tracker.domain.expense.model.dto;
 
-public record CreateExpenseRequest(String description, Double amount, String category) {
+import java.math.BigDecimal;
+
+public record CreateExpenseRequest(String description, BigDecimal amount, String category) {
 
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package com.marwan.dev.expense_tracker.domain.expense.model.dto;
 
 import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import java.math.BigDecimal;
 
-public record CreateExpenseResponse(Expense expense, Double balanceLeft) {
+/**
+ * The saved expense and the budget left for the current month, or a null balance when the month has
+ * no budget.
+ */
+public record CreateExpenseResponse(Expense expense, BigDecimal balanceLeft) {
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.marwan.dev.expense_tracker.domain.expense.model.dto;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import java.util.List;
+
+public record ExpensePage(List<Expense> expenses, Integer nextAfterId, Integer nextPage) {
+
+}
@@ -0,0 +1,28 @@
+package com.marwan.dev.expense_tracker.domain.expense.model.dto;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+
+/**
+ * One month of the report: what was spent per category and the month's budget, in cents.
+ *
+ * @param spending the spending of the month
+ * @param budget   the budget of the month in cents, or null if none was set
+ */
+public record MonthlyReport(MonthlySpending spending, Long budget) {
+
+  /**
+   * Returns the amount spent in the month, in cents.
+   */
+  public long spent() {
+    return spending.total();
+  }
+
+  /**
+   * Returns what is left of the budget, negative when it was exceeded.
+   *
+   * @return the variance in cents, or null if the month has no budget
+   */
+  public Long variance() {
+    return budget == null ? null : budget - spent();
+  }
+}
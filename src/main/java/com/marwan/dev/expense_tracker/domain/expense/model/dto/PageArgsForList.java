@@ -0,0 +1,11 @@
+package com.marwan.dev.expense_tracker.domain.expense.model.dto;
+
+import java.time.LocalDate;
+
+public record PageArgsForList(Integer month, String category, LocalDate from, LocalDate to,
+                              Integer page, Integer limit, Integer afterId) {
+
+  public boolean hasDateRange() {
+    return from != null || to != null;
+  }
+}
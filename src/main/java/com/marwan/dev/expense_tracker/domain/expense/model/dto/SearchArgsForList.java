@@ -1,5 +1,14 @@
 package com.marwan.dev.expense_tracker.domain.expense.model.dto;
 
-public record SearchArgsForList(Integer month, String category) {
+import java.time.LocalDate;
 
-}
\ No newline at end of file
+public record SearchArgsForList(Integer month, String category, LocalDate from, LocalDate to) {
+
+  public SearchArgsForList(Integer month, String category) {
+    this(month, category, null, null);
+  }
+
+  public boolean hasDateRange() {
+    return from != null || to != null;
+  }
+}
@@ -2,13 +2,21 @@ package com.marwan.dev.expense_tracker.domain.expense.repository;
 
 import com.marwan.dev.expense_tracker.domain.expense.model.Category;
 import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * Storage of expenses. Sums and spending are in cents.
+ */
 public interface ExpenseRepositoryI {
 
   Expense save(Expense expense);
 
+  List<Expense> saveAll(List<Expense> expenses);
+
   boolean existsById(Integer id);
 
   Optional<Expense> findById(Integer id);
@@ -21,13 +29,33 @@ public interface ExpenseRepositoryI {
 
   List<Expense> findAll();
 
-  Double summeryByMonth(Integer month);
+  List<Expense> findBetween(LocalDate from, LocalDate to);
+
+  List<Expense> findPage(Integer month, Category category, int afterId, int offset, int limit);
+
+  List<Expense> findPageBetween(LocalDate from, LocalDate to, Integer month, Category category,
+      int offset, int limit);
+
+  /**
+   * Visits every saved expense, one at a time. The action runs without the repository's locks
+   * held, so it may do slow I/O and call back into the repository, but writes made during the
+   * visit may or may not be seen.
+   *
+   * @param action called with each expense
+   */
+  void forEach(Consumer<? super Expense> action);
+
+  long summeryByMonth(Integer month);
+
+  long summeryByCategory(Category category);
+
+  long summeryByMonthAndCategory(Integer month, Category category);
 
-  Double summeryByCategory(Category category);
+  long summeryAll();
 
-  Double summeryByMonthAndCategory(Integer month, Category category);
+  long sumBetween(LocalDate from, LocalDate to);
 
-  Double summeryAll();
+  List<MonthlySpending> spendingByMonth(Integer year);
 
   void deleteById(Integer id);
 
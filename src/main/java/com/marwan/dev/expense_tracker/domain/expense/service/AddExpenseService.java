@@ -10,7 +10,9 @@ import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseResp
 import com.marwan.dev.expense_tracker.domain.expense.model.dto.SearchArgsForList;
 import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
 import com.marwan.dev.expense_tracker.shared.CommandInterface;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.NoSuchElementException;
 import org.springframework.stereotype.Service;
 
 /**
@@ -53,15 +55,22 @@ public class AddExpenseService implements
    * Executes the creation of a new expense and returns a response with remaining budget.
    *
    * @param input the request containing new expense data
-   * @return response including the saved expense and remaining budget
+   * @return response including the saved expense and remaining budget, which is null when the
+   *     current month has no budget
    */
   @Override
   public CreateExpenseResponse execute(final CreateExpenseRequest input) {
     final var expense = saveExpense(input);
     final var localDate = LocalDate.now();
-    final var budget = fetchBudgetForDate(localDate);
+    final Budget budget;
+    try {
+      budget = fetchBudgetForDate(localDate);
+    } catch (NoSuchElementException e) {
+      // the expense is saved either way, a missing budget only leaves nothing to compare against
+      return new CreateExpenseResponse(expense, null);
+    }
     final var spentAmount = calculateMonthlySummary(localDate);
-    return new CreateExpenseResponse(expense, budget.getAmount() - spentAmount);
+    return new CreateExpenseResponse(expense, budget.getAmount().subtract(spentAmount));
   }
 
   /**
@@ -87,12 +96,13 @@ public class AddExpenseService implements
   }
 
   /**
-   * Calculates the total expenses for the given month.
+   * Calculates the total expenses for the given month of the given year.
    *
-   * @param localDate the date used to filter expenses by month
+   * @param localDate the date used to filter expenses by month and year
    * @return total amount spent in that month
    */
-  private Double calculateMonthlySummary(final LocalDate localDate) {
-    return summaryExpensesService.execute(new SearchArgsForList(localDate.getMonthValue(), null));
+  private BigDecimal calculateMonthlySummary(final LocalDate localDate) {
+    return summaryExpensesService.execute(new SearchArgsForList(null, null,
+        localDate.withDayOfMonth(1), localDate.withDayOfMonth(localDate.lengthOfMonth())));
   }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.marwan.dev.expense_tracker.domain.expense.service;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.ExpensePage;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.PageArgsForList;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.shared.CommandInterface;
+import java.util.List;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class that returns one page of expenses, in ascending ID order, matching optional month
+ * and category filters.
+ * <p>
+ * Pages are addressed either by number or by the ID of the last expense already shown. The cursor
+ * form ({@code afterId}) costs the same on every page, while a page number has to skip every
+ * expense on the earlier pages. When a date range is given, expenses come back in date order from
+ * the repository's date index and pages are addressed by number only.
+ * </p>
+ */
+@Service
+public class PageExpensesService implements CommandInterface<PageArgsForList, ExpensePage> {
+
+  public static final int DEFAULT_LIMIT = 50;
+
+  /**
+   * The largest page, so the extra row fetched past the end of the page cannot overflow.
+   */
+  public static final int MAX_LIMIT = 1_000;
+
+  private final ExpenseRepositoryI expenseRepository;
+
+  /**
+   * Constructs a new {@code PageExpensesService} with the specified repository.
+   *
+   * @param expenseRepository the repository used to fetch expense records
+   */
+  public PageExpensesService(ExpenseRepositoryI expenseRepository) {
+    this.expenseRepository = expenseRepository;
+  }
+
+  /**
+   * Fetches the requested page, plus one extra expense to tell whether another page follows.
+   *
+   * @param input the filters, and either a page number or an {@code afterId} cursor
+   * @return the page and the cursor and number of the next page, or nulls if this is the last one
+   * @throws IllegalArgumentException if the page or limit is not positive, the limit is above
+   *                                  {@link #MAX_LIMIT}, the page starts past the largest offset,
+   *                                  or a cursor is combined with a date range
+   */
+  @Override
+  public ExpensePage execute(PageArgsForList input) {
+    final int limit = input.limit() == null ? DEFAULT_LIMIT : input.limit();
+    final int page = input.page() == null ? 1 : input.page();
+    if (limit < 1 || page < 1) {
+      throw new IllegalArgumentException("page and limit must be positive");
+    }
+    if (limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("limit must be at most " + MAX_LIMIT);
+    }
+    final Category category = input.category() == null ? null : Category.from(input.category());
+    if (input.hasDateRange()) {
+      return pageBetween(input, category, page, limit);
+    }
+    final int afterId = input.afterId() == null ? 0 : input.afterId();
+    final int offset = input.afterId() == null ? offset(page, limit) : 0;
+    final List<Expense> rows = expenseRepository.findPage(input.month(), category, afterId, offset,
+        limit + 1);
+    if (rows.size() <= limit) {
+      return new ExpensePage(rows, null, null);
+    }
+    final List<Expense> expenses = rows.subList(0, limit);
+    return new ExpensePage(expenses, expenses.get(limit - 1).getId(),
+        input.afterId() == null ? page + 1 : null);
+  }
+
+  /**
+   * Pages through the expenses of a date range in date order, applying the month and category
+   * filters to the range only. The repository stops at the end of the page, so the first page of
+   * an open-ended range costs the same as that of a short one.
+   */
+  private ExpensePage pageBetween(PageArgsForList input, Category category, int page, int limit) {
+    if (input.afterId() != null) {
+      throw new IllegalArgumentException("after-id cannot be combined with a date range");
+    }
+    final List<Expense> rows = expenseRepository.findPageBetween(input.from(), input.to(),
+        input.month(), category, offset(page, limit), limit + 1);
+    if (rows.size() <= limit) {
+      return new ExpensePage(rows, null, null);
+    }
+    return new ExpensePage(rows.subList(0, limit), null, page + 1);
+  }
+
+  /**
+   * Returns the number of expenses on the pages before the given one.
+   *
+   * @throws IllegalArgumentException if it does not fit in an {@code int}
+   */
+  private static int offset(int page, int limit) {
+    try {
+      return Math.multiplyExact(page - 1, limit);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("page " + page + " is too large");
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.marwan.dev.expense_tracker.domain.expense.service;
+
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.budget.repository.BudgetRepositoryI;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.MonthlyReport;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.shared.CommandInterface;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service responsible for the monthly report: the spending of every month per category, joined with
+ * the month's budget.
+ * <p>
+ * The repository returns the whole (year, month, category) matrix in one call, and the budgets are
+ * read once per year in it, so the cost does not grow with the number of months or categories
+ * reported.
+ * </p>
+ */
+@Service
+public class ReportExpensesService implements CommandInterface<Integer, List<MonthlyReport>> {
+
+  private static final int CATEGORY_COUNT = Category.values().length;
+
+  /**
+   * Repository for managing expense data.
+   */
+  private final ExpenseRepositoryI expenseRepository;
+
+  /**
+   * Repository for managing budget data.
+   */
+  private final BudgetRepositoryI budgetRepository;
+
+  /**
+   * Constructs a ReportExpensesService with the provided repositories.
+   *
+   * @param expenseRepository repository used to aggregate the spending
+   * @param budgetRepository  repository used to look up the budgets
+   */
+  public ReportExpensesService(ExpenseRepositoryI expenseRepository,
+      BudgetRepositoryI budgetRepository) {
+    this.expenseRepository = expenseRepository;
+    this.budgetRepository = budgetRepository;
+  }
+
+  /**
+   * Builds the report of one year, or of every year with expenses. Months with a budget but no
+   * expenses are reported with zero spending, so an unused budget still shows up.
+   *
+   * @param year the year to report, or null for every year
+   * @return one row per month, in calendar order
+   */
+  @Override
+  public List<MonthlyReport> execute(Integer year) {
+    final List<MonthlySpending> spending = expenseRepository.spendingByMonth(year);
+    final TreeSet<Integer> years = new TreeSet<>();
+    if (year != null) {
+      years.add(year);
+    }
+    spending.forEach(month -> years.add(month.year()));
+
+    final Map<Integer, Long> budgets = new TreeMap<>();
+    for (Integer reportedYear : years) {
+      for (Budget budget : budgetRepository.findByYear(reportedYear)) {
+        budgets.put(key(budget.getYear(), budget.getMonth()), budget.getAmountCents());
+      }
+    }
+
+    final Map<Integer, MonthlyReport> report = new TreeMap<>();
+    for (MonthlySpending month : spending) {
+      final int key = key(month.year(), month.month());
+      report.put(key, new MonthlyReport(month, budgets.remove(key)));
+    }
+    budgets.forEach((key, amount) -> report.put(key, new MonthlyReport(
+        new MonthlySpending(key / 12, key % 12 + 1, new long[CATEGORY_COUNT]), amount)));
+    return new ArrayList<>(report.values());
+  }
+
+  private static int key(int year, int month) {
+    return year * 12 + month - 1;
+  }
+}
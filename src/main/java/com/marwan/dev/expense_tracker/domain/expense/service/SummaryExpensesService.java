@@ -1,16 +1,20 @@
 package com.marwan.dev.expense_tracker.domain.expense.service;
 
 import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
 import com.marwan.dev.expense_tracker.domain.expense.model.dto.SearchArgsForList;
 import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
 import com.marwan.dev.expense_tracker.shared.CommandInterface;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.math.BigDecimal;
 import org.springframework.stereotype.Service;
 
 /**
- * Service responsible for summarizing expenses based on optional month and/or category filters.
+ * Service responsible for summarizing expenses based on optional month and/or category filters and
+ * an optional inclusive date range. Totals are summed in cents and returned with two decimals.
  */
 @Service
-public class SummaryExpensesService implements CommandInterface<SearchArgsForList, Double> {
+public class SummaryExpensesService implements CommandInterface<SearchArgsForList, BigDecimal> {
 
   /**
    * Repository for managing expense data.
@@ -29,15 +33,18 @@ public class SummaryExpensesService implements CommandInterface<SearchArgsForLis
   /**
    * Executes the summary calculation based on the given input arguments.
    *
-   * @param input optional filters including month and category
+   * @param input optional filters including month, category and date range
    * @return the total expense amount matching the filter
    */
   @Override
-  public Double execute(SearchArgsForList input) {
+  public BigDecimal execute(SearchArgsForList input) {
     if (input == null) {
-      return expenseRepository.summeryAll();
+      return Money.toAmount(expenseRepository.summeryAll());
+    }
+    if (input.hasDateRange()) {
+      return Money.toAmount(summaryBetween(input));
     }
-    return handleNullArgsHelper(input);
+    return Money.toAmount(handleNullArgsHelper(input));
   }
 
   /**
@@ -45,12 +52,14 @@ public class SummaryExpensesService implements CommandInterface<SearchArgsForLis
    * summary calculations.
    *
    * @param input the filtering arguments
-   * @return calculated expense summary based on filters
+   * @return calculated expense summary based on filters, in cents
    */
-  private Double handleNullArgsHelper(SearchArgsForList input) {
+  private long handleNullArgsHelper(SearchArgsForList input) {
     final boolean isMonthNull = input.month() == null;
     final boolean isCategoryNull = input.category() == null;
-    if (!isMonthNull && isCategoryNull) {
+    if (isMonthNull && isCategoryNull) {
+      return expenseRepository.summeryAll();
+    } else if (!isMonthNull && isCategoryNull) {
       return expenseRepository.summeryByMonth(input.month());
     } else if (!isCategoryNull && isMonthNull) {
       return expenseRepository.summeryByCategory(Category.from(input.category()));
@@ -59,4 +68,22 @@ public class SummaryExpensesService implements CommandInterface<SearchArgsForLis
           Category.from(input.category()));
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Sums a date range from the repository's date index, filtering the range's expenses only when a
+   * month or category is also given.
+   *
+   * @param input the filtering arguments, with at least one date bound
+   * @return calculated expense summary for the range, in cents
+   */
+  private long summaryBetween(SearchArgsForList input) {
+    if (input.month() == null && input.category() == null) {
+      return expenseRepository.sumBetween(input.from(), input.to());
+    }
+    final Category category = input.category() == null ? null : Category.from(input.category());
+    return expenseRepository.findBetween(input.from(), input.to()).stream()
+        .filter(e -> input.month() == null || e.getCreatedAt().getMonthValue() == input.month())
+        .filter(e -> category == null || e.getCategory() == category)
+        .mapToLong(Expense::getAmountCents).sum();
+  }
+}
@@ -0,0 +1,41 @@
+package com.marwan.dev.expense_tracker.domain.storage.model;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Line-based file formats used to import and export expenses, identified by the file extension.
+ */
+@Getter
+public enum TransferFormat {
+  CSV("csv"), JSONL("jsonl");
+
+  private final String extension;
+
+  TransferFormat(String extension) {
+    this.extension = extension;
+  }
+
+  /**
+   * Resolves a format by name, ignoring case.
+   *
+   * @param format the format name, e.g. {@code csv}
+   * @return the matching format
+   * @throws IllegalArgumentException if no format matches
+   */
+  public static TransferFormat from(String format) {
+    return Arrays.stream(values()).filter(f -> f.extension.equalsIgnoreCase(format)).findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("unknown file format: " + format));
+  }
+
+  /**
+   * Resolves the format of a file from its extension.
+   *
+   * @param filePath the file path
+   * @return the matching format
+   * @throws IllegalArgumentException if the extension is not a known format
+   */
+  public static TransferFormat fromPath(String filePath) {
+    return from(filePath.substring(filePath.lastIndexOf('.') + 1));
+  }
+}
@@ -0,0 +1,9 @@
+package com.marwan.dev.expense_tracker.domain.storage.model.dto;
+
+import java.io.Writer;
+import java.time.LocalDate;
+
+public record ExportExpensesRequest(Writer out, String format, Integer month, String category,
+                                    LocalDate from, LocalDate to) {
+
+}
@@ -0,0 +1,16 @@
+package com.marwan.dev.expense_tracker.domain.storage.model.dto;
+
+import java.util.List;
+
+public record ImportExpensesResponse(int imported, int rejected, List<String> errors,
+                                     long elapsedNanos) {
+
+  /**
+   * Returns the import throughput over every line read, accepted or rejected.
+   *
+   * @return rows processed per second
+   */
+  public double rowsPerSecond() {
+    return (imported + rejected) * 1_000_000_000.0 / Math.max(elapsedNanos, 1);
+  }
+}
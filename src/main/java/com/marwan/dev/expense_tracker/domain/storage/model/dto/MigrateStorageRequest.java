@@ -0,0 +1,5 @@
+package com.marwan.dev.expense_tracker.domain.storage.model.dto;
+
+public record MigrateStorageRequest(String from, String to) {
+
+}
@@ -0,0 +1,6 @@
+package com.marwan.dev.expense_tracker.domain.storage.model.dto;
+
+public record MigrateStorageResponse(int expenses, String source, long sourceBytes, String target,
+                                     long targetBytes) {
+
+}
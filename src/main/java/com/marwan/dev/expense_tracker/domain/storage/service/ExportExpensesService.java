@@ -0,0 +1,137 @@
+package com.marwan.dev.expense_tracker.domain.storage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.domain.storage.model.TransferFormat;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ExportExpensesRequest;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.Csv;
+import com.marwan.dev.expense_tracker.shared.CommandInterface;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Predicate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class that streams filtered expenses to a writer as CSV or JSON lines.
+ * <p>
+ * Expenses are visited one at a time through {@link ExpenseRepositoryI#forEach} and each is written
+ * as soon as it matches, so memory use does not grow with the ledger. The output uses the columns
+ * {@link ImportExpensesService} reads, so an export can be imported again. An expense without a
+ * category gets an empty CSV field or a JSON null.
+ * </p>
+ */
+@Service
+public class ExportExpensesService implements CommandInterface<ExportExpensesRequest, Integer> {
+
+  private static final String CSV_HEADER = "id,date,category,description,amount";
+
+  private final ExpenseRepositoryI expenseRepository;
+  private final ObjectWriter jsonWriter;
+
+  /**
+   * Constructs the ExportExpensesService.
+   *
+   * @param expenseRepository the repository the expenses are read from
+   * @param mapper            the mapper used to write JSON lines
+   */
+  public ExportExpensesService(ExpenseRepositoryI expenseRepository, ObjectMapper mapper) {
+    this.expenseRepository = expenseRepository;
+    this.jsonWriter = mapper.writerFor(ExportRow.class)
+        .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  /**
+   * Writes every expense matching the filters. The writer is flushed but not closed.
+   *
+   * @param input the writer, the format and the optional month, category and inclusive date range
+   *              filters
+   * @return the number of exported expenses
+   * @throws IllegalArgumentException if the format or category is unknown
+   */
+  @Override
+  public Integer execute(ExportExpensesRequest input) {
+    final TransferFormat format = TransferFormat.from(input.format());
+    final Predicate<Expense> filter = filter(input);
+    final Writer out = input.out();
+    final int[] exported = {0};
+    try {
+      if (format == TransferFormat.CSV) {
+        out.write(CSV_HEADER);
+        out.write(System.lineSeparator());
+      }
+      expenseRepository.forEach(expense -> {
+        if (filter.test(expense)) {
+          writeRow(out, format, expense);
+          exported[0]++;
+        }
+      });
+      out.flush();
+    } catch (IOException e) {
+      throw new RuntimeException("Error writing to file", e);
+    } catch (UncheckedIOException e) {
+      throw new RuntimeException("Error writing to file", e.getCause());
+    }
+    return exported[0];
+  }
+
+  private Predicate<Expense> filter(ExportExpensesRequest input) {
+    Predicate<Expense> filter = expense -> true;
+    if (input.month() != null) {
+      filter = filter.and(expense -> expense.getCreatedAt().getMonthValue() == input.month());
+    }
+    if (input.category() != null) {
+      final Category category = Category.from(input.category());
+      filter = filter.and(expense -> expense.getCategory() == category);
+    }
+    if (input.from() != null) {
+      filter = filter.and(expense -> !expense.getCreatedAt().isBefore(input.from()));
+    }
+    if (input.to() != null) {
+      filter = filter.and(expense -> !expense.getCreatedAt().isAfter(input.to()));
+    }
+    return filter;
+  }
+
+  private void writeRow(Writer out, TransferFormat format, Expense expense) {
+    try {
+      if (format == TransferFormat.CSV) {
+        final Category category = expense.getCategory();
+        out.write(String.join(",", String.valueOf(expense.getId()),
+            String.valueOf(expense.getCreatedAt()), category == null ? "" : category.name(),
+            Csv.escape(expense.getDescription()), plain(expense.getAmount())));
+      } else {
+        out.write(jsonWriter.writeValueAsString(
+            new ExportRow(expense.getId(), expense.getCreatedAt(), expense.getCategory(),
+                expense.getDescription(), expense.getAmount())));
+      }
+      out.write(System.lineSeparator());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Error serializing expense " + expense.getId(), e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Formats an amount with its two decimals and without an exponent, e.g. {@code 12000000.00}.
+   */
+  private static String plain(BigDecimal amount) {
+    return amount.toPlainString();
+  }
+
+  /**
+   * One exported JSON line, with the date written as {@code yyyy-MM-dd}.
+   */
+  private record ExportRow(Integer id, LocalDate date, Category category, String description,
+                           BigDecimal amount) {
+
+  }
+}
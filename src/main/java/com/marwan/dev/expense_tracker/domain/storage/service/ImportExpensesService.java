@@ -0,0 +1,228 @@
+package com.marwan.dev.expense_tracker.domain.storage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.domain.storage.model.TransferFormat;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ImportExpensesRequest;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ImportExpensesResponse;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.Csv;
+import com.marwan.dev.expense_tracker.shared.CommandInterface;
+import com.marwan.dev.expense_tracker.shared.Money;
+import com.marwan.dev.expense_tracker.shared.exceptions.expense.CategoryNotFoundException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class that bulk-imports expenses from a CSV or JSON-lines file.
+ * <p>
+ * The file is read one record at a time and every row is validated on its own, so a bad row is
+ * reported and skipped instead of failing the import. The accepted rows get IDs in one block after the
+ * current max ID and are committed with a single {@link ExpenseRepositoryI#saveAll} call, one
+ * write instead of one read-modify-write per row as with the {@code add} command.
+ * </p>
+ * <p>
+ * CSV files start with a header naming the columns: {@code description}, {@code amount} and
+ * {@code category} are required, {@code date} (yyyy-MM-dd) is optional and any other column, such
+ * as {@code id}, is ignored. A quoted field may span several lines. JSON lines hold one object per
+ * line with the same fields, the date also accepted as {@code createdAt}. Rows without a date are
+ * dated today, and rows with an empty or null category are saved without one, as export writes
+ * them.
+ * </p>
+ */
+@Service
+public class ImportExpensesService implements
+    CommandInterface<ImportExpensesRequest, ImportExpensesResponse> {
+
+  /**
+   * Number of rejected rows reported individually, the rest are only counted.
+   */
+  private static final int MAX_REPORTED_ERRORS = 20;
+  private static final BigDecimal MAX_AMOUNT = Money.toAmount(Long.MAX_VALUE / 10);
+
+  private final ExpenseRepositoryI expenseRepository;
+  private final ObjectMapper mapper;
+
+  /**
+   * Constructs the ImportExpensesService.
+   *
+   * @param expenseRepository the repository the imported expenses are saved to
+   * @param mapper            the mapper used to parse JSON lines
+   */
+  public ImportExpensesService(ExpenseRepositoryI expenseRepository, ObjectMapper mapper) {
+    this.expenseRepository = expenseRepository;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Reads, validates and saves every row of the file.
+   *
+   * @param input the file to import and its format, inferred from the extension when null
+   * @return the number of imported and rejected rows, the first rejection reasons and the time
+   * taken
+   * @throws IllegalArgumentException if the format is unknown or the CSV header lacks a column
+   */
+  @Override
+  public ImportExpensesResponse execute(ImportExpensesRequest input) {
+    final long start = System.nanoTime();
+    final TransferFormat format = input.format() == null ? TransferFormat.fromPath(input.file())
+        : TransferFormat.from(input.format());
+    final List<Expense> accepted = new ArrayList<>();
+    final List<String> errors = new ArrayList<>();
+    int rejected = 0;
+    try (BufferedReader reader = Files.newBufferedReader(Path.of(input.file()))) {
+      Map<String, Integer> columns = null;
+      int lineNumber = 0;
+      String line;
+      while ((line = format == TransferFormat.CSV ? Csv.readRecord(reader)
+          : reader.readLine()) != null) {
+        lineNumber++;
+        final int firstLine = lineNumber;
+        lineNumber += lineBreaks(line);
+        if (line.isBlank()) {
+          continue;
+        }
+        if (format == TransferFormat.CSV && columns == null) {
+          columns = parseHeader(line);
+          continue;
+        }
+        try {
+          accepted.add(format == TransferFormat.CSV ? parseCsv(columns, line) : parseJson(line));
+        } catch (RuntimeException e) {
+          rejected++;
+          if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(String.format("line %d: %s", firstLine, e.getMessage()));
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading from file", e);
+    }
+    if (!accepted.isEmpty()) {
+      expenseRepository.saveAll(accepted);
+    }
+    return new ImportExpensesResponse(accepted.size(), rejected, errors, System.nanoTime() - start);
+  }
+
+  /**
+   * Utility: Count the line breaks inside a CSV record whose quoted fields span lines.
+   */
+  private static int lineBreaks(String record) {
+    int breaks = 0;
+    for (int i = 0; i < record.length(); i++) {
+      final char c = record.charAt(i);
+      if (c == '\n' || c == '\r' && (i + 1 == record.length() || record.charAt(i + 1) != '\n')) {
+        breaks++;
+      }
+    }
+    return breaks;
+  }
+
+  private Map<String, Integer> parseHeader(String line) {
+    final List<String> names = Csv.split(line);
+    final Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    for (String required : List.of("description", "amount", "category")) {
+      if (!columns.containsKey(required)) {
+        throw new IllegalArgumentException("CSV header has no " + required + " column");
+      }
+    }
+    return columns;
+  }
+
+  private Expense parseCsv(Map<String, Integer> columns, String line) {
+    final List<String> fields = Csv.split(line);
+    final Integer dateColumn = columns.get("date");
+    return toExpense(field(fields, columns.get("description")),
+        field(fields, columns.get("amount")), field(fields, columns.get("category")),
+        dateColumn == null ? null : parseDate(field(fields, dateColumn)));
+  }
+
+  private Expense parseJson(String line) {
+    final JsonNode node;
+    try {
+      node = mapper.readTree(line);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("malformed JSON");
+    }
+    final JsonNode date = node.has("date") ? node.get("date") : node.get("createdAt");
+    LocalDate createdAt = null;
+    if (date != null && !date.isNull()) {
+      try {
+        createdAt = mapper.treeToValue(date, LocalDate.class);
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException("invalid date " + date);
+      }
+    }
+    return toExpense(text(node, "description"), text(node, "amount"), text(node, "category"),
+        createdAt);
+  }
+
+  private Expense toExpense(String description, String amount, String category,
+      LocalDate createdAt) {
+    if (description == null || description.isBlank()) {
+      throw new IllegalArgumentException("missing description");
+    }
+    if (amount == null) {
+      throw new IllegalArgumentException("missing amount");
+    }
+    final BigDecimal value;
+    try {
+      value = new BigDecimal(amount.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid amount " + amount);
+    }
+    if (value.compareTo(MAX_AMOUNT) > 0) {
+      throw new IllegalArgumentException("amount too large: " + amount);
+    }
+    if (Money.toCents(value) <= 0) {
+      throw new IllegalArgumentException("amount must be positive: " + amount);
+    }
+    Category parsed = null;
+    if (category != null && !category.isBlank()) {
+      try {
+        parsed = Category.from(category.trim());
+      } catch (CategoryNotFoundException e) {
+        throw new IllegalArgumentException("unknown category " + category);
+      }
+    }
+    return new Expense(0, createdAt == null ? LocalDate.now() : createdAt, null,
+        description.trim(), value, parsed);
+  }
+
+  private static LocalDate parseDate(String date) {
+    if (date == null || date.isBlank()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(date.trim());
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("invalid date " + date);
+    }
+  }
+
+  private static String field(List<String> fields, int column) {
+    return column < fields.size() ? fields.get(column) : null;
+  }
+
+  private static String text(JsonNode node, String field) {
+    final JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+}
@@ -0,0 +1,85 @@
+package com.marwan.dev.expense_tracker.domain.storage.service;
+
+import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withWriteLock;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.MigrateStorageRequest;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.MigrateStorageResponse;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import com.marwan.dev.expense_tracker.shared.CommandInterface;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class that converts the expense data file from one {@link StorageFormat} to another.
+ * <p>
+ * The source file is left in place, so switching {@code expense-tracker.storage.format} back is
+ * always possible. When the source is the configured format and the journal engine left a
+ * journal, the journal is replayed over the source, so changes made since its last compaction are
+ * migrated too. The source stays under a shared file lock until the target is written.
+ * </p>
+ */
+@Service
+public class MigrateStorageService implements
+    CommandInterface<MigrateStorageRequest, MigrateStorageResponse> {
+
+  private final JsonFileHandlerI fileHandler;
+  private final ReadWriteLock lock;
+  private final StorageFormat storageFormat;
+
+  /**
+   * Constructs the MigrateStorageService.
+   *
+   * @param fileHandler   the handler used to read and write the expense files
+   * @param lock          the lock guarding the expense files
+   * @param storageFormat the configured format, whose file the journal is replayed over
+   */
+  public MigrateStorageService(JsonFileHandlerI fileHandler,
+      @Qualifier("expenseLock") ReadWriteLock lock, StorageFormat storageFormat) {
+    this.fileHandler = fileHandler;
+    this.lock = lock;
+    this.storageFormat = storageFormat;
+  }
+
+  /**
+   * Reads every expense in the source format and writes them in the target format.
+   *
+   * @param input the source and target format names
+   * @return the number of migrated expenses and the size of both files
+   * @throws IllegalArgumentException if a format is unknown or both formats are the same
+   */
+  @Override
+  public MigrateStorageResponse execute(MigrateStorageRequest input) {
+    final StorageFormat from = StorageFormat.from(input.from());
+    final StorageFormat to = StorageFormat.from(input.to());
+    if (from == to) {
+      throw new IllegalArgumentException("source and target formats are the same");
+    }
+    final String source = from.expenseFilePath();
+    final String target = to.expenseFilePath();
+    return withWriteLock(lock, () -> {
+      try (var hold = fileHandler.lockShared(source)) {
+        final List<Expense> expenses = readSource(from);
+        fileHandler.write(target, expenses);
+        return new MigrateStorageResponse(expenses.size(), source,
+            fileHandler.stamp(source).size(), target, fileHandler.stamp(target).size());
+      }
+    });
+  }
+
+  /**
+   * Utility: Read the expenses of the source file. The journal only belongs to the configured
+   * format's file, so it is replayed over that one alone.
+   */
+  private List<Expense> readSource(StorageFormat from) {
+    final String journalPath = JournalExpenseRepository.journalPath();
+    if (from == storageFormat && fileHandler.stamp(journalPath).size() > 0) {
+      return JournalExpenseRepository.replay(fileHandler, from.expenseFilePath(), journalPath);
+    }
+    return fileHandler.read(from.expenseFilePath(), Expense.class);
+  }
+}
@@ -2,12 +2,22 @@ package com.marwan.dev.expense_tracker.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.Durability;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.OptimisticReadWriteLock;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.WriteBehindFileHandler;
+import java.time.Duration;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @Configuration
+@ImportRuntimeHints(NativeHints.class)
 public class Config {
 
   @Bean
@@ -17,8 +27,68 @@ public class Config {
     return mapper;
   }
 
+  /**
+   * Selects the on-disk format of the expense data file.
+   *
+   * @param format one of {@code json}, {@code smile}, {@code cbor} or {@code binary}
+   * @return the configured storage format
+   */
   @Bean
-  public ReadWriteLock lock() {
+  public StorageFormat storageFormat(@Value("${expense-tracker.storage.format:json}") String format) {
+    return StorageFormat.from(format);
+  }
+
+  /**
+   * Selects when writes to the data files are forced to disk.
+   *
+   * @param durability one of {@code none}, {@code fsync} or {@code group-commit}
+   * @return the configured durability level
+   */
+  @Bean
+  public Durability durability(@Value("${expense-tracker.storage.durability:fsync}") String durability) {
+    return Durability.from(durability);
+  }
+
+  /**
+   * File handler of the expense engines. With a positive write-behind window, saves are staged and
+   * flushed in batches; otherwise this is the plain file handler. Budgets always use the plain one:
+   * their snapshot records the file's stamp right after each write, and a deferred write would tag
+   * the new budgets with the old file's stamp, so the snapshot would no longer match the disk.
+   *
+   * @param fileHandler the plain file handler
+   * @param window      how long a batch collects mutations, {@code 0} to write synchronously
+   * @param maxBatch    the number of mutations that flushes a batch early
+   * @return the expense file handler
+   */
+  @Bean
+  public JsonFileHandlerI expenseFileHandler(JsonFileHandler fileHandler,
+      @Value("${expense-tracker.storage.write-behind.window:0ms}") Duration window,
+      @Value("${expense-tracker.storage.write-behind.max-batch:256}") int maxBatch) {
+    if (window.isZero() || window.isNegative()) {
+      return fileHandler;
+    }
+    return new WriteBehindFileHandler(fileHandler, window, maxBatch);
+  }
+
+  /**
+   * Lock guarding the expense store. The in-memory engines read it optimistically, so reads do not
+   * contend with each other and only retry under the read lock when a write gets in the way.
+   *
+   * @return the expense store lock
+   */
+  @Bean
+  public ReadWriteLock expenseLock() {
+    return new OptimisticReadWriteLock();
+  }
+
+  /**
+   * Lock guarding the budget store, kept apart from {@link #expenseLock()} so budget writes do not
+   * block expense reads and vice versa.
+   *
+   * @return the budget store lock
+   */
+  @Bean
+  public ReadWriteLock budgetLock() {
     return new ReentrantReadWriteLock();
   }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.marwan.dev.expense_tracker.infrastructure.config;
+
+import com.marwan.dev.expense_tracker.commands.BatchCommands;
+import com.marwan.dev.expense_tracker.commands.BudgetCommands;
+import com.marwan.dev.expense_tracker.commands.ExpensesCommands;
+import com.marwan.dev.expense_tracker.commands.ServerCommands;
+import com.marwan.dev.expense_tracker.commands.StorageCommands;
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.budget.model.dto.UpdateBudgetRequest;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseRequest;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseResponse;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ExpenseTotal;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalEntry;
+import java.util.List;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for the native image, which only keeps the classes and members it can prove are
+ * used.
+ * <p>
+ * Jackson binds the persisted and HTTP types reflectively, through their {@code @JsonCreator}
+ * constructors and accessors, so they are registered with everything Jackson looks up, including
+ * the types they reference. Spring Shell invokes the {@code @Command} methods reflectively, so
+ * the command classes keep their public methods and the annotations on them.
+ * </p>
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+  /**
+   * Types read or written by Jackson, in the data files or over HTTP.
+   */
+  static final List<Class<?>> JSON_TYPES = List.of(Expense.class, Budget.class,
+      ExpenseTotal.class, JournalEntry.class, JournalEntry.Operation.class,
+      CreateExpenseRequest.class, CreateExpenseResponse.class, UpdateBudgetRequest.class);
+
+  /**
+   * Export rows are a private record of the export service, so they are named instead.
+   */
+  static final String EXPORT_ROW =
+      "com.marwan.dev.expense_tracker.domain.storage.service.ExportExpensesService$ExportRow";
+
+  /**
+   * Classes whose {@code @Command} methods Spring Shell registers and invokes.
+   */
+  static final List<Class<?>> COMMAND_TYPES = List.of(ExpensesCommands.class,
+      BudgetCommands.class, StorageCommands.class, BatchCommands.class, ServerCommands.class);
+
+  private final BindingReflectionHintsRegistrar bindingRegistrar =
+      new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    bindingRegistrar.registerReflectionHints(hints.reflection(),
+        JSON_TYPES.toArray(Class<?>[]::new));
+    bindingRegistrar.registerReflectionHints(hints.reflection(),
+        ClassUtils.resolveClassName(EXPORT_ROW, classLoader));
+    for (Class<?> commands : COMMAND_TYPES) {
+      hints.reflection().registerType(commands, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+          MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package com.marwan.dev.expense_tracker.infrastructure.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.marwan.dev.expense_tracker.domain.budget.model.dto.SearchArgsForBudget;
+import com.marwan.dev.expense_tracker.domain.budget.model.dto.UpdateBudgetRequest;
+import com.marwan.dev.expense_tracker.domain.budget.service.GetBudgetService;
+import com.marwan.dev.expense_tracker.domain.budget.service.UpdateBudgetService;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseRequest;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.SearchArgsForList;
+import com.marwan.dev.expense_tracker.domain.expense.service.AddExpenseService;
+import com.marwan.dev.expense_tracker.domain.expense.service.ListExpensesService;
+import com.marwan.dev.expense_tracker.domain.expense.service.SummaryExpensesService;
+import com.marwan.dev.expense_tracker.shared.exceptions.ErrorMessage;
+import com.marwan.dev.expense_tracker.shared.exceptions.budget.BudgetNotFoundException;
+import com.marwan.dev.expense_tracker.shared.exceptions.expense.CategoryNotFoundException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local HTTP/JSON endpoint over the expense and budget services, so many clients can share one warm
+ * process and its in-memory repositories instead of starting a JVM per call.
+ * <p>
+ * Built on the JDK's {@link HttpServer}: every request runs on its own virtual thread, and responses
+ * carry a fixed length so HTTP/1.1 connections stay open between requests. Routes:
+ * </p>
+ * <ul>
+ *   <li>{@code POST /expenses} with {@code {"description", "amount", "category"}}</li>
+ *   <li>{@code GET /expenses?month=&category=}</li>
+ *   <li>{@code GET /expenses/summary?month=&category=&from=&to=}</li>
+ *   <li>{@code GET /budgets?month=&year=}</li>
+ *   <li>{@code PUT /budgets} with {@code {"month", "year", "amount"}}</li>
+ * </ul>
+ * <p>
+ * Invalid input answers {@code 400}, a missing budget on {@code GET /budgets} {@code 404}, and
+ * errors carry {@code {"error": "..."}}. An expense is added even when its month has no budget; its
+ * {@code balanceLeft} is then null.
+ * </p>
+ */
+@Component
+public class ExpenseApiServer {
+
+  /**
+   * The JDK server writes headers and body separately, so with Nagle's algorithm each kept-alive
+   * response waits for the client's delayed ACK. Read once, when the first server is created.
+   */
+  private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  private final AddExpenseService addExpenseService;
+  private final ListExpensesService listExpensesService;
+  private final SummaryExpensesService summaryExpensesService;
+  private final GetBudgetService getBudgetService;
+  private final UpdateBudgetService updateBudgetService;
+  private final ObjectMapper mapper;
+
+  private HttpServer server;
+  private ExecutorService executor;
+
+  /**
+   * Constructs a new ExpenseApiServer.
+   *
+   * @param addExpenseService      service behind {@code POST /expenses}
+   * @param listExpensesService    service behind {@code GET /expenses}
+   * @param summaryExpensesService service behind {@code GET /expenses/summary}
+   * @param getBudgetService       service behind {@code GET /budgets}
+   * @param updateBudgetService    service behind {@code PUT /budgets}
+   * @param mapper                 the application's mapper, copied to write ISO dates
+   */
+  public ExpenseApiServer(AddExpenseService addExpenseService,
+      ListExpensesService listExpensesService, SummaryExpensesService summaryExpensesService,
+      GetBudgetService getBudgetService, UpdateBudgetService updateBudgetService,
+      ObjectMapper mapper) {
+    this.addExpenseService = addExpenseService;
+    this.listExpensesService = listExpensesService;
+    this.summaryExpensesService = summaryExpensesService;
+    this.getBudgetService = getBudgetService;
+    this.updateBudgetService = updateBudgetService;
+    this.mapper = mapper.copy().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  /**
+   * Starts listening.
+   *
+   * @param host the address to bind, e.g. {@code 127.0.0.1}
+   * @param port the port, {@code 0} for any free one
+   * @return the bound address
+   * @throws IOException if the address cannot be bound
+   */
+  public synchronized InetSocketAddress start(String host, int port) throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("server already running on " + server.getAddress());
+    }
+    if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+      System.setProperty(NO_DELAY_PROPERTY, "true");
+    }
+    final HttpServer created = HttpServer.create(new InetSocketAddress(host, port), 0);
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    created.setExecutor(executor);
+    created.createContext("/", this::handle);
+    created.start();
+    server = created;
+    return created.getAddress();
+  }
+
+  /**
+   * Stops listening and waits for the requests in flight.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    if (server != null) {
+      server.stop(0);
+      executor.close();
+      server = null;
+      executor = null;
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      int status = 200;
+      Object body;
+      try {
+        body = route(exchange);
+        if ("POST".equals(exchange.getRequestMethod())) {
+          status = 201;
+        }
+      } catch (RouteNotFoundException e) {
+        status = e.status;
+        body = error(e.getMessage());
+      } catch (JsonProcessingException | DateTimeParseException | IllegalArgumentException
+               | CategoryNotFoundException e) {
+        status = 400;
+        body = error(e.getMessage());
+      } catch (RuntimeException e) {
+        status = 500;
+        body = error(e.getMessage());
+      }
+      final byte[] response = mapper.writeValueAsBytes(body);
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(status, response.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(response);
+      }
+    }
+  }
+
+  /**
+   * Utility: Dispatch a request to its service and return the response body.
+   */
+  private Object route(HttpExchange exchange) throws IOException {
+    final String method = exchange.getRequestMethod();
+    final String path = exchange.getRequestURI().getPath();
+    final Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+    return switch (path) {
+      case "/expenses" -> switch (method) {
+        case "GET" -> listExpensesService.execute(listArgs(query));
+        case "POST" -> addExpenseService.execute(read(exchange, CreateExpenseRequest.class));
+        default -> throw new RouteNotFoundException(405, "method not allowed");
+      };
+      case "/expenses/summary" -> {
+        requireGet(method);
+        final var args = new SearchArgsForList(integer(query.get("month")), query.get("category"),
+            date(query.get("from")), date(query.get("to")));
+        yield Map.of("total", summaryExpensesService.execute(args));
+      }
+      case "/budgets" -> switch (method) {
+        case "GET" -> budget(query);
+        case "PUT" -> updateBudgetService.execute(read(exchange, UpdateBudgetRequest.class));
+        default -> throw new RouteNotFoundException(405, "method not allowed");
+      };
+      default -> throw new RouteNotFoundException(404, "no route for " + path);
+    };
+  }
+
+  /**
+   * Utility: Look up a budget, answering {@code 404} when the month has none. Only this route maps
+   * a miss to {@code 404}, so a failure elsewhere is never mistaken for a missing budget.
+   */
+  private Object budget(Map<String, String> query) {
+    final var args = new SearchArgsForBudget(integer(required(query, "month")),
+        integer(query.get("year")));
+    try {
+      return getBudgetService.execute(args);
+    } catch (NoSuchElementException | BudgetNotFoundException e) {
+      throw new RouteNotFoundException(404, ErrorMessage.BUDGET_NOT_FOUND.getMessage());
+    }
+  }
+
+  /**
+   * Utility: Without filters the list service returns every expense.
+   */
+  private static SearchArgsForList listArgs(Map<String, String> query) {
+    final Integer month = integer(query.get("month"));
+    final String category = query.get("category");
+    return month == null && category == null ? null : new SearchArgsForList(month, category);
+  }
+
+  private <T> T read(HttpExchange exchange, Class<T> type) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      return mapper.readValue(in, type);
+    }
+  }
+
+  private static void requireGet(String method) {
+    if (!"GET".equals(method)) {
+      throw new RouteNotFoundException(405, "method not allowed");
+    }
+  }
+
+  private static Map<String, String> query(String rawQuery) {
+    final Map<String, String> values = new HashMap<>();
+    if (rawQuery != null) {
+      for (String pair : rawQuery.split("&")) {
+        final int equals = pair.indexOf('=');
+        if (equals > 0) {
+          values.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+              URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+      }
+    }
+    return values;
+  }
+
+  private static String required(Map<String, String> query, String name) {
+    final String value = query.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("missing query parameter " + name);
+    }
+    return value;
+  }
+
+  private static Integer integer(String value) {
+    return value == null ? null : Integer.valueOf(value);
+  }
+
+  private static LocalDate date(String value) {
+    return value == null ? null : LocalDate.parse(value);
+  }
+
+  private static Map<String, String> error(String message) {
+    return Map.of("error", message == null ? "unexpected error" : message);
+  }
+
+  /**
+   * Thrown for a path or method without a route.
+   */
+  private static final class RouteNotFoundException extends RuntimeException {
+
+    private final int status;
+
+    private RouteNotFoundException(int status, String message) {
+      super(message);
+      this.status = status;
+    }
+  }
+}
@@ -1,19 +1,39 @@
 package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
 
-import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withReadLock;
 import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withWriteLock;
 
 import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
 import com.marwan.dev.expense_tracker.domain.budget.repository.BudgetRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
 import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
-import com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Repository for budgets backed by {@code config.json}.
+ * <p>
+ * The file is read once into an immutable {@link Snapshot} holding private copies of the budgets
+ * keyed by {@code year * 12 + month}, a per-year index and the count. Every read first compares the
+ * file's stamp (its size, modification time and lock version) with the snapshot's and reads the
+ * file again only when another process changed it, so a lookup costs that stat and lock file read
+ * plus a hash map read. Budgets are handed out as copies, so callers may change them freely
+ * without touching the cache. Every mutation writes the file and swaps in a new snapshot of what
+ * it wrote.
+ * </p>
+ */
 @Repository
+@ConditionalOnExpression("'${expense-tracker.storage.engine:json}' != 'sql'")
 public class BudgetRepository implements BudgetRepositoryI {
 
   private final ReadWriteLock lock;
@@ -21,24 +41,30 @@ public class BudgetRepository implements BudgetRepositoryI {
   private final String filePath = String.format("%s/expense-tracker/config.json",
       System.getProperty("user.home"));
 
-  public BudgetRepository(ReadWriteLock lock, JsonFileHandlerI fileHandler) {
+  /**
+   * Budgets as of the last load or write, or null before the first access.
+   */
+  private volatile Snapshot snapshot;
+
+  public BudgetRepository(@Qualifier("budgetLock") ReadWriteLock lock,
+      JsonFileHandlerI fileHandler) {
     this.fileHandler = fileHandler;
     this.lock = lock;
   }
 
   /**
-   * Save a budget entry. If one exists for the same month and year, replace it.
+   * Save a budget entry. If one exists for the same month and year, replace it. The file stays
+   * locked from the staleness check to the write, so a concurrent process cannot slip an update in
+   * between.
    *
    * @param budget the budget to save
    * @return the saved budget
    */
   @Override
   public Budget save(Budget budget) {
-    return withWriteLock(lock, () -> {
-      final List<Budget> budgets = new ArrayList<>(readBudgetFromFile());
-      budgets.removeIf(b -> sameMonthAndYear(b, budget));
-      budgets.add(budget);
-      writeBudgetToFile(budgets);
+    return mutate(budgets -> {
+      budgets.remove(key(budget.getMonth(), budget.getYear()));
+      budgets.put(key(budget.getMonth(), budget.getYear()), budget);
       return budget;
     });
   }
@@ -52,8 +78,10 @@ public class BudgetRepository implements BudgetRepositoryI {
    */
   @Override
   public Optional<Budget> findByMonthAndYear(Integer month, Integer year) {
-    return withReadLock(lock, () -> new ArrayList<>(readBudgetFromFile()).stream()
-        .filter(b -> b.getMonth().equals(month) && b.getYear().equals(year)).findFirst());
+    if (month == null || year == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(current().byKey().get(key(month, year))).map(BudgetRepository::copy);
   }
 
   /**
@@ -64,9 +92,9 @@ public class BudgetRepository implements BudgetRepositoryI {
    */
   @Override
   public List<Budget> findByYear(Integer year) {
-    return withReadLock(lock,
-        () -> new ArrayList<>(readBudgetFromFile()).stream().filter(b -> year.equals(b.getYear()))
-            .toList());
+    return current().byYear().getOrDefault(year, List.of()).stream()
+        .map(BudgetRepository::copy)
+        .toList();
   }
 
   /**
@@ -77,11 +105,7 @@ public class BudgetRepository implements BudgetRepositoryI {
    */
   @Override
   public void deleteByMonthAndYear(Integer month, Integer year) {
-    LockUtils.withWriteLock(lock, () -> {
-      final List<Budget> budgets = new ArrayList<>(readBudgetFromFile());
-      budgets.removeIf(b -> b.getMonth().equals(month) && year.equals(b.getYear()));
-      writeBudgetToFile(budgets);
-    });
+    mutate(budgets -> budgets.remove(key(month, year)));
   }
 
   /**
@@ -89,7 +113,10 @@ public class BudgetRepository implements BudgetRepositoryI {
    */
   @Override
   public void deleteAll() {
-    withWriteLock(lock, () -> writeBudgetToFile(new ArrayList<>()));
+    mutate(budgets -> {
+      budgets.clear();
+      return null;
+    });
   }
 
   /**
@@ -97,27 +124,93 @@ public class BudgetRepository implements BudgetRepositoryI {
    */
   @Override
   public int count() {
-    return readBudgetFromFile().size();
+    return current().count();
   }
 
   /**
-   * Utility: Read the list of budgets from the JSON file.
-   *
-   * @return list of budgets
+   * Utility: Return the snapshot, reading the file first if it was never read or changed since.
    */
-  private List<Budget> readBudgetFromFile() {
-    return fileHandler.read(filePath, Budget.class);
+  private Snapshot current() {
+    final Snapshot loaded = snapshot;
+    if (loaded != null && Objects.equals(loaded.stamp(), fileHandler.stamp(filePath))) {
+      return loaded;
+    }
+    return withWriteLock(lock, () -> {
+      try (var hold = fileHandler.lockShared(filePath)) {
+        return reloadIfStale();
+      }
+    });
   }
 
+  /**
+   * Utility: Apply a mutation to the budgets in file order, write them and swap in the new snapshot,
+   * all under the exclusive file lock.
+   */
+  private <R> R mutate(Function<Map<Integer, Budget>, R> mutation) {
+    return withWriteLock(lock, () -> {
+      try (var hold = fileHandler.lockExclusive(filePath)) {
+        final Map<Integer, Budget> budgets = new LinkedHashMap<>(reloadIfStale().byKey());
+        final R result = mutation.apply(budgets);
+        final List<Budget> written = List.copyOf(budgets.values());
+        fileHandler.write(filePath, written);
+        snapshot = Snapshot.of(written, fileHandler.stamp(filePath));
+        return result;
+      }
+    });
+  }
 
-  private void writeBudgetToFile(List<Budget> budgets) {
-    fileHandler.write(filePath, budgets);
+  /**
+   * Utility: Read the file unless the snapshot still matches it. Must be called under the write lock
+   * and a file lock.
+   */
+  private Snapshot reloadIfStale() {
+    final FileStamp stamp = fileHandler.stamp(filePath);
+    Snapshot loaded = snapshot;
+    if (loaded == null || !Objects.equals(loaded.stamp(), stamp)) {
+      loaded = Snapshot.of(fileHandler.read(filePath, Budget.class), stamp);
+      snapshot = loaded;
+    }
+    return loaded;
+  }
+
+  /**
+   * Utility: Pack a month and year into one key, ordered by year then month.
+   */
+  private static int key(Integer month, Integer year) {
+    return year * 12 + month - 1;
   }
 
   /**
-   * Utility: Check if two budgets have the same month and year.
+   * Utility: Copy a budget so the cached one cannot be changed through it.
    */
-  private boolean sameMonthAndYear(Budget a, Budget b) {
-    return a.getMonth().equals(b.getMonth()) && a.getYear().equals(b.getYear());
+  private static Budget copy(Budget budget) {
+    return new Budget(budget.getAmount(), budget.getMonth(), budget.getYear());
+  }
+
+  /**
+   * Immutable view of the budget file.
+   *
+   * @param byKey  copies of the budgets keyed by {@link #key}, in file order
+   * @param byYear budgets of each year, in file order
+   * @param count  number of budgets
+   * @param stamp  stamp of the file the view was built from
+   */
+  private record Snapshot(Map<Integer, Budget> byKey, Map<Integer, List<Budget>> byYear,
+                          int count, FileStamp stamp) {
+
+    static Snapshot of(List<Budget> budgets, FileStamp stamp) {
+      final Map<Integer, Budget> byKey = new LinkedHashMap<>();
+      for (Budget budget : budgets) {
+        // saves never write two entries for a month, but a hand-edited file may: keep the first
+        byKey.putIfAbsent(key(budget.getMonth(), budget.getYear()), copy(budget));
+      }
+      final Map<Integer, List<Budget>> byYear = new HashMap<>();
+      for (Budget budget : byKey.values()) {
+        byYear.computeIfAbsent(budget.getYear(), year -> new ArrayList<>()).add(budget);
+      }
+      byYear.replaceAll((year, list) -> List.copyOf(list));
+      return new Snapshot(Collections.unmodifiableMap(byKey), Map.copyOf(byYear), byKey.size(),
+          stamp);
+    }
   }
-}
\ No newline at end of file
+}
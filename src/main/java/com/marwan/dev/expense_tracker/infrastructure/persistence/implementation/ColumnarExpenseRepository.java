@@ -0,0 +1,1286 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withReadLock;
+import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withWriteLock;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.Durability;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.GroupCommitter;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.InterProcessLock;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.MappedColumn;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.ParallelScan;
+import com.marwan.dev.expense_tracker.shared.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository storing Expense data as memory-mapped primitive columns.
+ * <p>
+ * Every field lives in its own {@link MappedColumn} file (int IDs, int created and updated
+ * epoch-days, long amounts in cents, byte category ordinals), one slot per row, and descriptions
+ * are kept as length-prefixed UTF-8 strings in a separate heap file addressed by a long offset
+ * column. Sums scan the amount, date and category columns directly and allocate nothing per row;
+ * only the rows a query returns are turned into {@link Expense} objects. Updates are written in
+ * place, keeping the stored description unless it changed, and deletes negate the row's ID, so
+ * rows keep their insertion order. Once deleted rows or superseded descriptions make up half of
+ * their file, a write compacts the files, rewriting only the live rows. New rows normally get
+ * ascending IDs, so the ID column stays sorted by absolute value and a page cursor is found by
+ * binary search. Date range queries go through a sorted array of (created epoch-day, row) keys,
+ * which is extended as rows are appended in date order and re-sorted on the next range query
+ * otherwise. Full scans for month and category filters and sums run through {@link ParallelScan},
+ * so large ledgers are split over the cores; sums add whole cents, so they are exact however they
+ * were split. Writes follow {@code expense-tracker.storage.durability}: with {@code fsync} the
+ * mapped columns and the description file are forced before the write returns, and with
+ * {@code group-commit} they are forced once per interval.
+ * </p>
+ * <p>
+ * Several processes can share the files. Every write runs under the exclusive
+ * {@link InterProcessLock} of the meta file and bumps its version counter, and a process reloads
+ * its row index under the shared lock whenever the counter moved, so appends never reuse a row or
+ * an ID and in-place updates from other processes are picked up too. Reads hold the shared lock
+ * while they touch the columns, so they never see a row another process is halfway through
+ * writing. A compaction moves new files into place and bumps a generation counter in the meta
+ * file, and the other processes reopen their files when they see it move.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "expense-tracker.storage.engine", havingValue = "columnar")
+public class ColumnarExpenseRepository implements ExpenseRepositoryI {
+
+  private static final int INITIAL_ROWS = 1024;
+  private static final int NO_DATE = Integer.MIN_VALUE;
+  private static final long NO_DESCRIPTION = -1;
+  private static final int ANY = -1;
+  private static final int ROW_COUNT = 0;
+  private static final int MAX_ID = 1;
+
+  /**
+   * Bytes of the description file held by deleted rows and superseded descriptions, saturating at
+   * {@link Integer#MAX_VALUE}.
+   */
+  private static final int DEAD_BYTES = 2;
+
+  /**
+   * Number of compactions so far, so other processes know to reopen the replaced files.
+   */
+  private static final int GENERATION = 3;
+  private static final int META_SLOTS = 4;
+  private static final Category[] CATEGORIES = Category.values();
+  private static final String META_FILE = "meta.col";
+
+  /**
+   * Number of rows {@link #forEach} reads per lock.
+   */
+  private static final int VISIT_ROWS = 1024;
+  private static final String ID_FILE = "id.col";
+  private static final String CREATED_AT_FILE = "created-at.col";
+  private static final String UPDATED_AT_FILE = "updated-at.col";
+  private static final String AMOUNT_FILE = "amount-cents.col";
+  private static final String CATEGORY_FILE = "category.col";
+  private static final String DESCRIPTION_OFFSET_FILE = "description-offset.col";
+  private static final String DESCRIPTION_FILE = "description.dat";
+
+  /**
+   * Files a compaction rewrites. The new versions are written with {@link #COMPACT_SUFFIX} and
+   * moved into place once {@link #COMPACT_MARKER} records that all of them are complete.
+   */
+  private static final List<String> COMPACTED_FILES = List.of(ID_FILE, CREATED_AT_FILE,
+      UPDATED_AT_FILE, AMOUNT_FILE, CATEGORY_FILE, DESCRIPTION_OFFSET_FILE, DESCRIPTION_FILE);
+  private static final String COMPACT_SUFFIX = ".compact";
+  private static final String COMPACT_MARKER = "compact.commit";
+
+  /**
+   * Share of dead rows, or of dead description bytes, past which a write compacts the files, and
+   * the least dead space worth a rewrite.
+   */
+  private static final double COMPACT_RATIO = 0.5;
+  private static final int COMPACT_MIN_ROWS = 1024;
+  private static final long COMPACT_MIN_BYTES = 64 * 1024;
+
+  /**
+   * Amount column of earlier versions, holding doubles.
+   */
+  private static final String DOUBLE_AMOUNT_FILE = "amount.col";
+
+  private final ReadWriteLock lock;
+  private final Path directory;
+  private final ParallelScan scan;
+  private final InterProcessLock fileLock;
+  private final Durability durability;
+
+  /**
+   * Background syncs for {@link Durability#GROUP_COMMIT}, null for the other levels.
+   */
+  private final GroupCommitter groupCommitter;
+
+  private MappedColumn meta;
+  private MappedColumn ids;
+  private MappedColumn createdAt;
+  private MappedColumn updatedAt;
+  private MappedColumn amounts;
+  private MappedColumn categories;
+  private MappedColumn descriptionOffsets;
+  private FileChannel descriptions;
+
+  /**
+   * Compaction generation of the open files, compared against the meta file's.
+   */
+  private int generation;
+
+  /**
+   * Row of each live expense, keyed by ID.
+   */
+  private final Map<Integer, Integer> rowsById = new HashMap<>();
+
+  /**
+   * Number of rows this instance has indexed.
+   */
+  private int rowCount = 0;
+
+  /**
+   * Version of the files this instance has indexed, compared against the counter of
+   * {@link #fileLock} to pick up writes from another process.
+   */
+  private volatile long version = -1;
+
+  /**
+   * Whether row order matches ascending ID order, which only breaks when an expense is saved with
+   * an explicit ID below an existing one.
+   */
+  private boolean idsAscending = true;
+  private int lastRowId = 0;
+
+  /**
+   * Rows with a creation date, as {@code epochDay << 32 | row} keys in ascending order. Deleted
+   * rows stay in the index and are skipped by the queries.
+   */
+  private long[] dateIndex = new long[INITIAL_ROWS];
+  private int dateIndexSize = 0;
+
+  /**
+   * Whether {@link #dateIndex} has to be rebuilt before the next range query.
+   */
+  private volatile boolean dateIndexStale = true;
+
+  /**
+   * Constructs a new ColumnarExpenseRepository instance that forces every write to disk.
+   *
+   * @param lock      the read-write lock used for thread-safe operations
+   * @param directory the directory holding the column files
+   * @param scan      runs the full-column scans, in parallel on large ledgers
+   */
+  public ColumnarExpenseRepository(ReadWriteLock lock, String directory, ParallelScan scan) {
+    this(lock, directory, scan, Durability.FSYNC, Duration.ZERO);
+  }
+
+  /**
+   * Constructs a new ColumnarExpenseRepository instance.
+   *
+   * @param lock                the read-write lock used for thread-safe operations
+   * @param directory           the directory holding the column files
+   * @param scan                runs the full-column scans, in parallel on large ledgers
+   * @param durability          when writes are forced to disk
+   * @param groupCommitInterval how often changed files are forced with
+   *                            {@link Durability#GROUP_COMMIT}
+   */
+  @Autowired
+  public ColumnarExpenseRepository(@Qualifier("expenseLock") ReadWriteLock lock,
+      @Value("${expense-tracker.storage.columnar.directory:${user.home}/expense-tracker/columnar}") String directory,
+      ParallelScan scan, Durability durability,
+      @Value("${expense-tracker.storage.group-commit-interval:50ms}") Duration groupCommitInterval) {
+    this.lock = lock;
+    this.directory = Path.of(directory);
+    this.scan = scan;
+    this.fileLock = InterProcessLock.forFile(this.directory.resolve(META_FILE));
+    this.durability = durability;
+    this.groupCommitter = durability == Durability.GROUP_COMMIT
+        ? new GroupCommitter(groupCommitInterval) : null;
+  }
+
+  /**
+   * Opens or creates the column files and indexes the stored rows after bean construction.
+   */
+  @PostConstruct
+  public void open() {
+    try {
+      meta = new MappedColumn(directory.resolve(META_FILE), Integer.BYTES, META_SLOTS);
+      try (var hold = fileLock.acquireExclusive()) {
+        finishInterruptedCompaction();
+        dropPartialCompaction();
+        convertDoubleAmounts();
+        openColumns();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error opening column files", e);
+    }
+    withWriteLock(lock, () -> {
+      try (var hold = fileLock.acquireShared()) {
+        refresh();
+      }
+    });
+  }
+
+  /**
+   * Flushes the column and description files to disk and closes them.
+   */
+  @PreDestroy
+  public void close() {
+    if (groupCommitter != null) {
+      groupCommitter.close();
+    }
+    withWriteLock(lock, () -> {
+      try {
+        closeColumns();
+        meta.close();
+      } catch (IOException e) {
+        throw new RuntimeException("Error closing column files", e);
+      }
+    });
+  }
+
+  /**
+   * Saves an expense. If the ID is zero or not found, a new ID is assigned and a row is appended,
+   * otherwise the existing row is overwritten in place.
+   *
+   * @param expense the expense to save
+   * @return the saved expense
+   */
+  @Override
+  public Expense save(Expense expense) {
+    return write(() -> {
+      final Integer existing = expense.getId() == 0 ? null : rowsById.get(expense.getId());
+      final int row;
+      final long descriptionOffset;
+      if (existing != null) {
+        row = existing;
+        expense.setUpdatedAt(LocalDate.now());
+        if (createdAt.getInt(row) != toEpochDay(expense.getCreatedAt())) {
+          dateIndexStale = true;
+        }
+        descriptionOffset = updateDescription(row, expense.getDescription());
+      } else {
+        final int maxId = meta.getInt(MAX_ID);
+        if (expense.getId() == 0) {
+          expense.setId(maxId + 1);
+        }
+        meta.putInt(MAX_ID, Math.max(maxId, expense.getId()));
+        row = rowCount;
+        ensureCapacity(row + 1);
+        descriptionOffset = appendDescription(expense.getDescription());
+      }
+      writeRow(row, expense, descriptionOffset);
+      if (existing == null) {
+        rowsById.put(expense.getId(), row);
+        trackRowId(expense.getId());
+        indexDate(row);
+        rowCount = row + 1;
+        meta.putInt(ROW_COUNT, rowCount);
+      }
+      return expense;
+    });
+  }
+
+  /**
+   * Saves new expenses as one batch, appending their rows with consecutive IDs after the current
+   * max ID under one write lock.
+   *
+   * @param batch the expenses to insert, any ID they carry is replaced
+   * @return the saved expenses
+   */
+  @Override
+  public List<Expense> saveAll(List<Expense> batch) {
+    return write(() -> {
+      int maxId = meta.getInt(MAX_ID);
+      int row = rowCount;
+      ensureCapacity(row + batch.size());
+      for (Expense expense : batch) {
+        expense.setId(++maxId);
+        writeRow(row, expense, appendDescription(expense.getDescription()));
+        rowsById.put(expense.getId(), row);
+        trackRowId(expense.getId());
+        indexDate(row++);
+      }
+      meta.putInt(MAX_ID, maxId);
+      rowCount = row;
+      meta.putInt(ROW_COUNT, rowCount);
+      return batch;
+    });
+  }
+
+  /**
+   * Checks if an expense exists by its ID.
+   */
+  @Override
+  public boolean existsById(Integer id) {
+    return read(() -> rowsById.containsKey(id));
+  }
+
+  /**
+   * Finds an expense by ID.
+   */
+  @Override
+  public Optional<Expense> findById(Integer id) {
+    return read(() -> Optional.ofNullable(rowsById.get(id)).map(this::readRow));
+  }
+
+  /**
+   * Returns all saved expenses.
+   */
+  @Override
+  public List<Expense> findAll() {
+    return read(() -> find(ANY, ANY));
+  }
+
+  /**
+   * Finds expenses created between two dates, both inclusive, in date order. The range is located
+   * by binary search in the date index, so only the rows inside it are read.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   * @return the matching expenses
+   */
+  @Override
+  public List<Expense> findBetween(LocalDate from, LocalDate to) {
+    return readByDate(() -> {
+      final List<Expense> result = new ArrayList<>();
+      for (int i = firstKeyFrom(from), end = firstKeyAfter(to); i < end; i++) {
+        final int row = (int) dateIndex[i];
+        if (ids.getInt(row) > 0) {
+          result.add(readRow(row));
+        }
+      }
+      return result;
+    });
+  }
+
+  /**
+   * Returns one page of expenses in ascending ID order. Only the rows on the page are turned into
+   * {@link Expense} objects, and while rows are in ID order the scan starts at the cursor and stops
+   * once the page is full.
+   *
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   * @param afterId  only expenses with a greater ID are returned
+   * @param offset   the number of matching expenses to skip
+   * @param limit    the maximum number of expenses returned
+   * @return the page
+   */
+  @Override
+  public List<Expense> findPage(Integer month, Category category, int afterId, int offset,
+      int limit) {
+    final int monthFilter = month == null ? ANY : month;
+    final int categoryFilter = category == null ? ANY : category.ordinal();
+    return read(() -> {
+      if (!idsAscending) {
+        return findPageUnordered(monthFilter, categoryFilter, afterId, offset, limit);
+      }
+      final List<Expense> page = new ArrayList<>(Math.min(limit, 256));
+      int skipped = 0;
+      for (int row = firstRowAfter(afterId); row < rowCount && page.size() < limit; row++) {
+        if (matches(row, monthFilter, categoryFilter)) {
+          if (skipped < offset) {
+            skipped++;
+          } else {
+            page.add(readRow(row));
+          }
+        }
+      }
+      return page;
+    });
+  }
+
+  /**
+   * Returns one page of the expenses created between two dates, in date order. The range is
+   * located in the date index and the walk stops once the page is full, so only the rows up to the
+   * end of the page are read.
+   *
+   * @param from     the first date, or null for no lower bound
+   * @param to       the last date, or null for no upper bound
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   * @param offset   the number of matching expenses to skip
+   * @param limit    the maximum number of expenses returned
+   * @return the page
+   */
+  @Override
+  public List<Expense> findPageBetween(LocalDate from, LocalDate to, Integer month,
+      Category category, int offset, int limit) {
+    final int monthFilter = month == null ? ANY : month;
+    final int categoryFilter = category == null ? ANY : category.ordinal();
+    return readByDate(() -> {
+      final List<Expense> page = new ArrayList<>(Math.min(limit, 256));
+      int skipped = 0;
+      for (int i = firstKeyFrom(from), end = firstKeyAfter(to); i < end && page.size() < limit;
+          i++) {
+        final int row = (int) dateIndex[i];
+        if (matches(row, monthFilter, categoryFilter)) {
+          if (skipped < offset) {
+            skipped++;
+          } else {
+            page.add(readRow(row));
+          }
+        }
+      }
+      return page;
+    });
+  }
+
+  /**
+   * Visits every saved expense in row order. Rows are materialized a block at a time, each block
+   * under a short read, and the action runs with no lock held, so a long visit such as an export
+   * never blocks writers and the action may call back into the repository.
+   */
+  @Override
+  public void forEach(Consumer<? super Expense> action) {
+    for (int from = 0; ; from += VISIT_ROWS) {
+      final int first = from;
+      final List<Expense> block = read(() -> first < rowCount ? readLiveRows(first) : null);
+      if (block == null) {
+        return;
+      }
+      block.forEach(action);
+    }
+  }
+
+  /**
+   * Finds expenses by month.
+   */
+  @Override
+  public List<Expense> findByMonth(Integer month) {
+    return read(() -> find(month, ANY));
+  }
+
+  /**
+   * Finds expenses by category.
+   */
+  @Override
+  public List<Expense> findByCategory(Category category) {
+    return read(() -> find(ANY, category.ordinal()));
+  }
+
+  /**
+   * Finds expenses by both month and category.
+   */
+  @Override
+  public List<Expense> findByMonthAndCategory(Integer month, Category category) {
+    return read(() -> find(month, category.ordinal()));
+  }
+
+  /**
+   * Returns the total sum in cents of all expenses.
+   */
+  @Override
+  public long summeryAll() {
+    return read(() -> sum(ANY, ANY));
+  }
+
+  /**
+   * Returns the total sum in cents of expenses created between two dates, both inclusive, reading
+   * only the amounts of the rows inside the range.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   */
+  @Override
+  public long sumBetween(LocalDate from, LocalDate to) {
+    return readByDate(() -> {
+      long total = 0;
+      for (int i = firstKeyFrom(from), end = firstKeyAfter(to); i < end; i++) {
+        final int row = (int) dateIndex[i];
+        if (ids.getInt(row) > 0) {
+          total += amounts.getLong(row);
+        }
+      }
+      return total;
+    });
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by month.
+   */
+  @Override
+  public long summeryByMonth(Integer month) {
+    return read(() -> sum(month, ANY));
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by category.
+   */
+  @Override
+  public long summeryByCategory(Category category) {
+    return read(() -> sum(ANY, category.ordinal()));
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by both month and category.
+   */
+  @Override
+  public long summeryByMonthAndCategory(Integer month, Category category) {
+    return read(() -> sum(month, category.ordinal()));
+  }
+
+  /**
+   * Returns the spending per category of every month, or of one year, in calendar order. One scan
+   * over the date, category and amount columns adds each row into a {@code long[]} per month,
+   * indexed by category ordinal; rows are mostly appended in date order, so the current month's
+   * accumulator is kept at hand and the map is only consulted when the month changes.
+   *
+   * @param year the year to report, or null for every year
+   */
+  @Override
+  public List<MonthlySpending> spendingByMonth(Integer year) {
+    return read(() -> {
+      final Map<Integer, long[]> byMonth = new HashMap<>();
+      int currentMonth = NO_DATE;
+      long[] current = null;
+      for (int row = 0; row < rowCount; row++) {
+        final int epochDay = createdAt.getInt(row);
+        final byte category = categories.getByte(row);
+        if (ids.getInt(row) <= 0 || epochDay == NO_DATE || category < 0) {
+          continue;
+        }
+        final int yearMonth = yearMonthOfEpochDay(epochDay);
+        if (yearMonth != currentMonth) {
+          if (year != null && Math.floorDiv(yearMonth, 12) != year) {
+            continue;
+          }
+          currentMonth = yearMonth;
+          current = byMonth.computeIfAbsent(yearMonth, key -> new long[CATEGORIES.length]);
+        }
+        current[category] += amounts.getLong(row);
+      }
+      return byMonth.entrySet().stream().sorted(Map.Entry.comparingByKey())
+          .map(entry -> new MonthlySpending(Math.floorDiv(entry.getKey(), 12),
+              Math.floorMod(entry.getKey(), 12) + 1, entry.getValue()))
+          .toList();
+    });
+  }
+
+  /**
+   * Deletes an expense by ID.
+   */
+  @Override
+  public void deleteById(Integer id) {
+    write(() -> {
+      final Integer row = rowsById.remove(id);
+      if (row != null) {
+        ids.putInt(row, -id);
+        addDeadBytes(descriptionSize(descriptionOffsets.getLong(row)));
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Deletes all expenses and resets the ID counter.
+   */
+  @Override
+  public void deleteAll() {
+    write(() -> {
+      rowsById.clear();
+      idsAscending = true;
+      lastRowId = 0;
+      dateIndexSize = 0;
+      dateIndexStale = false;
+      rowCount = 0;
+      meta.putInt(ROW_COUNT, 0);
+      meta.putInt(MAX_ID, 0);
+      meta.putInt(DEAD_BYTES, 0);
+      try {
+        descriptions.truncate(0);
+      } catch (IOException e) {
+        throw new RuntimeException("Error writing to file", e);
+      }
+      return null;
+    });
+  }
+
+  // ================== PRIVATE HELPERS ==================
+
+  /**
+   * Runs a read under the read lock and the shared file lock, first picking up what other
+   * processes wrote since the last access.
+   */
+  private <R> R read(Supplier<R> work) {
+    if (isStale()) {
+      withWriteLock(lock, this::refreshIfStale);
+    }
+    return withReadLock(lock, () -> readShared(work));
+  }
+
+  /**
+   * Runs a read that uses the date index, rebuilding the index first if it is stale. A writer may
+   * slip in between the rebuild and the read, in which case the rebuild is repeated.
+   */
+  private <R> R readByDate(Supplier<R> work) {
+    while (true) {
+      if (dateIndexStale || isStale()) {
+        withWriteLock(lock, () -> {
+          refreshIfStale();
+          if (dateIndexStale) {
+            rebuildDateIndex();
+          }
+        });
+      }
+      final Optional<R> result = withReadLock(lock,
+          () -> dateIndexStale ? Optional.empty() : Optional.of(readShared(work)));
+      if (result.isPresent()) {
+        return result.get();
+      }
+    }
+  }
+
+  /**
+   * Runs read work under the shared file lock, so a write from another process cannot change a row
+   * while it is being read. Must be called under the read lock.
+   */
+  private <R> R readShared(Supplier<R> work) {
+    try (var hold = fileLock.acquireShared()) {
+      return work.get();
+    }
+  }
+
+  /**
+   * Runs a write under the write lock and the exclusive file lock, after picking up what other
+   * processes wrote, and bumps the file version so they pick up this write in turn. The files are
+   * compacted after the write if it left too much dead space. A failed write leaves this instance
+   * stale, so its next access reloads what actually got written.
+   */
+  private <R> R write(Supplier<R> work) {
+    return withWriteLock(lock, () -> {
+      try (var hold = fileLock.acquireExclusive()) {
+        if (finishInterruptedCompaction()) {
+          version = -1;
+        }
+        refreshIfStale();
+        boolean written = false;
+        try {
+          final R result = work.get();
+          if (needsCompaction()) {
+            compact();
+          }
+          sync();
+          written = true;
+          return result;
+        } finally {
+          fileLock.bumpVersion();
+          version = written ? fileLock.version() : -1;
+        }
+      }
+    });
+  }
+
+  /**
+   * Applies the durability level to a write. Forcing a column only writes its changed pages, so
+   * every column is passed on rather than tracking which ones the write touched. Must be called
+   * under the write lock.
+   */
+  private void sync() {
+    final List<MappedColumn> columns = List.of(meta, ids, createdAt, updatedAt, amounts,
+        categories, descriptionOffsets);
+    switch (durability) {
+      case FSYNC -> {
+        try {
+          descriptions.force(true);
+        } catch (IOException e) {
+          throw new RuntimeException("Error syncing column files", e);
+        }
+        columns.forEach(MappedColumn::force);
+      }
+      case GROUP_COMMIT -> {
+        groupCommitter.changed(directory.resolve(DESCRIPTION_FILE).toAbsolutePath(), false);
+        columns.forEach(column -> groupCommitter.changed(column.file().toAbsolutePath(), false));
+      }
+      case NONE -> {
+      }
+    }
+  }
+
+  private boolean isStale() {
+    return fileLock.version() != version;
+  }
+
+  /**
+   * Reloads the row index under the shared file lock if another process wrote since it was built.
+   * Must be called under the write lock.
+   */
+  private void refreshIfStale() {
+    if (isStale()) {
+      try (var hold = fileLock.acquireShared()) {
+        if (isStale()) {
+          refresh();
+        }
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the ID-to-row map from the ID column. Must be called under the write lock and a file
+   * lock.
+   */
+  private void refresh() {
+    version = fileLock.version();
+    if (meta.getInt(GENERATION) != generation) {
+      reopenColumns();
+    }
+    final int persisted = meta.getInt(ROW_COUNT);
+    ensureCapacity(persisted);
+    rowsById.clear();
+    idsAscending = true;
+    lastRowId = 0;
+    for (int row = 0; row < persisted; row++) {
+      final int id = ids.getInt(row);
+      if (id > 0) {
+        rowsById.put(id, row);
+      }
+      trackRowId(Math.abs(id));
+    }
+    rowCount = persisted;
+    dateIndexStale = true;
+  }
+
+  /**
+   * Adds an appended row to the date index, as long as rows keep arriving in date order.
+   */
+  private void indexDate(int row) {
+    final int epochDay = createdAt.getInt(row);
+    if (dateIndexStale || epochDay == NO_DATE) {
+      return;
+    }
+    final long key = dateKey(epochDay, row);
+    if (dateIndexSize > 0 && key < dateIndex[dateIndexSize - 1]) {
+      dateIndexStale = true;
+      return;
+    }
+    if (dateIndexSize == dateIndex.length) {
+      dateIndex = Arrays.copyOf(dateIndex, dateIndexSize * 2);
+    }
+    dateIndex[dateIndexSize++] = key;
+  }
+
+  /**
+   * Re-sorts the date index over the live rows. Must be called under the write lock.
+   */
+  private void rebuildDateIndex() {
+    dateIndex = new long[Math.max(INITIAL_ROWS, rowsById.size())];
+    dateIndexSize = 0;
+    for (int row : rowsById.values()) {
+      final int epochDay = createdAt.getInt(row);
+      if (epochDay != NO_DATE) {
+        dateIndex[dateIndexSize++] = dateKey(epochDay, row);
+      }
+    }
+    Arrays.sort(dateIndex, 0, dateIndexSize);
+    dateIndexStale = false;
+  }
+
+  private static long dateKey(long epochDay, int row) {
+    return epochDay << 32 | row;
+  }
+
+  /**
+   * Finds the first date index entry on or after {@code from}, or 0 without a lower bound.
+   */
+  private int firstKeyFrom(LocalDate from) {
+    return from == null ? 0 : firstKeyAbove(dateKey(clampEpochDay(from), 0) - 1);
+  }
+
+  /**
+   * Finds the first date index entry after {@code to}, or the end without an upper bound.
+   */
+  private int firstKeyAfter(LocalDate to) {
+    return to == null ? dateIndexSize
+        : firstKeyAbove(dateKey(clampEpochDay(to), 0) | 0xFFFF_FFFFL);
+  }
+
+  private int firstKeyAbove(long key) {
+    int low = 0;
+    int high = dateIndexSize;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (dateIndex[mid] <= key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Clamps a query bound to the epoch-days a row can store.
+   */
+  private static long clampEpochDay(LocalDate date) {
+    return Math.max(NO_DATE + 1L, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+  }
+
+  private void trackRowId(int id) {
+    if (id <= lastRowId) {
+      idsAscending = false;
+    }
+    lastRowId = Math.max(lastRowId, id);
+  }
+
+  /**
+   * Finds the first row whose ID is above {@code afterId}, assuming {@link #idsAscending}.
+   */
+  private int firstRowAfter(int afterId) {
+    int low = 0;
+    int high = rowCount;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (Math.abs(ids.getInt(mid)) <= afterId) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Whether deleted rows or superseded descriptions have reached {@link #COMPACT_RATIO} of their
+   * file and the minimum worth a rewrite. Must be called under the write lock.
+   */
+  private boolean needsCompaction() {
+    final int deadRows = rowCount - rowsById.size();
+    final long deadBytes = meta.getInt(DEAD_BYTES);
+    try {
+      return deadRows >= COMPACT_MIN_ROWS && deadRows >= rowCount * COMPACT_RATIO
+          || deadBytes >= COMPACT_MIN_BYTES && deadBytes >= descriptions.size() * COMPACT_RATIO;
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading from file", e);
+    }
+  }
+
+  /**
+   * Rewrites the live rows, in row order, into new column files and a new description file,
+   * dropping deleted rows and superseded descriptions. The new files are written next to the old
+   * ones and forced, then a commit marker holding the live row count is written, and only then are
+   * they moved into place, so a crash leaves either the old files or a marker from which the next
+   * open or write finishes the move. Must be called under the write lock and the exclusive file
+   * lock.
+   */
+  private void compact() {
+    final int live = rowsById.size();
+    final int capacity = Math.max(live, INITIAL_ROWS);
+    try {
+      dropPartialCompaction();
+      try (MappedColumn newIds = new MappedColumn(compacted(ID_FILE), Integer.BYTES, capacity);
+          MappedColumn newCreatedAt = new MappedColumn(compacted(CREATED_AT_FILE), Integer.BYTES,
+              capacity);
+          MappedColumn newUpdatedAt = new MappedColumn(compacted(UPDATED_AT_FILE), Integer.BYTES,
+              capacity);
+          MappedColumn newAmounts = new MappedColumn(compacted(AMOUNT_FILE), Long.BYTES,
+              capacity);
+          MappedColumn newCategories = new MappedColumn(compacted(CATEGORY_FILE), Byte.BYTES,
+              capacity);
+          MappedColumn newOffsets = new MappedColumn(compacted(DESCRIPTION_OFFSET_FILE),
+              Long.BYTES, capacity);
+          FileChannel newDescriptions = FileChannel.open(compacted(DESCRIPTION_FILE),
+              StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+        int target = 0;
+        long heapSize = 0;
+        for (int row = 0; row < rowCount; row++) {
+          if (ids.getInt(row) <= 0) {
+            continue;
+          }
+          newIds.putInt(target, ids.getInt(row));
+          newCreatedAt.putInt(target, createdAt.getInt(row));
+          newUpdatedAt.putInt(target, updatedAt.getInt(row));
+          newAmounts.putLong(target, amounts.getLong(row));
+          newCategories.putByte(target, categories.getByte(row));
+          final long offset = descriptionOffsets.getLong(row);
+          if (offset == NO_DESCRIPTION) {
+            newOffsets.putLong(target, NO_DESCRIPTION);
+          } else {
+            final ByteBuffer record = readDescriptionRecord(offset);
+            newOffsets.putLong(target, heapSize);
+            while (record.hasRemaining()) {
+              newDescriptions.write(record, heapSize + record.position());
+            }
+            heapSize += record.limit();
+          }
+          target++;
+        }
+        newDescriptions.force(true);
+      }
+      final Path partialMarker = compacted(COMPACT_MARKER);
+      Files.writeString(partialMarker, Integer.toString(live));
+      GroupCommitter.force(partialMarker);
+      Files.move(partialMarker, directory.resolve(COMPACT_MARKER),
+          StandardCopyOption.ATOMIC_MOVE);
+      GroupCommitter.force(directory);
+      finishCompaction(live);
+    } catch (IOException e) {
+      throw new RuntimeException("Error compacting column files", e);
+    }
+    refresh();
+  }
+
+  /**
+   * Finishes a compaction whose commit marker was written, if any. Must be called under the
+   * exclusive file lock.
+   *
+   * @return whether an interrupted compaction was finished
+   */
+  private boolean finishInterruptedCompaction() {
+    final Path marker = directory.resolve(COMPACT_MARKER);
+    if (!Files.exists(marker)) {
+      return false;
+    }
+    try {
+      finishCompaction(Integer.parseInt(Files.readString(marker).trim()));
+      return true;
+    } catch (IOException e) {
+      throw new RuntimeException("Error compacting column files", e);
+    }
+  }
+
+  /**
+   * Moves the compacted files that are still pending into place, records the live rows and the
+   * next generation in the meta file and drops the commit marker. Repeating it after a crash is
+   * harmless.
+   */
+  private void finishCompaction(int live) throws IOException {
+    for (String name : COMPACTED_FILES) {
+      final Path file = compacted(name);
+      if (Files.exists(file)) {
+        Files.move(file, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+      }
+    }
+    GroupCommitter.force(directory);
+    meta.putInt(ROW_COUNT, live);
+    meta.putInt(DEAD_BYTES, 0);
+    meta.putInt(GENERATION, meta.getInt(GENERATION) + 1);
+    meta.force();
+    Files.delete(directory.resolve(COMPACT_MARKER));
+  }
+
+  /**
+   * Deletes the files of a compaction that was interrupted before its commit marker was written.
+   */
+  private void dropPartialCompaction() throws IOException {
+    for (String name : COMPACTED_FILES) {
+      Files.deleteIfExists(compacted(name));
+    }
+    Files.deleteIfExists(compacted(COMPACT_MARKER));
+  }
+
+  private Path compacted(String name) {
+    return directory.resolve(name + COMPACT_SUFFIX);
+  }
+
+  /**
+   * Opens or creates the column and description files and records their generation. Must be
+   * called under a file lock.
+   */
+  private void openColumns() throws IOException {
+    ids = new MappedColumn(directory.resolve(ID_FILE), Integer.BYTES, INITIAL_ROWS);
+    createdAt = new MappedColumn(directory.resolve(CREATED_AT_FILE), Integer.BYTES,
+        INITIAL_ROWS);
+    updatedAt = new MappedColumn(directory.resolve(UPDATED_AT_FILE), Integer.BYTES,
+        INITIAL_ROWS);
+    amounts = new MappedColumn(directory.resolve(AMOUNT_FILE), Long.BYTES, INITIAL_ROWS);
+    categories = new MappedColumn(directory.resolve(CATEGORY_FILE), Byte.BYTES, INITIAL_ROWS);
+    descriptionOffsets = new MappedColumn(directory.resolve(DESCRIPTION_OFFSET_FILE), Long.BYTES,
+        INITIAL_ROWS);
+    descriptions = FileChannel.open(directory.resolve(DESCRIPTION_FILE),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    generation = meta.getInt(GENERATION);
+  }
+
+  private void closeColumns() throws IOException {
+    for (MappedColumn column : List.of(ids, createdAt, updatedAt, amounts, categories,
+        descriptionOffsets)) {
+      column.close();
+    }
+    descriptions.force(true);
+    descriptions.close();
+  }
+
+  /**
+   * Reopens the column and description files after a compaction replaced them. Must be called
+   * under the write lock and a file lock.
+   */
+  private void reopenColumns() {
+    try {
+      closeColumns();
+      openColumns();
+    } catch (IOException e) {
+      throw new RuntimeException("Error opening column files", e);
+    }
+  }
+
+  /**
+   * Converts the double amount column of earlier versions into cents, once. The converted column is
+   * written next to it and moved into place before the old one is deleted, so an interrupted
+   * conversion is either redone or finished on the next open.
+   */
+  private void convertDoubleAmounts() throws IOException {
+    final Path old = directory.resolve(DOUBLE_AMOUNT_FILE);
+    final Path converted = directory.resolve(AMOUNT_FILE);
+    if (!Files.exists(old)) {
+      return;
+    }
+    if (Files.exists(converted)) {
+      Files.delete(old);
+      return;
+    }
+    final Path partial = directory.resolve(AMOUNT_FILE + ".tmp");
+    final int rows = meta.getInt(ROW_COUNT);
+    try (MappedColumn doubles = new MappedColumn(old, Double.BYTES, INITIAL_ROWS);
+        MappedColumn cents = new MappedColumn(partial, Long.BYTES, Math.max(rows, INITIAL_ROWS))) {
+      for (int row = 0; row < rows; row++) {
+        final double amount = doubles.getDouble(row);
+        cents.putLong(row, Double.isNaN(amount) ? 0 : Money.toCents(amount));
+      }
+    }
+    Files.move(partial, converted, StandardCopyOption.ATOMIC_MOVE);
+    Files.delete(old);
+  }
+
+  private void ensureCapacity(int rows) {
+    ids.ensureCapacity(rows);
+    createdAt.ensureCapacity(rows);
+    updatedAt.ensureCapacity(rows);
+    amounts.ensureCapacity(rows);
+    categories.ensureCapacity(rows);
+    descriptionOffsets.ensureCapacity(rows);
+  }
+
+  /**
+   * Sums the amounts of the live rows matching the month and category ordinal, either of which may
+   * be {@link #ANY}. Only primitive columns are read, so the scan allocates nothing per row.
+   */
+  private long sum(int month, int category) {
+    return scan.sum(rowCount, row -> matches(row, month, category), amounts::getLong);
+  }
+
+  private List<Expense> find(int month, int category) {
+    final int[] rows = scan.filter(rowCount, row -> matches(row, month, category));
+    final List<Expense> result = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      result.add(readRow(row));
+    }
+    return result;
+  }
+
+  /**
+   * Pages through rows that are not in ID order by sorting the matching rows past the cursor.
+   */
+  private List<Expense> findPageUnordered(int month, int category, int afterId, int offset,
+      int limit) {
+    final List<Integer> rows = new ArrayList<>();
+    for (int row = 0; row < rowCount; row++) {
+      if (ids.getInt(row) > afterId && matches(row, month, category)) {
+        rows.add(row);
+      }
+    }
+    rows.sort(Comparator.comparingInt(ids::getInt));
+    final List<Expense> page = new ArrayList<>();
+    for (int i = offset; i < rows.size() && page.size() < limit; i++) {
+      page.add(readRow(rows.get(i)));
+    }
+    return page;
+  }
+
+  /**
+   * Materializes the live rows of the block of {@link #VISIT_ROWS} rows starting at {@code from}.
+   * Must be called under the read lock.
+   */
+  private List<Expense> readLiveRows(int from) {
+    final List<Expense> block = new ArrayList<>();
+    for (int row = from; row < Math.min(from + VISIT_ROWS, rowCount); row++) {
+      if (ids.getInt(row) > 0) {
+        block.add(readRow(row));
+      }
+    }
+    return block;
+  }
+
+  private boolean matches(int row, int month, int category) {
+    if (ids.getInt(row) <= 0) {
+      return false;
+    }
+    if (category != ANY && categories.getByte(row) != category) {
+      return false;
+    }
+    if (month == ANY) {
+      return true;
+    }
+    final int epochDay = createdAt.getInt(row);
+    return epochDay != NO_DATE && monthOfEpochDay(epochDay) == month;
+  }
+
+  private void writeRow(int row, Expense expense, long descriptionOffset) {
+    ids.putInt(row, expense.getId());
+    createdAt.putInt(row, toEpochDay(expense.getCreatedAt()));
+    updatedAt.putInt(row, toEpochDay(expense.getUpdatedAt()));
+    amounts.putLong(row, expense.getAmountCents());
+    categories.putByte(row,
+        (byte) (expense.getCategory() == null ? -1 : expense.getCategory().ordinal()));
+    descriptionOffsets.putLong(row, descriptionOffset);
+  }
+
+  private Expense readRow(int row) {
+    final byte category = categories.getByte(row);
+    return new Expense(ids.getInt(row), fromEpochDay(createdAt.getInt(row)),
+        fromEpochDay(updatedAt.getInt(row)), readDescription(descriptionOffsets.getLong(row)),
+        Money.toAmount(amounts.getLong(row)), category < 0 ? null : CATEGORIES[category]);
+  }
+
+  /**
+   * Keeps a row's stored description if it is unchanged, otherwise appends the new one and counts
+   * the old one as dead space.
+   *
+   * @return the offset of the row's description, or {@link #NO_DESCRIPTION}
+   */
+  private long updateDescription(int row, String description) {
+    final long offset = descriptionOffsets.getLong(row);
+    if (Objects.equals(readDescription(offset), description)) {
+      return offset;
+    }
+    addDeadBytes(descriptionSize(offset));
+    return appendDescription(description);
+  }
+
+  private void addDeadBytes(long bytes) {
+    meta.putInt(DEAD_BYTES, (int) Math.min(Integer.MAX_VALUE, meta.getInt(DEAD_BYTES) + bytes));
+  }
+
+  /**
+   * Appends a description to the heap file. An overwritten row's old description stays behind as
+   * dead space until the next compaction.
+   *
+   * @return the offset of the stored description, or {@link #NO_DESCRIPTION}
+   */
+  private long appendDescription(String description) {
+    if (description == null) {
+      return NO_DESCRIPTION;
+    }
+    final byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+    buffer.putInt(bytes.length).put(bytes).flip();
+    try {
+      final long offset = descriptions.size();
+      while (buffer.hasRemaining()) {
+        descriptions.write(buffer, offset + buffer.position());
+      }
+      return offset;
+    } catch (IOException e) {
+      throw new RuntimeException("Error writing to file", e);
+    }
+  }
+
+  private String readDescription(long offset) {
+    if (offset == NO_DESCRIPTION) {
+      return null;
+    }
+    try {
+      final ByteBuffer record = readDescriptionRecord(offset);
+      return new String(record.array(), Integer.BYTES, record.limit() - Integer.BYTES,
+          StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading from file", e);
+    }
+  }
+
+  /**
+   * Returns the bytes a stored description takes in the heap file, length prefix included.
+   */
+  private long descriptionSize(long offset) {
+    if (offset == NO_DESCRIPTION) {
+      return 0;
+    }
+    try {
+      final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+      readFully(length, offset);
+      return Integer.BYTES + (long) length.flip().getInt();
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading from file", e);
+    }
+  }
+
+  /**
+   * Reads a stored description as written, length prefix included, ready to be copied.
+   */
+  private ByteBuffer readDescriptionRecord(long offset) throws IOException {
+    final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+    readFully(length, offset);
+    final ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length.flip().getInt());
+    readFully(record, offset);
+    return record.flip();
+  }
+
+  private void readFully(ByteBuffer buffer, long offset) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (descriptions.read(buffer, offset + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of description file");
+      }
+    }
+  }
+
+  /**
+   * Returns the month of year (1-12) of an epoch-day using integer arithmetic only, so scans do not
+   * allocate a {@link LocalDate} per row.
+   */
+  static int monthOfEpochDay(int epochDay) {
+    return Math.floorMod(yearMonthOfEpochDay(epochDay), 12) + 1;
+  }
+
+  /**
+   * Returns the year and month of an epoch-day packed as {@code year * 12 + month - 1}, using
+   * integer arithmetic only.
+   */
+  static int yearMonthOfEpochDay(int epochDay) {
+    // civil-from-days: shift to a March-based year in 400-year eras
+    final long days = epochDay + 719_468L;
+    final long era = Math.floorDiv(days, 146_097L);
+    final long dayOfEra = days - era * 146_097L;
+    final long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096)
+        / 365;
+    final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    final long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    return (int) (year * 12 + month - 1);
+  }
+
+  private static int toEpochDay(LocalDate date) {
+    return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+  }
+
+  private static LocalDate fromEpochDay(int epochDay) {
+    return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+  }
+}
@@ -0,0 +1,504 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the in-memory expense model, bucketing expenses by category, by
+ * (year-month, category), by (month, category) in ID order and by day so filtered queries and pages
+ * only touch the matching buckets.
+ * <p>
+ * Running totals per (year-month, category) are kept in cents and updated on every add and remove,
+ * so sums are exact and never visit individual expenses. Each expense is indexed under the key and
+ * amount it had when it was added, so it can still be removed after the caller mutates its category
+ * or amount. Results come back in the order the expenses were added, which matches the persisted
+ * order of the model. Expenses without a category get a bucket of their own: they are listed,
+ * paged and counted in the grand, month and day totals, but not in any per-category total, like
+ * the columnar and SQL engines. Not thread-safe, callers hold the repository lock.
+ * </p>
+ */
+final class ExpenseIndex {
+
+  private static final Category[] CATEGORIES = Category.values();
+
+  /**
+   * Every category followed by {@code null}, the bucket of expenses without a category.
+   */
+  private static final Category[] BUCKETS = Arrays.copyOf(CATEGORIES, CATEGORIES.length + 1);
+
+  /**
+   * Where each indexed expense lives, and its position in the model.
+   */
+  private final Map<Integer, IndexKey> keys = new HashMap<>();
+
+  /**
+   * Every indexed expense in ascending ID order, for cursor-based paging.
+   */
+  private final NavigableMap<Integer, Expense> byId = new TreeMap<>();
+
+  private final EnumMap<Category, Map<Integer, Expense>> byCategory = new EnumMap<>(
+      Category.class);
+
+  /**
+   * Expenses per year-month and category. The inner maps allow the {@code null} category.
+   */
+  private final Map<YearMonth, Map<Category, Map<Integer, Expense>>> byYearMonth =
+      new TreeMap<>();
+
+  /**
+   * Expenses in ascending ID order per (month of year, category), keyed by {@link #pageKey}, so a
+   * filtered page starts at the cursor of the few buckets it covers instead of skipping
+   * non-matching expenses of the whole ledger.
+   */
+  private final Map<Integer, NavigableMap<Integer, Expense>> pageBuckets = new HashMap<>();
+
+  /**
+   * Expenses and their running total per creation day, sorted so date ranges are a sub-map.
+   */
+  private final NavigableMap<LocalDate, Day> byDate = new TreeMap<>();
+
+  /**
+   * Running totals in cents per year-month, indexed by {@link #slot}.
+   */
+  private final Map<YearMonth, long[]> totals = new TreeMap<>();
+
+  private final long[] categoryTotals = new long[BUCKETS.length];
+
+  private long grandTotal = 0;
+
+  private long nextOrder = 0;
+
+  /**
+   * Indexes an expense at the end of the model order.
+   *
+   * @param expense the expense to index
+   */
+  void add(Expense expense) {
+    final var key = new IndexKey(expense.getCreatedAt(), YearMonth.from(expense.getCreatedAt()),
+        expense.getCategory(), expense.getAmountCents(), nextOrder++);
+    keys.put(expense.getId(), key);
+    byId.put(expense.getId(), expense);
+    if (key.category() != null) {
+      byCategory.computeIfAbsent(key.category(), c -> new LinkedHashMap<>())
+          .put(expense.getId(), expense);
+    }
+    byYearMonth.computeIfAbsent(key.yearMonth(), ym -> new HashMap<>())
+        .computeIfAbsent(key.category(), c -> new LinkedHashMap<>()).put(expense.getId(), expense);
+    pageBuckets.computeIfAbsent(pageKey(key.yearMonth().getMonthValue(), key.category()),
+        k -> new TreeMap<>()).put(expense.getId(), expense);
+    final Day day = byDate.computeIfAbsent(key.date(), d -> new Day());
+    day.expenses.put(expense.getId(), expense);
+    day.total += key.amount();
+    totals.computeIfAbsent(key.yearMonth(), ym -> new long[BUCKETS.length])[
+        slot(key.category())] += key.amount();
+    categoryTotals[slot(key.category())] += key.amount();
+    grandTotal += key.amount();
+  }
+
+  /**
+   * Removes an expense from every index.
+   *
+   * @param id the expense ID
+   */
+  void remove(Integer id) {
+    final IndexKey key = keys.remove(id);
+    if (key == null) {
+      return;
+    }
+    byId.remove(id);
+    if (key.category() != null) {
+      removeFrom(byCategory, key.category(), id);
+    }
+    final var categories = byYearMonth.get(key.yearMonth());
+    removeFrom(categories, key.category(), id);
+    final int pageKey = pageKey(key.yearMonth().getMonthValue(), key.category());
+    final var pageBucket = pageBuckets.get(pageKey);
+    pageBucket.remove(id);
+    if (pageBucket.isEmpty()) {
+      pageBuckets.remove(pageKey);
+    }
+    subtractFromTotals(key);
+    final Day day = byDate.get(key.date());
+    day.expenses.remove(id);
+    if (day.expenses.isEmpty()) {
+      byDate.remove(key.date());
+    } else {
+      day.total -= key.amount();
+    }
+    if (categories.isEmpty()) {
+      byYearMonth.remove(key.yearMonth());
+      totals.remove(key.yearMonth());
+    }
+  }
+
+  void clear() {
+    keys.clear();
+    byId.clear();
+    byCategory.clear();
+    byYearMonth.clear();
+    pageBuckets.clear();
+    byDate.clear();
+    totals.clear();
+    Arrays.fill(categoryTotals, 0);
+    grandTotal = 0;
+    nextOrder = 0;
+  }
+
+  List<Expense> findByCategory(Category category) {
+    return new ArrayList<>(byCategory.getOrDefault(category, Map.of()).values());
+  }
+
+  List<Expense> findByMonth(int month) {
+    return inModelOrder(bucketsForMonth(month, null));
+  }
+
+  List<Expense> findByMonthAndCategory(int month, Category category) {
+    return inModelOrder(bucketsForMonth(month, category));
+  }
+
+  /**
+   * Returns up to {@code limit} expenses with an ID above {@code afterId}, in ascending ID order,
+   * skipping the first {@code offset} matches. Only matching expenses are visited: the ID-ordered
+   * buckets of the filter, at most 12 for a category or one per category for a month, are merged
+   * from the cursor on, and the walk stops as soon as the page is full. The cost depends on the
+   * page and the offset, not on the ledger size or on how rare the filter is.
+   *
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   */
+  List<Expense> findPage(Integer month, Category category, int afterId, int offset, int limit) {
+    final PriorityQueue<PageCursor> cursors = new PriorityQueue<>();
+    if (month == null && category == null) {
+      addCursor(cursors, byId, afterId);
+    } else {
+      for (int m = month == null ? 1 : month; m <= (month == null ? 12 : month); m++) {
+        for (Category c : category == null ? BUCKETS : new Category[] {category}) {
+          addCursor(cursors, pageBuckets.get(pageKey(m, c)), afterId);
+        }
+      }
+    }
+    final List<Expense> page = new ArrayList<>(Math.min(limit, 256));
+    int skipped = 0;
+    while (page.size() < limit && !cursors.isEmpty()) {
+      final PageCursor cursor = cursors.poll();
+      if (skipped < offset) {
+        skipped++;
+      } else {
+        page.add(cursor.expense);
+      }
+      if (cursor.advance()) {
+        cursors.add(cursor);
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Returns the expenses created between two dates, both inclusive, in date order and in model
+   * order within a day. Only the days in the range are visited.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   */
+  List<Expense> findBetween(LocalDate from, LocalDate to) {
+    final List<Expense> result = new ArrayList<>();
+    daysBetween(from, to).values().forEach(day -> result.addAll(day.expenses.values()));
+    return result;
+  }
+
+  /**
+   * Returns up to {@code limit} expenses created between two dates, in the order of
+   * {@link #findBetween}, skipping the first {@code offset} that match the month and category. The
+   * walk over the days stops as soon as the page is full, so an open-ended range costs the same as
+   * a short one.
+   *
+   * @param from     the first date, or null for no lower bound
+   * @param to       the last date, or null for no upper bound
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   */
+  List<Expense> findPageBetween(LocalDate from, LocalDate to, Integer month, Category category,
+      int offset, int limit) {
+    final List<Expense> page = new ArrayList<>(Math.min(limit, 256));
+    int skipped = 0;
+    for (Map.Entry<LocalDate, Day> day : daysBetween(from, to).entrySet()) {
+      if (month != null && day.getKey().getMonthValue() != month) {
+        continue;
+      }
+      for (Expense expense : day.getValue().expenses.values()) {
+        if (category != null && expense.getCategory() != category) {
+          continue;
+        }
+        if (skipped < offset) {
+          skipped++;
+        } else if (page.size() < limit) {
+          page.add(expense);
+        } else {
+          return page;
+        }
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Sums the expenses created between two dates, both inclusive, from the running day totals.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   */
+  long sumBetween(LocalDate from, LocalDate to) {
+    long sum = 0;
+    for (Day day : daysBetween(from, to).values()) {
+      sum += day.total;
+    }
+    return sum;
+  }
+
+  long sumAll() {
+    return grandTotal;
+  }
+
+  long sumByCategory(Category category) {
+    return categoryTotals[category.ordinal()];
+  }
+
+  long sumByMonth(int month) {
+    long sum = 0;
+    for (long[] row : totalsForMonth(month)) {
+      for (long amount : row) {
+        sum += amount;
+      }
+    }
+    return sum;
+  }
+
+  long sumByMonthAndCategory(int month, Category category) {
+    long sum = 0;
+    for (long[] row : totalsForMonth(month)) {
+      sum += row[category.ordinal()];
+    }
+    return sum;
+  }
+
+  /**
+   * Copies the running totals of every year-month, or of one year, in calendar order. The totals
+   * already hold the whole (year, month, category) matrix, so no expense is visited. Expenses
+   * without a category are left out, and so is a month that has nothing else.
+   *
+   * @param year the year to report, or null for every year
+   */
+  List<MonthlySpending> spendingByMonth(Integer year) {
+    final List<MonthlySpending> rows = new ArrayList<>();
+    totals.forEach((yearMonth, row) -> {
+      if ((year == null || yearMonth.getYear() == year) && hasCategorized(yearMonth)) {
+        rows.add(new MonthlySpending(yearMonth.getYear(), yearMonth.getMonthValue(),
+            Arrays.copyOf(row, CATEGORIES.length)));
+      }
+    });
+    return rows;
+  }
+
+  /**
+   * Returns the running totals as persistable rows, skipping empty cells.
+   *
+   * @return the non-zero totals ordered by year-month and category
+   */
+  List<ExpenseTotal> totalRows() {
+    final List<ExpenseTotal> rows = new ArrayList<>();
+    totals.forEach((yearMonth, row) -> {
+      for (Category category : CATEGORIES) {
+        if (byYearMonth.get(yearMonth).containsKey(category)) {
+          rows.add(new ExpenseTotal(yearMonth.getYear(), yearMonth.getMonthValue(), category,
+              Money.toAmount(row[category.ordinal()])));
+        }
+      }
+    });
+    return rows;
+  }
+
+  /**
+   * Checks stored totals against the running totals.
+   *
+   * @param stored the totals read back from disk
+   * @return {@code true} if both hold the same cells and amounts
+   */
+  boolean totalsMatch(List<ExpenseTotal> stored) {
+    final List<ExpenseTotal> current = totalRows();
+    if (current.size() != stored.size()) {
+      return false;
+    }
+    final Map<ExpenseTotal, Long> expected = new HashMap<>();
+    current.forEach(total -> expected.put(withoutAmount(total), Money.toCents(total.amount())));
+    for (ExpenseTotal total : stored) {
+      final Long cents = expected.get(withoutAmount(total));
+      if (cents == null || total.amount() == null || cents != Money.toCents(total.amount())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // ================== PRIVATE HELPERS ==================
+
+  /**
+   * Collects the buckets of every year for the given month, limited to one category if given.
+   */
+  private List<Map<Integer, Expense>> bucketsForMonth(int month, Category category) {
+    final List<Map<Integer, Expense>> buckets = new ArrayList<>();
+    byYearMonth.forEach((yearMonth, categories) -> {
+      if (yearMonth.getMonthValue() != month) {
+        return;
+      }
+      if (category == null) {
+        buckets.addAll(categories.values());
+      } else if (categories.containsKey(category)) {
+        buckets.add(categories.get(category));
+      }
+    });
+    return buckets;
+  }
+
+  private boolean hasCategorized(YearMonth yearMonth) {
+    final var categories = byYearMonth.get(yearMonth);
+    return categories.size() > (categories.containsKey(null) ? 1 : 0);
+  }
+
+  private static int pageKey(int month, Category category) {
+    return (month - 1) * BUCKETS.length + slot(category);
+  }
+
+  /**
+   * Returns the index of a category in the totals, {@code null} taking the last one.
+   */
+  private static int slot(Category category) {
+    return category == null ? CATEGORIES.length : category.ordinal();
+  }
+
+  private static void addCursor(PriorityQueue<PageCursor> cursors,
+      NavigableMap<Integer, Expense> bucket, int afterId) {
+    if (bucket != null) {
+      final var cursor = new PageCursor(bucket.tailMap(afterId, false).values().iterator());
+      if (cursor.advance()) {
+        cursors.add(cursor);
+      }
+    }
+  }
+
+  private NavigableMap<LocalDate, Day> daysBetween(LocalDate from, LocalDate to) {
+    if (from != null && to != null) {
+      return from.isAfter(to) ? new TreeMap<>() : byDate.subMap(from, true, to, true);
+    }
+    if (from != null) {
+      return byDate.tailMap(from, true);
+    }
+    return to != null ? byDate.headMap(to, true) : byDate;
+  }
+
+  private List<long[]> totalsForMonth(int month) {
+    final List<long[]> rows = new ArrayList<>();
+    totals.forEach((yearMonth, row) -> {
+      if (yearMonth.getMonthValue() == month) {
+        rows.add(row);
+      }
+    });
+    return rows;
+  }
+
+  /**
+   * Subtracts a removed expense from the totals. Cents subtract exactly, so a total whose expenses
+   * are all gone is back at zero.
+   */
+  private void subtractFromTotals(IndexKey key) {
+    final int slot = slot(key.category());
+    totals.get(key.yearMonth())[slot] -= key.amount();
+    categoryTotals[slot] -= key.amount();
+    grandTotal -= key.amount();
+  }
+
+  private static ExpenseTotal withoutAmount(ExpenseTotal total) {
+    return new ExpenseTotal(total.year(), total.month(), total.category(), null);
+  }
+
+  /**
+   * Merges buckets back into model order. A single bucket is already in order.
+   */
+  private List<Expense> inModelOrder(List<Map<Integer, Expense>> buckets) {
+    final List<Expense> result = new ArrayList<>();
+    buckets.forEach(bucket -> result.addAll(bucket.values()));
+    if (buckets.size() > 1) {
+      result.sort(Comparator.comparingLong(expense -> keys.get(expense.getId()).order()));
+    }
+    return result;
+  }
+
+  private static void removeFrom(Map<Category, Map<Integer, Expense>> index, Category category,
+      Integer id) {
+    final var bucket = index.get(category);
+    bucket.remove(id);
+    if (bucket.isEmpty()) {
+      index.remove(category);
+    }
+  }
+
+  private record IndexKey(LocalDate date, YearMonth yearMonth, Category category, long amount,
+                          long order) {
+
+  }
+
+  /**
+   * Position in one ID-ordered bucket, ordered by the ID of its current expense.
+   */
+  private static final class PageCursor implements Comparable<PageCursor> {
+
+    private final Iterator<Expense> remaining;
+    private Expense expense;
+
+    private PageCursor(Iterator<Expense> remaining) {
+      this.remaining = remaining;
+    }
+
+    /**
+     * Moves to the next expense of the bucket.
+     *
+     * @return {@code false} once the bucket is exhausted
+     */
+    private boolean advance() {
+      if (!remaining.hasNext()) {
+        return false;
+      }
+      expense = remaining.next();
+      return true;
+    }
+
+    @Override
+    public int compareTo(PageCursor other) {
+      return Integer.compare(expense.getId(), other.expense.getId());
+    }
+  }
+
+  /**
+   * The expenses of one day, in model order, and their running total in cents.
+   */
+  private static final class Day {
+
+    private final Map<Integer, Expense> expenses = new LinkedHashMap<>();
+    private long total;
+  }
+}
@@ -1,218 +1,115 @@
 package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
 
-import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withReadLock;
-import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withWriteLock;
-
-import com.marwan.dev.expense_tracker.domain.expense.model.Category;
 import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
-import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.InterProcessLock;
 import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
-import jakarta.annotation.PostConstruct;
-import java.time.LocalDate;
-import java.util.ArrayList;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository for managing Expense data backed by a JSON file with thread-safe operations.
+ * <p>
+ * The file is stored in the configured {@link StorageFormat}. It is parsed once into an in-memory
+ * model that serves every read. Each mutation rewrites the whole file along with the running
+ * totals in {@code expense-totals.json}, and the model is reloaded whenever the file's modification
+ * time, size or lock version changes outside this process.
+ * </p>
  */
 @Repository
-public class ExpenseRepository implements ExpenseRepositoryI {
+@ConditionalOnProperty(name = "expense-tracker.storage.engine", havingValue = "json",
+    matchIfMissing = true)
+public class ExpenseRepository extends InMemoryExpenseRepository {
 
-  private static Integer maxId = 0;
-  private final ReadWriteLock lock;
   private final JsonFileHandlerI fileHandler;
-  private final String filePath = String.format("%s/expense-tracker/expense.json",
+  private final String filePath;
+  private final String totalsPath = String.format("%s/expense-tracker/expense-totals.json",
       System.getProperty("user.home"));
 
   /**
-   * Constructs a new ExpenseRepository instance.
+   * Constructs a new ExpenseRepository instance storing expenses as JSON.
    *
    * @param lock        the read-write lock used for thread-safe operations
    * @param fileHandler the Jackson object mapper for JSON serialization
    */
   public ExpenseRepository(ReadWriteLock lock, JsonFileHandlerI fileHandler) {
-    this.fileHandler = fileHandler;
-    this.lock = lock;
-  }
-
-  /**
-   * Initializes the max ID counter from the persisted expenses after bean construction.
-   */
-  @PostConstruct
-  public void initializeMaxId() {
-    final List<Expense> expenses = readExpenseFromFile();
-    maxId = expenses.stream().mapToInt(Expense::getId).max().orElse(0);
+    this(lock, fileHandler, StorageFormat.JSON);
   }
 
   /**
-   * Checks if an expense exists by its ID.
-   */
-  @Override
-  public boolean existsById(Integer id) {
-    return withReadLock(lock,
-        () -> readExpenseFromFile().stream().anyMatch(expense -> expense.getId().equals(id)));
-  }
-
-  /**
-   * Saves an expense. If the ID is zero or not found, a new ID is assigned.
+   * Constructs a new ExpenseRepository instance.
    *
-   * @param expense the expense to save
-   * @return the saved expense
+   * @param lock          the read-write lock used for thread-safe operations
+   * @param fileHandler   the handler used to read and write the expense file
+   * @param storageFormat the on-disk format of the expense file
    */
-  @Override
-  public Expense save(Expense expense) {
-    return withWriteLock(lock, () -> {
-      final var expenses = new ArrayList<>(readExpenseFromFile());
-      final var existingExpense = findExpenseById(expenses, expense.getId());
-
-      if (existingExpense.isPresent() && expense.getId() != 0) {
-        updateExistingExpense(expense, expenses);
-      } else {
-        assignNewIdToExpense(expense);
-        expenses.add(expense);
-      }
-      writeExpensesToFile(expenses);
-      return expense;
-    });
+  @Autowired
+  public ExpenseRepository(@Qualifier("expenseLock") ReadWriteLock lock,
+      @Qualifier("expenseFileHandler") JsonFileHandlerI fileHandler, StorageFormat storageFormat) {
+    super(lock);
+    this.fileHandler = fileHandler;
+    this.filePath = storageFormat.expenseFilePath();
   }
 
-  /**
-   * Finds an expense by ID.
-   */
   @Override
-  public Optional<Expense> findById(Integer id) {
-    return withReadLock(lock,
-        () -> readExpenseFromFile().stream().filter(expense -> expense.getId().equals(id))
-            .findFirst());
+  protected List<Expense> load() {
+    return fileHandler.read(filePath, Expense.class);
   }
 
-  /**
-   * Returns all saved expenses.
-   */
   @Override
-  public List<Expense> findAll() {
-    return withReadLock(lock, this::readExpenseFromFile);
+  protected void persistSave(Expense expense) {
+    writeExpensesToFile();
   }
 
-  /**
-   * Finds expenses by month.
-   */
   @Override
-  public List<Expense> findByMonth(Integer month) {
-    return findFiltered(expense -> month.equals(expense.getCreatedAt().getMonthValue()));
+  protected void persistSaveAll(List<Expense> batch) {
+    writeExpensesToFile();
   }
 
-  /**
-   * Finds expenses by category.
-   */
   @Override
-  public List<Expense> findByCategory(Category category) {
-    return findFiltered(expense -> expense.getCategory().equals(category));
+  protected void persistDelete(Integer id) {
+    writeExpensesToFile();
   }
 
-  /**
-   * Finds expenses by both month and category.
-   */
   @Override
-  public List<Expense> findByMonthAndCategory(Integer month, Category category) {
-    return findFiltered(expense -> expense.getCategory().equals(category) && month.equals(
-        expense.getCreatedAt().getMonthValue()));
+  protected void persistDeleteAll() {
+    writeExpensesToFile();
   }
 
-  /**
-   * Returns the total sum of all expenses.
-   */
   @Override
-  public Double summeryAll() {
-    return sumFiltered(expense -> true);
+  protected Optional<List<ExpenseTotal>> loadTotals() {
+    return Optional.of(fileHandler.read(totalsPath, ExpenseTotal.class));
   }
 
-  /**
-   * Returns the total sum of expenses filtered by month.
-   */
-  @Override
-  public Double summeryByMonth(Integer month) {
-    return sumFiltered(expense -> expense.getCreatedAt().getMonthValue() == month);
-  }
-
-  /**
-   * Returns the total sum of expenses filtered by category.
-   */
   @Override
-  public Double summeryByCategory(Category category) {
-    return sumFiltered(expense -> expense.getCategory().equals(category));
+  protected void persistTotals(List<ExpenseTotal> totals) {
+    fileHandler.write(totalsPath, totals);
   }
 
-  /**
-   * Returns the total sum of expenses filtered by both month and category.
-   */
   @Override
-  public Double summeryByMonthAndCategory(Integer month, Category category) {
-    return sumFiltered(
-        expense -> month.equals(expense.getCreatedAt().getMonthValue()) && expense.getCategory()
-            .equals(category));
+  protected InterProcessLock.Hold lockFiles(boolean exclusive) {
+    return exclusive ? fileHandler.lockExclusive(filePath) : fileHandler.lockShared(filePath);
   }
 
-  /**
-   * Deletes an expense by ID.
-   */
   @Override
-  public void deleteById(Integer id) {
-    withWriteLock(lock, () -> {
-      final var expenses = readExpenseFromFile();
-      expenses.removeIf(expense -> expense.getId().equals(id));
-      writeExpensesToFile(expenses);
-    });
+  protected CompletableFuture<Void> persisted() {
+    return fileHandler.flushed();
   }
 
-  /**
-   * Deletes all expenses and resets the ID counter.
-   */
   @Override
-  public void deleteAll() {
-    withWriteLock(lock, () -> {
-      writeExpensesToFile(new ArrayList<>());
-      maxId = 0;
-    });
-  }
-
-  // ================== PRIVATE HELPERS ==================
-
-  private List<Expense> readExpenseFromFile() {
-    return fileHandler.read(filePath, Expense.class);
-  }
-
-  private Optional<Expense> findExpenseById(List<Expense> expenses, int id) {
-    return expenses.stream().filter(t -> t.getId().equals(id)).findFirst();
-  }
-
-  private List<Expense> findFiltered(Predicate<Expense> condition) {
-    return withReadLock(lock, () -> readExpenseFromFile().stream().filter(condition).toList());
-  }
-
-  private Double sumFiltered(Predicate<Expense> condition) {
-    return withReadLock(lock,
-        () -> readExpenseFromFile().stream().filter(condition).mapToDouble(Expense::getAmount)
-            .sum());
-  }
-
-  private void updateExistingExpense(Expense expense, List<Expense> expenses) {
-    expenses.removeIf(t -> t.getId().equals(expense.getId()));
-    expense.setUpdatedAt(LocalDate.now());
-    expenses.add(expense);
-  }
-
-  private void assignNewIdToExpense(Expense expense) {
-    if (expense.getId() == 0) {
-      expense.setId(++maxId);
-    }
+  protected FileStamp stamp() {
+    return fileHandler.stamp(filePath);
   }
 
-  private void writeExpensesToFile(List<Expense> expenses) {
-    fileHandler.write(filePath, expenses);
+  private void writeExpensesToFile() {
+    fileHandler.write(filePath, snapshot());
+    persistTotals(totals());
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import java.math.BigDecimal;
+
+/**
+ * Running total of the expenses of one category in one month, persisted next to the expenses.
+ *
+ * @param year     the year
+ * @param month    the month (1-12)
+ * @param category the category
+ * @param amount   the sum of the matching expense amounts
+ */
+public record ExpenseTotal(Integer year, Integer month, Category category, BigDecimal amount) {
+
+}
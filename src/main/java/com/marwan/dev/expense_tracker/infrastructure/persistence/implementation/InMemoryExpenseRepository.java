@@ -0,0 +1,573 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withOptimisticRead;
+import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withReadLock;
+import static com.marwan.dev.expense_tracker.infrastructure.persistence.util.LockUtils.withWriteLock;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.InterProcessLock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Base class for expense repositories that serve every read from an in-memory model of the
+ * persisted data.
+ * <p>
+ * Subclasses decide how the model is loaded and how each mutation is persisted. The model is loaded
+ * once and reloaded whenever the persisted files change outside this process, as reported by
+ * {@link #stamp()}, and every mutation runs under {@link #lockFiles(boolean)} so concurrent
+ * processes take turns at read-modify-write. Filtered queries and sums go through an
+ * {@link ExpenseIndex} instead of scanning every expense, and its running totals are persisted
+ * through {@link #persistTotals} and checked against a full scan whenever the model is loaded.
+ * Writers wait for {@link #persisted()} after releasing the locks, so a handler that writes behind
+ * can batch concurrent mutations. Lookups by ID and the grand and per-category totals only read a
+ * hash map or a field, so they run as optimistic reads when the lock supports it, and never block
+ * each other.
+ * </p>
+ */
+public abstract class InMemoryExpenseRepository implements ExpenseRepositoryI {
+
+  /**
+   * Number of expenses {@link #forEach} takes per read lock.
+   */
+  private static final int VISIT_PAGE_SIZE = 1024;
+
+  private final ReadWriteLock lock;
+
+  /**
+   * In-memory model of the persisted expenses, keyed by ID in persisted order.
+   */
+  private final Map<Integer, Expense> expenses = new LinkedHashMap<>();
+
+  /**
+   * Category and year-month indexes over {@link #expenses}, kept in step on every mutation.
+   */
+  private final ExpenseIndex index = new ExpenseIndex();
+
+  private int maxId = 0;
+
+  /**
+   * Stamp of the persisted files as of the last load or write, used to detect outside changes.
+   */
+  private volatile FileStamp loadedStamp;
+  private volatile boolean loaded;
+
+  /**
+   * Constructs a new InMemoryExpenseRepository instance.
+   *
+   * @param lock the read-write lock used for thread-safe operations
+   */
+  protected InMemoryExpenseRepository(ReadWriteLock lock) {
+    this.lock = lock;
+  }
+
+  /**
+   * Loads the persisted expenses into memory and initializes the max ID counter.
+   * <p>
+   * Not needed before use: the first read loads the model under the shared file lock, and the first
+   * write loads it inside its exclusive file lock, so one-shot commands that never touch expenses
+   * skip the load and an {@code add} reads the files once instead of twice. Call it to preload.
+   * </p>
+   */
+  public void initializeMaxId() {
+    withWriteLock(lock, () -> {
+      try (var hold = lockFiles(false)) {
+        reload();
+      }
+    });
+  }
+
+  /**
+   * Checks if an expense exists by its ID.
+   */
+  @Override
+  public boolean existsById(Integer id) {
+    return readOptimistic(() -> expenses.containsKey(id));
+  }
+
+  /**
+   * Saves an expense. If the ID is zero or not found, a new ID is assigned.
+   *
+   * @param expense the expense to save
+   * @return the saved expense
+   */
+  @Override
+  public Expense save(Expense expense) {
+    return write(() -> {
+      if (expense.getId() != 0 && expenses.containsKey(expense.getId())) {
+        updateExistingExpense(expense);
+      } else {
+        assignNewIdToExpense(expense);
+        expenses.put(expense.getId(), expense);
+        index.add(expense);
+      }
+      persistSave(expense);
+      return expense;
+    });
+  }
+
+  /**
+   * Saves new expenses as one batch. IDs are assigned in one block after the current max ID, and
+   * the batch is persisted with a single {@link #persistSaveAll} call under one write lock.
+   *
+   * @param batch the expenses to insert, any ID they carry is replaced
+   * @return the saved expenses
+   */
+  @Override
+  public List<Expense> saveAll(List<Expense> batch) {
+    return write(() -> {
+      for (Expense expense : batch) {
+        expense.setId(++maxId);
+        expenses.put(expense.getId(), expense);
+        index.add(expense);
+      }
+      persistSaveAll(batch);
+      return batch;
+    });
+  }
+
+  /**
+   * Finds an expense by ID.
+   */
+  @Override
+  public Optional<Expense> findById(Integer id) {
+    return readOptimistic(() -> Optional.ofNullable(expenses.get(id)));
+  }
+
+  /**
+   * Returns all saved expenses.
+   */
+  @Override
+  public List<Expense> findAll() {
+    return read(this::snapshot);
+  }
+
+  /**
+   * Finds expenses created between two dates, both inclusive, in date order.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   * @return the matching expenses
+   */
+  @Override
+  public List<Expense> findBetween(LocalDate from, LocalDate to) {
+    return read(() -> index.findBetween(from, to));
+  }
+
+  /**
+   * Returns one page of expenses in ascending ID order.
+   *
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   * @param afterId  only expenses with a greater ID are returned
+   * @param offset   the number of matching expenses to skip
+   * @param limit    the maximum number of expenses returned
+   * @return the page
+   */
+  @Override
+  public List<Expense> findPage(Integer month, Category category, int afterId, int offset,
+      int limit) {
+    return read(() -> index.findPage(month, category, afterId, offset, limit));
+  }
+
+  /**
+   * Returns one page of the expenses created between two dates, in date order.
+   *
+   * @param from     the first date, or null for no lower bound
+   * @param to       the last date, or null for no upper bound
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   * @param offset   the number of matching expenses to skip
+   * @param limit    the maximum number of expenses returned
+   * @return the page
+   */
+  @Override
+  public List<Expense> findPageBetween(LocalDate from, LocalDate to, Integer month,
+      Category category, int offset, int limit) {
+    return read(() -> index.findPageBetween(from, to, month, category, offset, limit));
+  }
+
+  /**
+   * Visits every saved expense in ascending ID order. The expenses are taken as ID-ordered pages,
+   * each under a short read lock, and the action runs with no lock held, so a long visit such as an
+   * export never blocks writers and the action may call back into the repository. A write made
+   * during the visit shows up if it lands past the current page, and no expense is visited twice.
+   */
+  @Override
+  public void forEach(Consumer<? super Expense> action) {
+    int afterId = 0;
+    List<Expense> page;
+    do {
+      page = findPage(null, null, afterId, 0, VISIT_PAGE_SIZE);
+      page.forEach(action);
+      if (!page.isEmpty()) {
+        afterId = page.get(page.size() - 1).getId();
+      }
+    } while (page.size() == VISIT_PAGE_SIZE);
+  }
+
+  /**
+   * Finds expenses by month.
+   */
+  @Override
+  public List<Expense> findByMonth(Integer month) {
+    return read(() -> index.findByMonth(month));
+  }
+
+  /**
+   * Finds expenses by category.
+   */
+  @Override
+  public List<Expense> findByCategory(Category category) {
+    return read(() -> index.findByCategory(category));
+  }
+
+  /**
+   * Finds expenses by both month and category.
+   */
+  @Override
+  public List<Expense> findByMonthAndCategory(Integer month, Category category) {
+    return read(() -> index.findByMonthAndCategory(month, category));
+  }
+
+  /**
+   * Returns the total sum in cents of all expenses.
+   */
+  @Override
+  public long summeryAll() {
+    return readOptimistic(index::sumAll);
+  }
+
+  /**
+   * Returns the total sum in cents of expenses created between two dates, both inclusive.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   */
+  @Override
+  public long sumBetween(LocalDate from, LocalDate to) {
+    return read(() -> index.sumBetween(from, to));
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by month.
+   */
+  @Override
+  public long summeryByMonth(Integer month) {
+    return read(() -> index.sumByMonth(month));
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by category.
+   */
+  @Override
+  public long summeryByCategory(Category category) {
+    return readOptimistic(() -> index.sumByCategory(category));
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by both month and category.
+   */
+  @Override
+  public long summeryByMonthAndCategory(Integer month, Category category) {
+    return read(() -> index.sumByMonthAndCategory(month, category));
+  }
+
+  /**
+   * Returns the spending per category of every month, or of one year, in calendar order, copied
+   * from the running totals.
+   *
+   * @param year the year to report, or null for every year
+   */
+  @Override
+  public List<MonthlySpending> spendingByMonth(Integer year) {
+    return read(() -> index.spendingByMonth(year));
+  }
+
+  /**
+   * Deletes an expense by ID.
+   */
+  @Override
+  public void deleteById(Integer id) {
+    write(() -> {
+      if (expenses.remove(id) != null) {
+        index.remove(id);
+        persistDelete(id);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Deletes all expenses and resets the ID counter.
+   */
+  @Override
+  public void deleteAll() {
+    write(() -> {
+      expenses.clear();
+      index.clear();
+      persistDeleteAll();
+      maxId = 0;
+      return null;
+    });
+  }
+
+  // ================== PERSISTENCE HOOKS ==================
+
+  /**
+   * Reads every persisted expense, in persisted order.
+   *
+   * @return the persisted expenses
+   */
+  protected abstract List<Expense> load();
+
+  /**
+   * Persists an expense that was just inserted or updated in the model.
+   *
+   * @param expense the saved expense
+   */
+  protected abstract void persistSave(Expense expense);
+
+  /**
+   * Persists a batch of expenses that were just inserted into the model.
+   *
+   * @param batch the saved expenses
+   */
+  protected abstract void persistSaveAll(List<Expense> batch);
+
+  /**
+   * Persists the removal of an expense that was just deleted from the model.
+   *
+   * @param id the deleted expense ID
+   */
+  protected abstract void persistDelete(Integer id);
+
+  /**
+   * Persists the removal of every expense.
+   */
+  protected abstract void persistDeleteAll();
+
+  /**
+   * Reads the persisted running totals, if they describe the same data as {@link #load()}.
+   *
+   * @return the stored totals, or empty when there is nothing to check them against
+   */
+  protected abstract Optional<List<ExpenseTotal>> loadTotals();
+
+  /**
+   * Persists the running totals next to the expenses.
+   *
+   * @param totals the totals to store
+   */
+  protected abstract void persistTotals(List<ExpenseTotal> totals);
+
+  /**
+   * Takes a snapshot of the persisted files' modification state.
+   *
+   * @return the current stamp
+   */
+  protected abstract FileStamp stamp();
+
+  /**
+   * Locks the persisted files against other processes, shared while loading and exclusive around
+   * a whole read-modify-write.
+   *
+   * @param exclusive whether writers and readers are locked out, or only writers
+   * @return the hold to close once done, may be null when there is nothing to lock
+   */
+  protected abstract InterProcessLock.Hold lockFiles(boolean exclusive);
+
+  /**
+   * Returns a future that completes once every mutation persisted so far is on disk. Handlers that
+   * stage writes in the background let callers wait here, outside the locks, so mutations from
+   * concurrent callers share one flush.
+   *
+   * @return the future of the mutations persisted so far, may be null when nothing is pending
+   */
+  protected abstract CompletableFuture<Void> persisted();
+
+  /**
+   * Returns a copy of the model's expenses, in persisted order. Must be called under the lock.
+   *
+   * @return the current expenses
+   */
+  protected List<Expense> snapshot() {
+    return new ArrayList<>(expenses.values());
+  }
+
+  /**
+   * Returns the model's running totals per (year, month, category). Must be called under the lock.
+   *
+   * @return the current totals
+   */
+  protected List<ExpenseTotal> totals() {
+    return index.totalRows();
+  }
+
+  // ================== PRIVATE HELPERS ==================
+
+  /**
+   * Runs a read against the in-memory model, reloading it first if the files changed on disk.
+   */
+  private <R> R read(Supplier<R> work) {
+    reloadIfStale();
+    return withReadLock(lock, work);
+  }
+
+  /**
+   * Runs a short read that only touches fields, arrays or hash lookups optimistically, retrying
+   * under the read lock if a write got in the way.
+   */
+  private <R> R readOptimistic(Supplier<R> work) {
+    reloadIfStale();
+    return withOptimisticRead(lock, work);
+  }
+
+  /**
+   * Runs a mutation against the in-memory model under the write lock and the exclusive file lock.
+   * The model is brought up to date with writes from other processes inside the file lock, so IDs
+   * are never handed out twice. If the mutation fails, the model is marked stale so the next access
+   * reloads it from disk. The caller then waits, without any lock, until the mutation is on disk.
+   */
+  private <R> R write(Supplier<R> work) {
+    if (!loaded) {
+      settle();
+    }
+    final R result = withWriteLock(lock, () -> {
+      try (var hold = lockFiles(true)) {
+        return writeLocked(work);
+      }
+    });
+    awaitPersisted();
+    return result;
+  }
+
+  /**
+   * Waits until the mutations staged so far are on disk. If they failed, the model is marked stale
+   * so the next access reloads what actually got persisted. Otherwise the stamp is taken again once
+   * no other mutation is on its way, since the files only now match the model.
+   */
+  private void awaitPersisted() {
+    final CompletableFuture<Void> pending = persisted();
+    if (pending == null || pending.isDone() && !pending.isCompletedExceptionally()) {
+      return;
+    }
+    try {
+      pending.join();
+    } catch (CompletionException e) {
+      loaded = false;
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+    withWriteLock(lock, () -> {
+      if (!writesPending()) {
+        loadedStamp = stamp();
+      }
+    });
+  }
+
+  /**
+   * Waits for mutations still on their way to disk, whatever their outcome, so a reload reads them
+   * back. Must be called without the file lock, which the flush needs.
+   */
+  private void settle() {
+    final CompletableFuture<Void> pending = persisted();
+    if (pending != null) {
+      pending.exceptionally(e -> null).join();
+    }
+  }
+
+  private boolean writesPending() {
+    final CompletableFuture<Void> pending = persisted();
+    return pending != null && !pending.isDone();
+  }
+
+  private <R> R writeLocked(Supplier<R> work) {
+    if (isStale()) {
+      reload();
+    }
+    try {
+      final R result = work.get();
+      // the files now match the model, so this write is not mistaken for an outside change
+      loadedStamp = stamp();
+      return result;
+    } catch (RuntimeException e) {
+      loaded = false;
+      throw e;
+    }
+  }
+
+  private void reloadIfStale() {
+    if (isStale()) {
+      settle();
+      withWriteLock(lock, () -> {
+        try (var hold = lockFiles(false)) {
+          if (isStale()) {
+            reload();
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * While mutations are on their way to disk the files lag behind the model, so they are not
+   * compared until the mutations land.
+   */
+  private boolean isStale() {
+    return !loaded || !writesPending() && !Objects.equals(loadedStamp, stamp());
+  }
+
+  /**
+   * Replaces the in-memory model with the persisted content. Must be called under the write lock.
+   */
+  private void reload() {
+    final FileStamp current = stamp();
+    final List<Expense> persisted = load();
+    maxId = persisted.stream().mapToInt(Expense::getId).max().orElse(0);
+    expenses.clear();
+    index.clear();
+    for (Expense expense : persisted) {
+      if (expenses.putIfAbsent(expense.getId(), expense) != null) {
+        // keep rows that share an ID (e.g. from a concurrent writer) instead of dropping them
+        expense.setId(++maxId);
+        expenses.put(expense.getId(), expense);
+      }
+      index.add(expense);
+    }
+    // the totals were just rebuilt by a full scan, repair the stored ones if they drifted
+    loadTotals().filter(stored -> !index.totalsMatch(stored))
+        .ifPresent(stored -> persistTotals(index.totalRows()));
+    loadedStamp = current;
+    loaded = true;
+  }
+
+  private void updateExistingExpense(Expense expense) {
+    expenses.remove(expense.getId());
+    index.remove(expense.getId());
+    expense.setUpdatedAt(LocalDate.now());
+    expenses.put(expense.getId(), expense);
+    index.add(expense);
+  }
+
+  private void assignNewIdToExpense(Expense expense) {
+    if (expense.getId() == 0) {
+      expense.setId(++maxId);
+    } else {
+      maxId = Math.max(maxId, expense.getId());
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+
+/**
+ * One record of the expense journal: an insert/update, a delete, or a clear of every expense.
+ *
+ * @param op      the journaled operation
+ * @param id      the affected expense ID, {@code null} for {@link Operation#CLEAR}
+ * @param expense the saved expense, only set for {@link Operation#PUT}
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JournalEntry(Operation op, Integer id, Expense expense) {
+
+  public static JournalEntry put(Expense expense) {
+    return new JournalEntry(Operation.PUT, expense.getId(), expense);
+  }
+
+  public static JournalEntry delete(Integer id) {
+    return new JournalEntry(Operation.DELETE, id, null);
+  }
+
+  public static JournalEntry clear() {
+    return new JournalEntry(Operation.CLEAR, null, null);
+  }
+
+  public enum Operation {
+    PUT, DELETE, CLEAR
+  }
+}
@@ -0,0 +1,184 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.InterProcessLock;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for managing Expense data as a JSON snapshot plus an append-only journal.
+ * <p>
+ * Each mutation appends one compact {@link JournalEntry} line to {@code expense.journal} instead
+ * of rewriting the ledger, so saving costs the same no matter how many expenses exist. On load the
+ * journal is replayed over the snapshot, stored in the configured {@link StorageFormat}, and once
+ * the journal grows past the configured threshold it is compacted into a fresh snapshot.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "expense-tracker.storage.engine", havingValue = "journal")
+public class JournalExpenseRepository extends InMemoryExpenseRepository {
+
+  private final JsonFileHandlerI fileHandler;
+  private final long compactThreshold;
+  private final String snapshotPath;
+  private final String journalPath = journalPath();
+  private final String totalsPath = String.format("%s/expense-tracker/expense-totals.json",
+      System.getProperty("user.home"));
+
+  /**
+   * Constructs a new JournalExpenseRepository instance.
+   *
+   * @param lock             the read-write lock used for thread-safe operations
+   * @param fileHandler      the handler used to read and write the snapshot and journal
+   * @param storageFormat    the on-disk format of the snapshot
+   * @param compactThreshold the journal size in bytes past which it is compacted into a snapshot
+   */
+  public JournalExpenseRepository(@Qualifier("expenseLock") ReadWriteLock lock,
+      @Qualifier("expenseFileHandler") JsonFileHandlerI fileHandler, StorageFormat storageFormat,
+      @Value("${expense-tracker.storage.journal.compact-threshold:1048576}") long compactThreshold) {
+    super(lock);
+    this.fileHandler = fileHandler;
+    this.snapshotPath = storageFormat.expenseFilePath();
+    this.compactThreshold = compactThreshold;
+  }
+
+  /**
+   * Streams the snapshot and replays the journal over it, holding only the resulting expenses.
+   */
+  @Override
+  protected List<Expense> load() {
+    return replay(fileHandler, snapshotPath, journalPath);
+  }
+
+  /**
+   * Returns the path of the journal in the user's home directory.
+   *
+   * @return the journal file path
+   */
+  public static String journalPath() {
+    return String.format("%s/expense-tracker/expense.journal", System.getProperty("user.home"));
+  }
+
+  /**
+   * Streams a snapshot and replays a journal over it, as a load of this engine does.
+   *
+   * @param fileHandler  the handler used to read both files
+   * @param snapshotPath the snapshot to start from
+   * @param journalPath  the journal to replay over it
+   * @return the expenses left by the journal, in insertion order
+   */
+  public static List<Expense> replay(JsonFileHandlerI fileHandler, String snapshotPath,
+      String journalPath) {
+    final Map<Integer, Expense> expenses = new LinkedHashMap<>();
+    fileHandler.readEach(snapshotPath, Expense.class,
+        expense -> expenses.put(expense.getId(), expense));
+    fileHandler.readLines(journalPath, JournalEntry.class, entry -> {
+      switch (entry.op()) {
+        case PUT -> {
+          expenses.remove(entry.id());
+          expenses.put(entry.id(), entry.expense());
+        }
+        case DELETE -> expenses.remove(entry.id());
+        case CLEAR -> expenses.clear();
+      }
+    });
+    return new ArrayList<>(expenses.values());
+  }
+
+  @Override
+  protected void persistSave(Expense expense) {
+    appendToJournal(JournalEntry.put(expense));
+  }
+
+  @Override
+  protected void persistSaveAll(List<Expense> batch) {
+    fileHandler.appendAll(journalPath, batch.stream().map(JournalEntry::put).toList());
+    compactIfNeeded();
+  }
+
+  @Override
+  protected void persistDelete(Integer id) {
+    appendToJournal(JournalEntry.delete(id));
+  }
+
+  @Override
+  protected void persistDeleteAll() {
+    appendToJournal(JournalEntry.clear());
+  }
+
+  /**
+   * The stored totals describe the snapshot, so they can only be checked while the journal is
+   * empty.
+   */
+  @Override
+  protected Optional<List<ExpenseTotal>> loadTotals() {
+    if (fileHandler.stamp(journalPath).size() > 0) {
+      return Optional.empty();
+    }
+    return Optional.of(fileHandler.read(totalsPath, ExpenseTotal.class));
+  }
+
+  @Override
+  protected void persistTotals(List<ExpenseTotal> totals) {
+    fileHandler.write(totalsPath, totals);
+  }
+
+  @Override
+  protected CompletableFuture<Void> persisted() {
+    return fileHandler.flushed();
+  }
+
+  /**
+   * Combines the stamps of the snapshot and the journal, so a change to either is detected.
+   */
+  @Override
+  protected FileStamp stamp() {
+    final FileStamp snapshot = fileHandler.stamp(snapshotPath);
+    final FileStamp journal = fileHandler.stamp(journalPath);
+    return new FileStamp(Math.max(snapshot.lastModified(), journal.lastModified()),
+        snapshot.size() + journal.size(), snapshot.version() + journal.version());
+  }
+
+  /**
+   * The snapshot's lock guards the journal too, since compaction rewrites one and drops the other.
+   */
+  @Override
+  protected InterProcessLock.Hold lockFiles(boolean exclusive) {
+    return exclusive ? fileHandler.lockExclusive(snapshotPath)
+        : fileHandler.lockShared(snapshotPath);
+  }
+
+  private void appendToJournal(JournalEntry entry) {
+    fileHandler.append(journalPath, entry);
+    compactIfNeeded();
+  }
+
+  private void compactIfNeeded() {
+    if (fileHandler.stamp(journalPath).size() >= compactThreshold) {
+      compact();
+    }
+  }
+
+  /**
+   * Writes the model and its totals as a new snapshot and drops the journal. Replaying a journal
+   * over a snapshot that already contains it yields the same expenses, so a crash before the
+   * journal is dropped is safe.
+   */
+  private void compact() {
+    fileHandler.write(snapshotPath, snapshot());
+    persistTotals(totals());
+    fileHandler.delete(journalPath);
+  }
+}
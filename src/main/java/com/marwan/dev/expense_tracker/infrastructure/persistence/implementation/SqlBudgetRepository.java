@@ -0,0 +1,131 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.budget.repository.BudgetRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.SqlDatabase;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository storing budgets in the embedded database of {@link SqlDatabase}, keyed by year and
+ * month. Saving a budget is a single {@code MERGE}, so it replaces the month's budget atomically.
+ */
+@Repository
+@ConditionalOnProperty(name = "expense-tracker.storage.engine", havingValue = "sql")
+public class SqlBudgetRepository implements BudgetRepositoryI {
+
+  private static final String COLUMNS = "SELECT amount, budget_month, budget_year FROM budget";
+
+  private final SqlDatabase database;
+
+  /**
+   * Constructs a new SqlBudgetRepository instance.
+   *
+   * @param database the database holding the budget table
+   */
+  public SqlBudgetRepository(SqlDatabase database) {
+    this.database = database;
+  }
+
+  /**
+   * Save a budget entry, replacing the one for the same month and year.
+   *
+   * @param budget the budget to save
+   * @return the saved budget
+   */
+  @Override
+  public Budget save(Budget budget) {
+    update("""
+        MERGE INTO budget (budget_year, budget_month, amount) KEY (budget_year, budget_month)
+        VALUES (?, ?, ?)""", budget.getYear(), budget.getMonth(), budget.getAmount());
+    return budget;
+  }
+
+  /**
+   * Find a budget by month and year.
+   *
+   * @param month the month
+   * @param year  the year
+   * @return optional budget if found
+   */
+  @Override
+  public Optional<Budget> findByMonthAndYear(Integer month, Integer year) {
+    return query(COLUMNS + " WHERE budget_year = ? AND budget_month = ?", year, month).stream()
+        .findFirst();
+  }
+
+  /**
+   * Find all budgets for a specific year, by month.
+   *
+   * @param year the year
+   * @return list of budgets
+   */
+  @Override
+  public List<Budget> findByYear(Integer year) {
+    return query(COLUMNS + " WHERE budget_year = ? ORDER BY budget_month", year);
+  }
+
+  /**
+   * Count all budget entries.
+   */
+  @Override
+  public int count() {
+    try (Connection connection = database.connection();
+        PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM budget");
+        ResultSet rows = statement.executeQuery()) {
+      rows.next();
+      return rows.getInt(1);
+    } catch (SQLException e) {
+      throw new RuntimeException("Error accessing budget database", e);
+    }
+  }
+
+  /**
+   * Delete budget for a specific month and year.
+   *
+   * @param month the month
+   * @param year  the year
+   */
+  @Override
+  public void deleteByMonthAndYear(Integer month, Integer year) {
+    update("DELETE FROM budget WHERE budget_year = ? AND budget_month = ?", year, month);
+  }
+
+  /**
+   * Delete all budget entries.
+   */
+  @Override
+  public void deleteAll() {
+    update("DELETE FROM budget");
+  }
+
+  private List<Budget> query(String sql, Object... parameters) {
+    try (Connection connection = database.connection();
+        PreparedStatement statement = SqlDatabase.prepare(connection, sql, parameters);
+        ResultSet rows = statement.executeQuery()) {
+      final List<Budget> budgets = new ArrayList<>();
+      while (rows.next()) {
+        budgets.add(new Budget(rows.getBigDecimal(1), rows.getInt(2), rows.getInt(3)));
+      }
+      return budgets;
+    } catch (SQLException e) {
+      throw new RuntimeException("Error accessing budget database", e);
+    }
+  }
+
+  private void update(String sql, Object... parameters) {
+    try (Connection connection = database.connection();
+        PreparedStatement statement = SqlDatabase.prepare(connection, sql, parameters)) {
+      statement.executeUpdate();
+    } catch (SQLException e) {
+      throw new RuntimeException("Error accessing budget database", e);
+    }
+  }
+}
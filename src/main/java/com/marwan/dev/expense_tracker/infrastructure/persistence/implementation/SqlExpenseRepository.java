@@ -0,0 +1,486 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.SqlDatabase;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository storing Expense data in the embedded database of {@link SqlDatabase}.
+ * <p>
+ * Every query is a prepared statement, and filters and sums run inside the database: month filters
+ * use an indexed column holding the month of the creation date, categories and date ranges have
+ * their own indexes, and the {@code summery*} methods are {@code SUM} aggregates, so only matching
+ * rows are read and no expense is materialized for a total. New IDs come from a database sequence,
+ * so concurrent processes never hand out the same one, and values already taken by expenses saved
+ * with an explicit ID are passed over. Results are in ascending ID order, like the insertion order
+ * of the file-based engines.
+ * </p>
+ */
+@Repository
+@ConditionalOnProperty(name = "expense-tracker.storage.engine", havingValue = "sql")
+public class SqlExpenseRepository implements ExpenseRepositoryI {
+
+  private static final String COLUMNS =
+      "SELECT id, created_at, updated_at, description, amount, category FROM expense";
+
+  private static final String SPENDING_BY_MONTH = """
+      SELECT YEAR(created_at), created_month, category, SUM(amount) FROM expense
+      WHERE created_at BETWEEN ? AND ? AND category IS NOT NULL
+      GROUP BY YEAR(created_at), created_month, category
+      ORDER BY YEAR(created_at), created_month""";
+
+  private static final int CATEGORY_COUNT = Category.values().length;
+
+  private static final String UPDATE = """
+      UPDATE expense SET created_at = ?, updated_at = ?, description = ?, amount = ?,
+      category = ? WHERE id = ?""";
+
+  private final SqlDatabase database;
+
+  /**
+   * Constructs a new SqlExpenseRepository instance.
+   *
+   * @param database the database holding the expense table
+   */
+  public SqlExpenseRepository(SqlDatabase database) {
+    this.database = database;
+  }
+
+  /**
+   * Saves an expense. If the ID is zero, the next free ID of the sequence is assigned. An expense
+   * with an ID that exists replaces the stored row and gets today as its update date; any other ID
+   * is inserted as given, leaving the sequence alone.
+   *
+   * @param expense the expense to save
+   * @return the saved expense
+   */
+  @Override
+  public Expense save(Expense expense) {
+    return execute(connection -> {
+      if (expense.getId() != 0 && replace(connection, expense)) {
+        return expense;
+      }
+      if (expense.getId() == 0) {
+        expense.setId(nextIds(connection, 1)[0]);
+      }
+      SqlDatabase.insertExpenses(connection, List.of(expense));
+      return expense;
+    });
+  }
+
+  /**
+   * Saves new expenses as one batch in one transaction, with IDs taken from the sequence in one
+   * query.
+   *
+   * @param batch the expenses to insert, any ID they carry is replaced
+   * @return the saved expenses
+   */
+  @Override
+  public List<Expense> saveAll(List<Expense> batch) {
+    if (batch.isEmpty()) {
+      return batch;
+    }
+    return execute(connection -> {
+      final int[] ids = nextIds(connection, batch.size());
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).setId(ids[i]);
+      }
+      connection.setAutoCommit(false);
+      try {
+        SqlDatabase.insertExpenses(connection, batch);
+        connection.commit();
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+      return batch;
+    });
+  }
+
+  /**
+   * Checks if an expense exists by its ID.
+   */
+  @Override
+  public boolean existsById(Integer id) {
+    return findById(id).isPresent();
+  }
+
+  /**
+   * Finds an expense by ID.
+   */
+  @Override
+  public Optional<Expense> findById(Integer id) {
+    return query(COLUMNS + " WHERE id = ?", id).stream().findFirst();
+  }
+
+  /**
+   * Finds expenses by month, of any year.
+   */
+  @Override
+  public List<Expense> findByMonth(Integer month) {
+    return query(COLUMNS + " WHERE created_month = ? ORDER BY id", month);
+  }
+
+  /**
+   * Finds expenses by category.
+   */
+  @Override
+  public List<Expense> findByCategory(Category category) {
+    return query(COLUMNS + " WHERE category = ? ORDER BY id", category.name());
+  }
+
+  /**
+   * Finds expenses by both month and category.
+   */
+  @Override
+  public List<Expense> findByMonthAndCategory(Integer month, Category category) {
+    return query(COLUMNS + " WHERE created_month = ? AND category = ? ORDER BY id", month,
+        category.name());
+  }
+
+  /**
+   * Returns all saved expenses.
+   */
+  @Override
+  public List<Expense> findAll() {
+    return query(COLUMNS + " ORDER BY id");
+  }
+
+  /**
+   * Finds expenses created between two dates, both inclusive, in date order.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   * @return the matching expenses
+   */
+  @Override
+  public List<Expense> findBetween(LocalDate from, LocalDate to) {
+    return query(COLUMNS + " WHERE created_at BETWEEN ? AND ? ORDER BY created_at, id",
+        lowerBound(from), upperBound(to));
+  }
+
+  /**
+   * Returns one page of expenses in ascending ID order.
+   *
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   * @param afterId  only expenses with a greater ID are returned
+   * @param offset   the number of matching expenses to skip
+   * @param limit    the maximum number of expenses returned
+   * @return the page
+   */
+  @Override
+  public List<Expense> findPage(Integer month, Category category, int afterId, int offset,
+      int limit) {
+    // only the given filters go into the statement, so the month and category indexes apply
+    final StringBuilder sql = new StringBuilder(COLUMNS).append(" WHERE id > ?");
+    final List<Object> parameters = new ArrayList<>(List.of(afterId));
+    if (month != null) {
+      sql.append(" AND created_month = ?");
+      parameters.add(month);
+    }
+    if (category != null) {
+      sql.append(" AND category = ?");
+      parameters.add(category.name());
+    }
+    sql.append(" ORDER BY id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+    parameters.add(offset);
+    parameters.add(limit);
+    return query(sql.toString(), parameters.toArray());
+  }
+
+  /**
+   * Returns one page of the expenses created between two dates, in date order. The database
+   * applies the offset and limit, so only the rows on the page are fetched.
+   *
+   * @param from     the first date, or null for no lower bound
+   * @param to       the last date, or null for no upper bound
+   * @param month    the month to match, or null for any
+   * @param category the category to match, or null for any
+   * @param offset   the number of matching expenses to skip
+   * @param limit    the maximum number of expenses returned
+   * @return the page
+   */
+  @Override
+  public List<Expense> findPageBetween(LocalDate from, LocalDate to, Integer month,
+      Category category, int offset, int limit) {
+    final StringBuilder sql = new StringBuilder(COLUMNS)
+        .append(" WHERE created_at BETWEEN ? AND ?");
+    final List<Object> parameters = new ArrayList<>(List.of(lowerBound(from), upperBound(to)));
+    if (month != null) {
+      sql.append(" AND created_month = ?");
+      parameters.add(month);
+    }
+    if (category != null) {
+      sql.append(" AND category = ?");
+      parameters.add(category.name());
+    }
+    sql.append(" ORDER BY created_at, id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+    parameters.add(offset);
+    parameters.add(limit);
+    return query(sql.toString(), parameters.toArray());
+  }
+
+  /**
+   * Visits every saved expense in ID order, streaming them from the result set. The query holds
+   * no locks, and a call back into the repository borrows another connection.
+   */
+  @Override
+  public void forEach(Consumer<? super Expense> action) {
+    execute(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(COLUMNS + " ORDER BY id");
+          ResultSet rows = statement.executeQuery()) {
+        while (rows.next()) {
+          action.accept(expense(rows));
+        }
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by month.
+   */
+  @Override
+  public long summeryByMonth(Integer month) {
+    return sum(" WHERE created_month = ?", month);
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by category.
+   */
+  @Override
+  public long summeryByCategory(Category category) {
+    return sum(" WHERE category = ?", category.name());
+  }
+
+  /**
+   * Returns the total sum in cents of expenses filtered by both month and category.
+   */
+  @Override
+  public long summeryByMonthAndCategory(Integer month, Category category) {
+    return sum(" WHERE created_month = ? AND category = ?", month, category.name());
+  }
+
+  /**
+   * Returns the total sum in cents of all expenses.
+   */
+  @Override
+  public long summeryAll() {
+    return sum("");
+  }
+
+  /**
+   * Returns the total sum in cents of expenses created between two dates, both inclusive.
+   *
+   * @param from the first date, or null for no lower bound
+   * @param to   the last date, or null for no upper bound
+   */
+  @Override
+  public long sumBetween(LocalDate from, LocalDate to) {
+    return sum(" WHERE created_at BETWEEN ? AND ?", lowerBound(from), upperBound(to));
+  }
+
+  /**
+   * Returns the spending per category of every month, or of one year, in calendar order. The
+   * database groups the matrix in one aggregate query, and each (month, category) cell it returns
+   * goes into a {@code long[]} of cents per month, indexed by category ordinal.
+   *
+   * @param year the year to report, or null for every year
+   */
+  @Override
+  public List<MonthlySpending> spendingByMonth(Integer year) {
+    final LocalDate from = year == null ? null : LocalDate.of(year, 1, 1);
+    final LocalDate to = year == null ? null : LocalDate.of(year, 12, 31);
+    return execute(connection -> {
+      try (PreparedStatement statement = SqlDatabase.prepare(connection, SPENDING_BY_MONTH,
+          lowerBound(from), upperBound(to));
+          ResultSet rows = statement.executeQuery()) {
+        final List<MonthlySpending> spending = new ArrayList<>();
+        MonthlySpending current = null;
+        while (rows.next()) {
+          final int rowYear = rows.getInt(1);
+          final int month = rows.getInt(2);
+          if (current == null || current.year() != rowYear || current.month() != month) {
+            current = new MonthlySpending(rowYear, month, new long[CATEGORY_COUNT]);
+            spending.add(current);
+          }
+          current.byCategory()[Category.valueOf(rows.getString(3)).ordinal()] =
+              Money.toCents(rows.getBigDecimal(4));
+        }
+        return spending;
+      }
+    });
+  }
+
+  /**
+   * Deletes an expense by ID.
+   */
+  @Override
+  public void deleteById(Integer id) {
+    update("DELETE FROM expense WHERE id = ?", id);
+  }
+
+  /**
+   * Deletes all expenses and restarts the IDs at 1.
+   */
+  @Override
+  public void deleteAll() {
+    execute(connection -> {
+      try (var statement = connection.createStatement()) {
+        statement.execute("DELETE FROM expense");
+        statement.execute("ALTER SEQUENCE expense_id RESTART WITH 1");
+      }
+      return null;
+    });
+  }
+
+  // ================== JDBC HELPERS ==================
+
+  /**
+   * Work run with a borrowed connection.
+   */
+  @FunctionalInterface
+  private interface SqlWork<R> {
+
+    R run(Connection connection) throws SQLException;
+  }
+
+  private <R> R execute(SqlWork<R> work) {
+    try (Connection connection = database.connection()) {
+      return work.run(connection);
+    } catch (SQLException e) {
+      throw new RuntimeException("Error accessing expense database", e);
+    }
+  }
+
+  private List<Expense> query(String sql, Object... parameters) {
+    return execute(connection -> {
+      try (PreparedStatement statement = SqlDatabase.prepare(connection, sql, parameters);
+          ResultSet rows = statement.executeQuery()) {
+        final List<Expense> expenses = new ArrayList<>();
+        while (rows.next()) {
+          expenses.add(expense(rows));
+        }
+        return expenses;
+      }
+    });
+  }
+
+  private long sum(String where, Object... parameters) {
+    return execute(connection -> {
+      try (PreparedStatement statement = SqlDatabase.prepare(connection,
+          "SELECT COALESCE(SUM(amount), 0) FROM expense" + where, parameters);
+          ResultSet rows = statement.executeQuery()) {
+        rows.next();
+        return Money.toCents(rows.getBigDecimal(1));
+      }
+    });
+  }
+
+  private void update(String sql, Object... parameters) {
+    execute(connection -> {
+      try (PreparedStatement statement = SqlDatabase.prepare(connection, sql, parameters)) {
+        return statement.executeUpdate();
+      }
+    });
+  }
+
+  /**
+   * Utility: Replace the row of an existing expense, returning false if there is none.
+   */
+  private static boolean replace(Connection connection, Expense expense) throws SQLException {
+    final LocalDate previousUpdate = expense.getUpdatedAt();
+    expense.setUpdatedAt(LocalDate.now());
+    try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+      statement.setDate(1, SqlDatabase.date(expense.getCreatedAt()));
+      statement.setDate(2, SqlDatabase.date(expense.getUpdatedAt()));
+      statement.setString(3, expense.getDescription());
+      statement.setBigDecimal(4, expense.getAmount());
+      statement.setString(5, name(expense.getCategory()));
+      statement.setInt(6, expense.getId());
+      if (statement.executeUpdate() > 0) {
+        return true;
+      }
+    }
+    expense.setUpdatedAt(previousUpdate);
+    return false;
+  }
+
+  /**
+   * Utility: Take the next {@code count} free IDs of the sequence. Values already used by an
+   * expense saved with an explicit ID are dropped and more are drawn in their place.
+   */
+  private static int[] nextIds(Connection connection, int count) throws SQLException {
+    final int[] ids = new int[count];
+    int taken = 0;
+    while (taken < count) {
+      final List<Integer> drawn = new ArrayList<>(count - taken);
+      try (PreparedStatement statement = SqlDatabase.prepare(connection,
+          "SELECT NEXT VALUE FOR expense_id FROM SYSTEM_RANGE(1, ?)", count - taken);
+          ResultSet rows = statement.executeQuery()) {
+        while (rows.next()) {
+          drawn.add(rows.getInt(1));
+        }
+      }
+      final Set<Integer> used = new HashSet<>();
+      try (PreparedStatement statement = SqlDatabase.prepare(connection,
+          "SELECT id FROM expense WHERE id BETWEEN ? AND ?",
+          Collections.min(drawn), Collections.max(drawn));
+          ResultSet rows = statement.executeQuery()) {
+        while (rows.next()) {
+          used.add(rows.getInt(1));
+        }
+      }
+      for (int id : drawn) {
+        if (!used.contains(id)) {
+          ids[taken++] = id;
+        }
+      }
+    }
+    return ids;
+  }
+
+  private static Expense expense(ResultSet rows) throws SQLException {
+    final String category = rows.getString(6);
+    return new Expense(rows.getInt(1), localDate(rows.getDate(2)), localDate(rows.getDate(3)),
+        rows.getString(4), rows.getBigDecimal(5),
+        category == null ? null : Category.valueOf(category));
+  }
+
+  private static LocalDate localDate(Date date) {
+    return date == null ? null : date.toLocalDate();
+  }
+
+  private static String name(Category category) {
+    return category == null ? null : category.name();
+  }
+
+  private static Date lowerBound(LocalDate from) {
+    return Date.valueOf(from == null ? LocalDate.of(1, 1, 1) : from);
+  }
+
+  private static Date upperBound(LocalDate to) {
+    return Date.valueOf(to == null ? LocalDate.of(9999, 12, 31) : to);
+  }
+}
@@ -0,0 +1,113 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Codec storing {@link Expense} rows as binary records, much smaller and faster to parse than JSON.
+ * <p>
+ * The file starts with a magic number, a version and the record count. Each record is a fixed-width
+ * part (int id, int created epoch-day, int updated epoch-day, long amount in cents, byte category
+ * ordinal) followed by the length-prefixed UTF-8 description. Missing values are stored as
+ * {@link #NO_DATE}, {@code -1} ordinal and {@code -1} length. Files of version 1, which stored the
+ * amount as a double with {@code NaN} for none, are still read.
+ * </p>
+ */
+public final class BinaryExpenseCodec implements StorageCodec {
+
+  private static final int MAGIC = 0x45585042; // "EXPB"
+  private static final byte VERSION = 2;
+  private static final byte DOUBLE_AMOUNT_VERSION = 1;
+  private static final int NO_DATE = Integer.MIN_VALUE;
+  private static final Category[] CATEGORIES = Category.values();
+
+  @Override
+  public <T> void write(OutputStream out, List<T> items) throws IOException {
+    final var data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeByte(VERSION);
+    data.writeInt(items.size());
+    for (T item : items) {
+      if (!(item instanceof Expense expense)) {
+        throw new IllegalArgumentException("binary format only stores expenses");
+      }
+      writeExpense(data, expense);
+    }
+    data.flush();
+  }
+
+  @Override
+  public <T> void readEach(InputStream in, Class<T> clazz, Consumer<? super T> action)
+      throws IOException {
+    if (clazz != Expense.class) {
+      throw new IllegalArgumentException("binary format only stores expenses");
+    }
+    final var data = new DataInputStream(in);
+    final byte version;
+    if (data.readInt() != MAGIC
+        || (version = data.readByte()) != VERSION && version != DOUBLE_AMOUNT_VERSION) {
+      throw new IOException("Not a binary expense file");
+    }
+    final int count = data.readInt();
+    for (int i = 0; i < count; i++) {
+      action.accept(clazz.cast(readExpense(data, version)));
+    }
+  }
+
+  private static void writeExpense(DataOutputStream data, Expense expense) throws IOException {
+    data.writeInt(expense.getId());
+    data.writeInt(toEpochDay(expense.getCreatedAt()));
+    data.writeInt(toEpochDay(expense.getUpdatedAt()));
+    data.writeLong(expense.getAmountCents());
+    data.writeByte(expense.getCategory() == null ? -1 : expense.getCategory().ordinal());
+    if (expense.getDescription() == null) {
+      data.writeInt(-1);
+    } else {
+      final byte[] description = expense.getDescription().getBytes(StandardCharsets.UTF_8);
+      data.writeInt(description.length);
+      data.write(description);
+    }
+  }
+
+  private static Expense readExpense(DataInputStream data, byte version) throws IOException {
+    final int id = data.readInt();
+    final LocalDate createdAt = fromEpochDay(data.readInt());
+    final LocalDate updatedAt = fromEpochDay(data.readInt());
+    final long amountCents = version == VERSION ? data.readLong() : readDoubleAmount(data);
+    final byte category = data.readByte();
+    final int length = data.readInt();
+    String description = null;
+    if (length >= 0) {
+      final byte[] bytes = new byte[length];
+      data.readFully(bytes);
+      description = new String(bytes, StandardCharsets.UTF_8);
+    }
+    final Expense expense = new Expense(id, createdAt, updatedAt, description, null,
+        category < 0 ? null : CATEGORIES[category]);
+    expense.setAmountCents(amountCents);
+    return expense;
+  }
+
+  private static long readDoubleAmount(DataInputStream data) throws IOException {
+    final double amount = data.readDouble();
+    return Double.isNaN(amount) ? 0 : Money.toCents(amount);
+  }
+
+  private static int toEpochDay(LocalDate date) {
+    return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+  }
+
+  private static LocalDate fromEpochDay(int epochDay) {
+    return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+  }
+}
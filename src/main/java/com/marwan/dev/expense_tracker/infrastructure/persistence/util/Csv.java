@@ -0,0 +1,122 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 helpers for CSV records: fields are separated by commas and may be wrapped in
+ * double quotes, with a quote inside a quoted field written twice. A quoted field may hold line
+ * breaks, so one record can span several lines. Only a quote at the start of a field opens a quoted
+ * field; one inside an unquoted field is kept as a plain character, so a stray quote never runs on
+ * into the following records.
+ */
+public final class Csv {
+
+  private Csv() {
+  }
+
+  /**
+   * Reads the next record, up to the first line break outside quotes. The record is returned as
+   * written, quotes included; line breaks inside a quoted field are kept and the one ending the
+   * record is dropped.
+   *
+   * @param in the reader, positioned at the start of a record
+   * @return the record, or null at the end of the input
+   * @throws IOException if reading fails
+   */
+  public static String readRecord(BufferedReader in) throws IOException {
+    final var record = new StringBuilder();
+    boolean quoted = false;
+    boolean fieldStart = true;
+    int c;
+    while ((c = in.read()) >= 0) {
+      if (quoted) {
+        if (c == '"') {
+          in.mark(1);
+          final int next = in.read();
+          if (next == '"') {
+            // an escaped quote: both halves are kept as written and the field stays open
+            record.append('"');
+          } else {
+            quoted = false;
+            in.reset();
+          }
+        }
+      } else if (c == '"' && fieldStart) {
+        quoted = true;
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r') {
+          in.mark(1);
+          if (in.read() != '\n') {
+            in.reset();
+          }
+        }
+        return record.toString();
+      }
+      fieldStart = !quoted && c == ',';
+      record.append((char) c);
+    }
+    return record.isEmpty() ? null : record.toString();
+  }
+
+  /**
+   * Splits one CSV record into its fields, unquoting quoted fields.
+   *
+   * @param line the record to split
+   * @return the fields, in order
+   * @throws IllegalArgumentException if a quoted field is not closed
+   */
+  public static List<String> split(String line) {
+    final List<String> fields = new ArrayList<>();
+    final var field = new StringBuilder();
+    boolean quoted = false;
+    boolean fieldStart = true;
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"' && fieldStart) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+        fieldStart = true;
+        continue;
+      } else {
+        field.append(c);
+      }
+      fieldStart = false;
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * Quotes a field if it contains a comma, a quote or a line break.
+   *
+   * @param field the field value, {@code null} is written as an empty field
+   * @return the field as it should appear in a CSV line
+   */
+  public static String escape(String field) {
+    if (field == null) {
+      return "";
+    }
+    if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0
+        && field.indexOf('\r') < 0) {
+      return field;
+    }
+    return '"' + field.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,51 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * How far a write is pushed towards the disk before it returns. Whole-file writes replace the file
+ * atomically through a temporary file, so a process crash never leaves a truncated file at any
+ * level. What survives a power loss depends on the level.
+ */
+@Getter
+public enum Durability {
+  /**
+   * Leave flushing to the operating system. A process crash loses nothing. A power loss may lose
+   * the writes of the last few seconds, and since nothing orders the new content before the rename,
+   * it may leave a file rewritten in that time empty or torn.
+   */
+  NONE("none"),
+  /**
+   * Force every write to disk before it returns, and the directory entry after a rename, create or
+   * delete. A write that returned survives a power loss.
+   */
+  FSYNC("fsync"),
+  /**
+   * Force the new content of a whole-file write before its rename, and defer the directory entries
+   * and appended lines to one sync per group-commit interval. A power loss may undo the writes of
+   * the last interval, leaving the previous version of a rewritten file and cutting lines appended
+   * in that time, but never leaves a rewritten file empty or torn.
+   */
+  GROUP_COMMIT("group-commit");
+
+  private final String name;
+
+  Durability(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Resolves a level by name, ignoring case.
+   *
+   * @param durability the level name, e.g. {@code fsync} or {@code group-commit}
+   * @return the matching level
+   * @throws IllegalArgumentException if no level matches
+   */
+  public static Durability from(String durability) {
+    return Arrays.stream(values())
+        .filter(d -> d.name.equalsIgnoreCase(durability) || d.name().equalsIgnoreCase(durability))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("unknown durability: " + durability));
+  }
+}
@@ -0,0 +1,17 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+/**
+ * Snapshot of a file's modification time, size and write version, used to detect changes made to
+ * a data file outside the current process.
+ *
+ * @param lastModified the last modification time in milliseconds, {@code 0} if the file is missing
+ * @param size         the file size in bytes, {@code 0} if the file is missing
+ * @param version      the number of writes recorded in the file's {@link InterProcessLock}, which
+ *                     catches changes that keep the same size within the timestamp granularity
+ */
+public record FileStamp(long lastModified, long size, long version) {
+
+  public FileStamp(long lastModified, long size) {
+    this(lastModified, size, 0);
+  }
+}
@@ -0,0 +1,95 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forces changed files to disk in the background, once per interval, for
+ * {@link Durability#GROUP_COMMIT}. Writers only record the path, so any number of writes to a file
+ * within one interval cost a single sync.
+ */
+public final class GroupCommitter implements AutoCloseable {
+
+  private final Set<Path> dirty = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService flusher;
+
+  /**
+   * Starts the background flusher.
+   *
+   * @param interval how often the changed files are forced
+   */
+  public GroupCommitter(Duration interval) {
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "group-commit");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(this::flush, interval.toNanos(), interval.toNanos(),
+        TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records a changed file, and its directory when an entry was added, renamed or removed.
+   *
+   * @param file           the changed file
+   * @param directoryEntry whether the directory entry changed too
+   */
+  public void changed(Path file, boolean directoryEntry) {
+    dirty.add(file);
+    if (directoryEntry && file.getParent() != null) {
+      dirty.add(file.getParent());
+    }
+  }
+
+  /**
+   * Forces every file changed since the last flush. A file deleted in the meantime is skipped, and
+   * one that fails to sync stays pending for the next interval.
+   */
+  void flush() {
+    for (Path path : List.copyOf(dirty)) {
+      dirty.remove(path);
+      try {
+        if (Files.exists(path)) {
+          force(path);
+        }
+      } catch (RuntimeException e) {
+        dirty.add(path);
+      }
+    }
+  }
+
+  /**
+   * Flushes the pending files and stops the background flusher.
+   */
+  @Override
+  public void close() {
+    flusher.shutdown();
+    flush();
+  }
+
+  /**
+   * Forces a file or directory to disk. Directories cannot be opened on every platform, in which
+   * case the rename is left to the file system's own ordering.
+   *
+   * @param path the file or directory to force
+   */
+  public static void force(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      if (!Files.isDirectory(path)) {
+        throw new RuntimeException("Error syncing file: " + path, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Shared/exclusive lock on a data file that also holds across processes, through a
+ * {@link FileChannel#lock} on a sibling {@code <file>.lock} file.
+ * <p>
+ * The operating system grants file locks per process, and a JVM refuses overlapping locks on the
+ * same file, so threads of one process first coordinate through a reentrant read-write lock and
+ * share a single OS lock: the first holder acquires it and the last one releases it. Holds are
+ * reentrant, and a shared hold may be taken inside an exclusive one, but an exclusive hold must not
+ * be requested while only holding a shared one.
+ * </p>
+ * <p>
+ * The lock file also carries a version counter that writers bump under the exclusive lock, so other
+ * processes can tell that the data file changed even when its modification time and size did not.
+ * </p>
+ */
+public final class InterProcessLock {
+
+  private static final Map<Path, InterProcessLock> LOCKS = new ConcurrentHashMap<>();
+
+  private final Path lockFile;
+  private final ReentrantReadWriteLock threads = new ReentrantReadWriteLock();
+  private final Object channelGuard = new Object();
+
+  private volatile FileChannel channel;
+  private FileLock fileLock;
+  private int holders;
+
+  private InterProcessLock(Path lockFile) {
+    this.lockFile = lockFile;
+  }
+
+  /**
+   * Returns the lock guarding a data file, shared by every caller in this JVM.
+   *
+   * @param dataFile the file to guard
+   * @return the lock for that file
+   */
+  public static InterProcessLock forFile(Path dataFile) {
+    final Path absolute = dataFile.toAbsolutePath().normalize();
+    return LOCKS.computeIfAbsent(absolute,
+        path -> new InterProcessLock(path.resolveSibling(path.getFileName() + ".lock")));
+  }
+
+  /**
+   * Acquires the lock in shared mode, blocking while another process or thread writes.
+   *
+   * @return the hold to close once the read is done
+   */
+  public Hold acquireShared() {
+    threads.readLock().lock();
+    return acquireFileLock(true, threads.readLock()::unlock);
+  }
+
+  /**
+   * Acquires the lock in exclusive mode, blocking while any other process or thread holds it.
+   *
+   * @return the hold to close once the write is done
+   */
+  public Hold acquireExclusive() {
+    threads.writeLock().lock();
+    return acquireFileLock(false, threads.writeLock()::unlock);
+  }
+
+  /**
+   * Reads the version counter without locking.
+   *
+   * @return the number of recorded writes, {@code 0} if the lock file does not exist yet
+   */
+  public long version() {
+    try {
+      if (channel == null && !Files.exists(lockFile)) {
+        return 0;
+      }
+      final FileChannel opened = channel();
+      final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+      while (buffer.hasRemaining()) {
+        if (opened.read(buffer, buffer.position()) < 0) {
+          return 0;
+        }
+      }
+      return buffer.flip().getLong();
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading lock file", e);
+    }
+  }
+
+  /**
+   * Increments the version counter. The caller must hold the lock exclusively.
+   */
+  public void bumpVersion() {
+    if (!threads.isWriteLockedByCurrentThread()) {
+      throw new IllegalStateException("version bumped without holding the exclusive lock");
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(version() + 1).flip();
+    try {
+      final FileChannel opened = channel();
+      while (buffer.hasRemaining()) {
+        opened.write(buffer, buffer.position());
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error writing lock file", e);
+    }
+  }
+
+  /**
+   * Takes the OS lock for the first holder in this JVM. Called with the thread lock held, so an
+   * exclusive request only gets here when no other thread holds the lock.
+   */
+  private Hold acquireFileLock(boolean shared, Runnable unlockThreads) {
+    try {
+      synchronized (this) {
+        if (holders == 0) {
+          fileLock = channel().lock(0, Long.MAX_VALUE, shared);
+        }
+        holders++;
+      }
+      return new Hold(unlockThreads);
+    } catch (IOException | RuntimeException e) {
+      unlockThreads.run();
+      throw new RuntimeException("Error locking file: " + lockFile, e);
+    }
+  }
+
+  private synchronized void release(Runnable unlockThreads) {
+    try {
+      if (--holders == 0) {
+        fileLock.release();
+        fileLock = null;
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error unlocking file: " + lockFile, e);
+    } finally {
+      unlockThreads.run();
+    }
+  }
+
+  private FileChannel channel() throws IOException {
+    FileChannel opened = channel;
+    if (opened == null) {
+      synchronized (channelGuard) {
+        opened = channel;
+        if (opened == null) {
+          Files.createDirectories(lockFile.getParent());
+          opened = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+          channel = opened;
+        }
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * One acquisition of the lock, released by {@link #close()}.
+   */
+  public final class Hold implements AutoCloseable {
+
+    private final Runnable unlockThreads;
+    private boolean closed;
+
+    private Hold(Runnable unlockThreads) {
+      this.unlockThreads = unlockThreads;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        release(unlockThreads);
+      }
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Codec storing items as an array in any Jackson data format: JSON, Smile or CBOR, depending on
+ * the factory of the given mapper.
+ */
+public final class JacksonStorageCodec implements StorageCodec {
+
+  private final ObjectMapper mapper;
+  private final boolean prettyPrint;
+
+  /**
+   * Constructs a new JacksonStorageCodec.
+   *
+   * @param mapper      the mapper whose factory defines the data format
+   * @param prettyPrint whether to indent the output, only meaningful for JSON
+   */
+  public JacksonStorageCodec(ObjectMapper mapper, boolean prettyPrint) {
+    this.mapper = mapper;
+    this.prettyPrint = prettyPrint;
+  }
+
+  @Override
+  public <T> void write(OutputStream out, List<T> items) throws IOException {
+    (prettyPrint ? mapper.writerWithDefaultPrettyPrinter() : mapper.writer()).writeValue(out,
+        items);
+  }
+
+  /**
+   * Parses the array token by token, holding only the current item in memory.
+   */
+  @Override
+  public <T> void readEach(InputStream in, Class<T> clazz, Consumer<? super T> action)
+      throws IOException {
+    try (JsonParser parser = mapper.createParser(in)) {
+      final ObjectReader reader = mapper.readerFor(clazz);
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IOException("Expected an array of " + clazz.getSimpleName());
+      }
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        action.accept(reader.readValue(parser));
+      }
+    }
+  }
+}
@@ -1,24 +1,100 @@
 package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
 /**
  * Utility class providing static helper methods for Reading and writing to JSON files.
  * <p>
- * This class is final and cannot be instantiated. It provides two method to read and write.
+ * This class is final and cannot be instantiated. Whole-list files are encoded with the
+ * {@link StorageCodec} matching their extension (see {@link StorageFormat}), so the same calls read
+ * and write JSON, Smile, CBOR or binary expense files. Line-oriented files are always JSON.
+ * </p>
+ * <p>
+ * Every read holds the file's {@link InterProcessLock} in shared mode and every write holds it
+ * exclusively, so another process never sees a half-written file. Callers that read, modify and
+ * write back a file take the exclusive lock around the whole sequence with
+ * {@link #lockExclusive(String)}; the locks are reentrant within a thread.
+ * </p>
+ * <p>
+ * Whole-list writes go to a temporary file next to the target, which then atomically replaces it,
+ * so a crash mid-write leaves the previous version intact. Unless the {@link Durability} is
+ * {@code none}, the temporary file is forced before the rename; the level decides when the rename
+ * and appended lines are forced.
+ * </p>
  */
 @Component
+@Primary
 public final class JsonFileHandler implements JsonFileHandlerI {
 
   private final ObjectMapper mapper;
+  private final Map<StorageFormat, StorageCodec> codecs = new EnumMap<>(StorageFormat.class);
+  private final Durability durability;
+
+  /**
+   * Background syncs for {@link Durability#GROUP_COMMIT}, null for the other levels.
+   */
+  private final GroupCommitter groupCommitter;
 
-  public JsonFileHandler(ObjectMapper mapper) {
+  /**
+   * Constructs a new JsonFileHandler that forces every write to disk.
+   *
+   * @param mapper      the mapper used for JSON, and as the template for Smile and CBOR
+   * @param prettyPrint whether JSON files are indented
+   */
+  public JsonFileHandler(ObjectMapper mapper, boolean prettyPrint) {
+    this(mapper, prettyPrint, Durability.FSYNC, Duration.ZERO);
+  }
+
+  /**
+   * Constructs a new JsonFileHandler.
+   *
+   * @param mapper              the mapper used for JSON, and as the template for Smile and CBOR
+   * @param prettyPrint         whether JSON files are indented
+   * @param durability          when writes are forced to disk
+   * @param groupCommitInterval how often changed files are forced with
+   *                            {@link Durability#GROUP_COMMIT}
+   */
+  @Autowired
+  public JsonFileHandler(ObjectMapper mapper,
+      @Value("${expense-tracker.storage.pretty-print:false}") boolean prettyPrint,
+      Durability durability,
+      @Value("${expense-tracker.storage.group-commit-interval:50ms}") Duration groupCommitInterval) {
     this.mapper = mapper;
+    this.durability = durability;
+    this.groupCommitter = durability == Durability.GROUP_COMMIT
+        ? new GroupCommitter(groupCommitInterval) : null;
+    codecs.put(StorageFormat.JSON, new JacksonStorageCodec(mapper, prettyPrint));
+    codecs.put(StorageFormat.SMILE, new JacksonStorageCodec(mapper.copyWith(new SmileFactory()),
+        false));
+    codecs.put(StorageFormat.CBOR, new JacksonStorageCodec(mapper.copyWith(new CBORFactory()),
+        false));
+    codecs.put(StorageFormat.BINARY, new BinaryExpenseCodec());
   }
 
   /**
@@ -28,17 +104,9 @@ public final class JsonFileHandler implements JsonFileHandlerI {
    */
   @Override
   public <T> List<T> read(String filePath, Class<T> tClass) {
-    try {
-      final var file = new File(filePath);
-      if (!file.exists()) {
-        return new ArrayList<>();
-      }
-      final var collectionType = mapper.getTypeFactory()
-          .constructCollectionType(ArrayList.class, tClass);
-      return mapper.readValue(file, collectionType);
-    } catch (IOException e) {
-      throw new RuntimeException("Error reading from file", e);
-    }
+    final List<T> items = new ArrayList<>();
+    readEach(filePath, tClass, items::add);
+    return items;
   }
 
   /**
@@ -48,12 +116,251 @@ public final class JsonFileHandler implements JsonFileHandlerI {
    */
   @Override
   public <T> void write(String filePath, List<T> items) {
-    try {
-      final var file = new File(filePath);
-      file.getParentFile().mkdirs();
-      mapper.writerWithDefaultPrettyPrinter().writeValue(file, items);
+    final Path target = Path.of(filePath);
+    target.toFile().getParentFile().mkdirs();
+    try (var hold = lockExclusive(filePath)) {
+      final Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(),
+          ".tmp");
+      try {
+        try (var out = new BufferedOutputStream(new FileOutputStream(temp.toFile()))) {
+          codecFor(filePath).write(out, items);
+          out.flush();
+        }
+        // the content must be on disk before the rename can be, or a power loss may keep the
+        // rename and lose the data; the codecs close their stream, so the file is reopened
+        if (durability != Durability.NONE) {
+          GroupCommitter.force(temp);
+        }
+        replace(temp, target);
+      } catch (IOException | RuntimeException e) {
+        Files.deleteIfExists(temp);
+        throw e;
+      }
+      committed(target, true);
+      lockFor(filePath).bumpVersion();
     } catch (IOException e) {
       throw new RuntimeException("Error writing to file: ", e);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Utility: Stream the items of a file one at a time, without building the list.
+   * <p>
+   * The file is parsed token by token and only the current item is held in memory, so callers that
+   * filter or aggregate can process files far larger than the heap.
+   * </p>
+   *
+   * @param action called with each item, in file order
+   */
+  @Override
+  public <T> void readEach(String filePath, Class<T> tClass, Consumer<? super T> action) {
+    final var file = new File(filePath);
+    if (!file.exists()) {
+      return;
+    }
+    try (var hold = lockShared(filePath);
+        var in = new BufferedInputStream(new FileInputStream(file))) {
+      codecFor(filePath).readEach(in, tClass, action);
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading from file", e);
+    }
+  }
+
+  /**
+   * Utility: Stream a file holding one compact JSON value per line, one item at a time.
+   * <p>
+   * A line only counts once its newline is written, so a last line left without one by a crash
+   * during {@link #append} is skipped, and the next append cuts it off. A line that does not parse
+   * anywhere before that is corruption and fails the read.
+   * </p>
+   *
+   * @param action called with each item, in file order
+   */
+  @Override
+  public <T> void readLines(String filePath, Class<T> tClass, Consumer<? super T> action) {
+    final var file = new File(filePath);
+    if (!file.exists()) {
+      return;
+    }
+    try (var hold = lockShared(filePath); JsonParser parser = mapper.createParser(file)) {
+      final long complete = completeLength(file);
+      final ObjectReader reader = mapper.readerFor(tClass);
+      while (parser.nextToken() != null
+          && parser.currentTokenLocation().getByteOffset() < complete) {
+        action.accept(reader.readValue(parser));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading from file", e);
+    }
+  }
+
+  /**
+   * Utility: Append one item to the file as a single compact JSON line.
+   *
+   * @param item the item to append
+   */
+  @Override
+  public <T> void append(String filePath, T item) {
+    appendAll(filePath, List.of(item));
+  }
+
+  /**
+   * Utility: Append items to the file as compact JSON lines, opening the file once.
+   *
+   * @param items the items to append, in order
+   */
+  @Override
+  public <T> void appendAll(String filePath, List<T> items) {
+    final var file = new File(filePath);
+    file.getParentFile().mkdirs();
+    try (var hold = lockExclusive(filePath)) {
+      final boolean created = !file.exists();
+      final long complete = created ? 0 : completeLength(file);
+      try (var fileOut = new FileOutputStream(file, true);
+          var out = new BufferedOutputStream(fileOut)) {
+        if (complete < fileOut.getChannel().size()) {
+          // drop the line a crash left without its newline, so no record is written after it
+          fileOut.getChannel().truncate(complete);
+        }
+        for (T item : items) {
+          out.write(mapper.writeValueAsBytes(item));
+          out.write('\n');
+        }
+        out.flush();
+        if (durability == Durability.FSYNC) {
+          fileOut.getChannel().force(true);
+        }
+      }
+      committed(file.toPath(), created);
+      lockFor(filePath).bumpVersion();
+    } catch (IOException e) {
+      throw new RuntimeException("Error appending to file: ", e);
+    }
+  }
+
+  /**
+   * Utility: Find the length of the file up to and including its last newline.
+   */
+  private static long completeLength(File file) throws IOException {
+    try (var in = new RandomAccessFile(file, "r")) {
+      final byte[] buffer = new byte[8192];
+      long end = in.length();
+      while (end > 0) {
+        final int size = (int) Math.min(buffer.length, end);
+        in.seek(end - size);
+        in.readFully(buffer, 0, size);
+        for (int i = size - 1; i >= 0; i--) {
+          if (buffer[i] == '\n') {
+            return end - size + i + 1;
+          }
+        }
+        end -= size;
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Utility: Delete the file if it exists.
+   */
+  @Override
+  public void delete(String filePath) {
+    try (var hold = lockExclusive(filePath)) {
+      final Path file = Path.of(filePath);
+      if (Files.deleteIfExists(file)) {
+        committed(file, true);
+        lockFor(filePath).bumpVersion();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error deleting file: ", e);
+    }
+  }
+
+  /**
+   * Utility: Take a snapshot of the file's modification time and size.
+   *
+   * @param filePath the file to inspect
+   * @return the current stamp, zeroed when the file does not exist
+   */
+  @Override
+  public FileStamp stamp(String filePath) {
+    final var file = new File(filePath);
+    return new FileStamp(file.lastModified(), file.length(), lockFor(filePath).version());
+  }
+
+  /**
+   * Utility: Lock the file against writers in this and other processes.
+   *
+   * @param filePath the file to lock
+   * @return the hold to close once done reading
+   */
+  @Override
+  public InterProcessLock.Hold lockShared(String filePath) {
+    return lockFor(filePath).acquireShared();
+  }
+
+  /**
+   * Utility: Lock the file against readers and writers in this and other processes.
+   *
+   * @param filePath the file to lock
+   * @return the hold to close once done writing
+   */
+  @Override
+  public InterProcessLock.Hold lockExclusive(String filePath) {
+    return lockFor(filePath).acquireExclusive();
+  }
+
+  /**
+   * Utility: Force the pending group commits and stop the background flusher.
+   */
+  @PreDestroy
+  public void close() {
+    if (groupCommitter != null) {
+      groupCommitter.close();
+    }
+  }
+
+  /**
+   * Utility: Atomically replace the target with the temporary file, falling back to a plain
+   * replacing move on file systems without atomic renames.
+   */
+  private static void replace(Path temp, Path target) throws IOException {
+    try {
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Utility: Apply the durability level once a file's content is written. With
+   * {@link Durability#FSYNC} the content was already forced, so only a changed directory entry is
+   * left.
+   *
+   * @param file           the written file
+   * @param directoryEntry whether the file was created, renamed or deleted
+   */
+  private void committed(Path file, boolean directoryEntry) {
+    switch (durability) {
+      case FSYNC -> {
+        if (directoryEntry) {
+          GroupCommitter.force(file.toAbsolutePath().getParent());
+        }
+      }
+      case GROUP_COMMIT -> groupCommitter.changed(file.toAbsolutePath(), directoryEntry);
+      case NONE -> {
+      }
+    }
+  }
+
+  private static InterProcessLock lockFor(String filePath) {
+    return InterProcessLock.forFile(Path.of(filePath));
+  }
+
+  /**
+   * Utility: Pick the codec for a file from its extension.
+   */
+  private StorageCodec codecFor(String filePath) {
+    return codecs.get(StorageFormat.fromPath(filePath));
+  }
+}
@@ -1,10 +1,38 @@
 package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface JsonFileHandlerI {
 
   <T> List<T> read(String filePath, Class<T> clazz);
 
   <T> void write(String filePath, List<T> data);
-}
\ No newline at end of file
+
+  <T> void readEach(String filePath, Class<T> clazz, Consumer<? super T> action);
+
+  <T> void readLines(String filePath, Class<T> clazz, Consumer<? super T> action);
+
+  <T> void append(String filePath, T item);
+
+  <T> void appendAll(String filePath, List<T> items);
+
+  void delete(String filePath);
+
+  FileStamp stamp(String filePath);
+
+  InterProcessLock.Hold lockShared(String filePath);
+
+  InterProcessLock.Hold lockExclusive(String filePath);
+
+  /**
+   * Returns a future that completes once every write made so far is persisted. Handlers that write
+   * synchronously return a completed future.
+   *
+   * @return the future of the writes made so far
+   */
+  default CompletableFuture<Void> flushed() {
+    return CompletableFuture.completedFuture(null);
+  }
+}
@@ -36,6 +36,41 @@ public final class LockUtils {
     }
   }
 
+  /**
+   * Executes a read operation optimistically when the lock is an {@link OptimisticReadWriteLock},
+   * falling back to the read lock if a write happened during the attempt.
+   * <p>
+   * The optimistic attempt runs without holding any lock, so it may observe a half-applied write.
+   * Its result is only returned once the stamp validates, and an exception thrown by an invalidated
+   * attempt is discarded. The work must therefore be short, free of side effects, and only read
+   * state that cannot send it into a loop when torn, such as fields, arrays and hash lookups.
+   * Locks of any other type always take the read lock.
+   * </p>
+   *
+   * @param lock the {@link ReadWriteLock} to be used
+   * @param work the supplier representing the read operation
+   * @param <R>  the result type of the operation
+   * @return the result of the read operation
+   */
+  public static <R> R withOptimisticRead(ReadWriteLock lock, Supplier<R> work) {
+    if (lock instanceof OptimisticReadWriteLock optimistic) {
+      final long stamp = optimistic.tryOptimisticRead();
+      if (stamp != 0) {
+        try {
+          final R result = work.get();
+          if (optimistic.validate(stamp)) {
+            return result;
+          }
+        } catch (RuntimeException e) {
+          if (optimistic.validate(stamp)) {
+            throw e;
+          }
+        }
+      }
+    }
+    return withReadLock(lock, work);
+  }
+
   /**
    * Executes a write operation within a thread-safe write lock.
    *
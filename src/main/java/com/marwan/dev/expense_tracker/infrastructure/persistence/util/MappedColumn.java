@@ -0,0 +1,119 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed-width column of primitive values stored in a memory-mapped file, one slot per row.
+ * <p>
+ * Values are read and written in place in the mapped memory, so scanning a column touches
+ * contiguous off-heap memory and allocates nothing. The mapping grows by doubling when a row past
+ * the current capacity is needed. Reads use absolute positions, so threads may read concurrently;
+ * writes and growth need the repository write lock.
+ * </p>
+ */
+public final class MappedColumn implements Closeable {
+
+  private final Path file;
+  private final FileChannel channel;
+  private final int width;
+  private MappedByteBuffer buffer;
+
+  /**
+   * Opens or creates a column file.
+   *
+   * @param file        the column file
+   * @param width       the size of one value in bytes
+   * @param initialRows the number of rows to map when the file is new
+   * @throws IOException if the file cannot be opened or mapped
+   */
+  public MappedColumn(Path file, int width, int initialRows) throws IOException {
+    Files.createDirectories(file.getParent());
+    this.file = file;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    this.width = width;
+    map(Math.max(channel.size(), (long) initialRows * width));
+  }
+
+  /**
+   * Makes sure the mapping holds at least the given number of rows.
+   *
+   * @param rows the required number of rows
+   */
+  public void ensureCapacity(int rows) {
+    final long required = (long) rows * width;
+    if (required > buffer.capacity()) {
+      try {
+        map(Math.max(required, 2L * buffer.capacity()));
+      } catch (IOException e) {
+        throw new RuntimeException("Error growing column file", e);
+      }
+    }
+  }
+
+  public int getInt(int row) {
+    return buffer.getInt(row * width);
+  }
+
+  public void putInt(int row, int value) {
+    buffer.putInt(row * width, value);
+  }
+
+  public long getLong(int row) {
+    return buffer.getLong(row * width);
+  }
+
+  public void putLong(int row, long value) {
+    buffer.putLong(row * width, value);
+  }
+
+  public double getDouble(int row) {
+    return buffer.getDouble(row * width);
+  }
+
+  public void putDouble(int row, double value) {
+    buffer.putDouble(row * width, value);
+  }
+
+  public byte getByte(int row) {
+    return buffer.get(row * width);
+  }
+
+  public void putByte(int row, byte value) {
+    buffer.put(row * width, value);
+  }
+
+  /**
+   * Returns the column file.
+   */
+  public Path file() {
+    return file;
+  }
+
+  /**
+   * Flushes the mapped memory to the file.
+   */
+  public void force() {
+    buffer.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+
+  private void map(long bytes) throws IOException {
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IOException("Column file exceeds the 2 GB mapping limit");
+    }
+    buffer = channel.map(MapMode.READ_WRITE, 0, bytes);
+  }
+}
@@ -0,0 +1,51 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * {@link ReadWriteLock} backed by a {@link StampedLock}, so short reads can run optimistically
+ * without writing to the lock's state.
+ * <p>
+ * The read and write locks are the {@link StampedLock} views, which makes this lock usable anywhere
+ * a {@link ReadWriteLock} is, with two differences: it is not reentrant, and its locks do not
+ * support conditions. Optimistic reads go through
+ * {@link LockUtils#withOptimisticRead(ReadWriteLock, java.util.function.Supplier)}.
+ * </p>
+ */
+public final class OptimisticReadWriteLock implements ReadWriteLock {
+
+  private final StampedLock stampedLock = new StampedLock();
+  private final Lock readLock = stampedLock.asReadLock();
+  private final Lock writeLock = stampedLock.asWriteLock();
+
+  @Override
+  public Lock readLock() {
+    return readLock;
+  }
+
+  @Override
+  public Lock writeLock() {
+    return writeLock;
+  }
+
+  /**
+   * Returns a stamp for an optimistic read.
+   *
+   * @return the stamp, or zero if the write lock is held
+   */
+  long tryOptimisticRead() {
+    return stampedLock.tryOptimisticRead();
+  }
+
+  /**
+   * Checks that no write lock was acquired since the stamp was issued.
+   *
+   * @param stamp a stamp from {@link #tryOptimisticRead()}
+   * @return {@code true} if the reads made since the stamp was issued are consistent
+   */
+  boolean validate(long stamp) {
+    return stampedLock.validate(stamp);
+  }
+}
@@ -0,0 +1,201 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs row scans over column storage on a {@link ForkJoinPool}.
+ * <p>
+ * Rows are cut into fixed chunks of {@value #CHUNK_ROWS}; each chunk is reduced on its own and the
+ * chunk results are combined on the calling thread in row order. The chunks do not depend on the
+ * number of threads, and scans below the threshold walk the same chunks on the calling thread, so
+ * a scan gives the same result whether it ran in parallel or not. The row functions must only read
+ * state that does not change during the scan, such as columns under the repository's read lock.
+ * </p>
+ */
+@Component
+public class ParallelScan {
+
+  /**
+   * Rows reduced by one task, small enough to spread a few hundred thousand rows over the cores and
+   * large enough that the task overhead stays in the noise.
+   */
+  static final int CHUNK_ROWS = 8_192;
+
+  private final int threshold;
+  private final ForkJoinPool pool;
+  private final boolean ownsPool;
+
+  /**
+   * Constructs a new ParallelScan.
+   *
+   * @param threshold   scans over fewer rows run on the calling thread
+   * @param parallelism the number of worker threads, or 0 to share the common pool
+   */
+  public ParallelScan(
+      @Value("${expense-tracker.aggregation.parallel-threshold:131072}") int threshold,
+      @Value("${expense-tracker.aggregation.parallelism:0}") int parallelism) {
+    this.threshold = threshold;
+    this.ownsPool = parallelism > 0;
+    this.pool = ownsPool ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Returns a scan that never leaves the calling thread, for callers outside the application
+   * context.
+   */
+  public static ParallelScan sequential() {
+    return new ParallelScan(Integer.MAX_VALUE, 0);
+  }
+
+  /**
+   * Sums a value over the rows matching a condition. Values are whole numbers, such as cents, so
+   * the sum is exact.
+   *
+   * @param rows  the number of rows, starting at 0
+   * @param match the condition
+   * @param value the value of a matching row
+   * @return the sum of the values
+   */
+  public long sum(int rows, IntPredicate match, IntToLongFunction value) {
+    return reduce(rows, () -> new long[1], (sum, row) -> {
+      if (match.test(row)) {
+        sum[0] += value.applyAsLong(row);
+      }
+    }, (left, right) -> {
+      left[0] += right[0];
+      return left;
+    })[0];
+  }
+
+  /**
+   * Finds the rows matching a condition.
+   *
+   * @param rows  the number of rows, starting at 0
+   * @param match the condition
+   * @return the matching rows in ascending order
+   */
+  public int[] filter(int rows, IntPredicate match) {
+    return reduce(rows, RowList::new, (list, row) -> {
+      if (match.test(row)) {
+        list.add(row);
+      }
+    }, RowList::append).toArray();
+  }
+
+  /**
+   * Reduces every row into a container per chunk, then combines the containers in row order.
+   *
+   * @param rows        the number of rows, starting at 0
+   * @param container   creates the empty container of a chunk
+   * @param accumulator adds one row to a container
+   * @param combiner    combines a container with the one of the chunk after it
+   * @return the combined container
+   */
+  public <A> A reduce(int rows, Supplier<A> container, ObjIntConsumer<A> accumulator,
+      BinaryOperator<A> combiner) {
+    final int chunks = Math.max(1, (rows + CHUNK_ROWS - 1) / CHUNK_ROWS);
+    final Object[] partials = new Object[chunks];
+    final var task = new ChunkTask<>(0, chunks, rows, partials, container, accumulator);
+    if (rows < threshold || chunks == 1) {
+      task.compute();
+    } else {
+      pool.invoke(task);
+    }
+    @SuppressWarnings("unchecked")
+    A result = (A) partials[0];
+    for (int chunk = 1; chunk < chunks; chunk++) {
+      @SuppressWarnings("unchecked")
+      final A partial = (A) partials[chunk];
+      result = combiner.apply(result, partial);
+    }
+    return result;
+  }
+
+  /**
+   * Shuts down the worker threads, if this scan created its own pool.
+   */
+  @PreDestroy
+  public void close() {
+    if (ownsPool) {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Reduces a range of chunks, splitting it in halves until one chunk is left.
+   */
+  private static final class ChunkTask<A> extends RecursiveAction {
+
+    private final int fromChunk;
+    private final int toChunk;
+    private final int rows;
+    private final Object[] partials;
+    private final Supplier<A> container;
+    private final ObjIntConsumer<A> accumulator;
+
+    private ChunkTask(int fromChunk, int toChunk, int rows, Object[] partials,
+        Supplier<A> container, ObjIntConsumer<A> accumulator) {
+      this.fromChunk = fromChunk;
+      this.toChunk = toChunk;
+      this.rows = rows;
+      this.partials = partials;
+      this.container = container;
+      this.accumulator = accumulator;
+    }
+
+    @Override
+    protected void compute() {
+      if (toChunk - fromChunk > 1 && inForkJoinPool()) {
+        final int middle = (fromChunk + toChunk) >>> 1;
+        invokeAll(new ChunkTask<>(fromChunk, middle, rows, partials, container, accumulator),
+            new ChunkTask<>(middle, toChunk, rows, partials, container, accumulator));
+        return;
+      }
+      for (int chunk = fromChunk; chunk < toChunk; chunk++) {
+        final A partial = container.get();
+        final int end = (int) Math.min(rows, (long) (chunk + 1) * CHUNK_ROWS);
+        for (int row = chunk * CHUNK_ROWS; row < end; row++) {
+          accumulator.accept(partial, row);
+        }
+        partials[chunk] = partial;
+      }
+    }
+  }
+
+  /**
+   * A growable list of row numbers, without boxing.
+   */
+  private static final class RowList {
+
+    private int[] rows = new int[16];
+    private int size;
+
+    private void add(int row) {
+      if (size == rows.length) {
+        rows = Arrays.copyOf(rows, size * 2);
+      }
+      rows[size++] = row;
+    }
+
+    private RowList append(RowList other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.rows[i]);
+      }
+      return this;
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(rows, size);
+    }
+  }
+}
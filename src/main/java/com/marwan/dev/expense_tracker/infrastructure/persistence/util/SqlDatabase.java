@@ -0,0 +1,308 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalExpenseRepository;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Embedded H2 database behind the {@code sql} storage engine.
+ * <p>
+ * The database is opened on first use, not at startup, so commands that never touch it stay fast.
+ * Opening it creates the schema if needed and, once per database, copies in the expenses and
+ * budgets of the whole-file store, replaying the journal engine's journal over its snapshot, so
+ * switching engines keeps the existing data and starts the ID sequence after the copied IDs.
+ * Connections come from a small pool, and the default URL lets a second process use the database
+ * while another one has it open.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "expense-tracker.storage.engine", havingValue = "sql")
+public class SqlDatabase {
+
+  private static final List<String> SCHEMA = List.of("""
+      CREATE TABLE IF NOT EXISTS expense (
+        id INT PRIMARY KEY,
+        created_at DATE,
+        created_month TINYINT GENERATED ALWAYS AS MONTH(created_at),
+        updated_at DATE,
+        description VARCHAR(1000),
+        amount DECIMAL(19, 2),
+        category VARCHAR(32))""",
+      "CREATE INDEX IF NOT EXISTS expense_created_at ON expense (created_at)",
+      "CREATE INDEX IF NOT EXISTS expense_category ON expense (category)",
+      "CREATE INDEX IF NOT EXISTS expense_month_category ON expense (created_month, category)",
+      "CREATE SEQUENCE IF NOT EXISTS expense_id START WITH 1", """
+      CREATE TABLE IF NOT EXISTS budget (
+        budget_year INT NOT NULL,
+        budget_month INT NOT NULL,
+        amount DECIMAL(19, 2),
+        PRIMARY KEY (budget_year, budget_month))""", """
+      CREATE TABLE IF NOT EXISTS migration (
+        source VARCHAR(255) PRIMARY KEY,
+        migrated_at TIMESTAMP NOT NULL)""");
+
+  /**
+   * Name the migration from the whole-file store is recorded under.
+   */
+  private static final String FILE_STORE = "files";
+
+  /**
+   * Name the conversion of floating-point amount columns to exact decimals is recorded under.
+   */
+  private static final String DECIMAL_AMOUNTS = "decimal-amounts";
+
+  private static final String INSERT_EXPENSE = """
+      INSERT INTO expense (id, created_at, updated_at, description, amount, category)
+      VALUES (?, ?, ?, ?, ?, ?)""";
+
+  private static final String MERGE_BUDGET = """
+      MERGE INTO budget (budget_year, budget_month, amount) KEY (budget_year, budget_month)
+      VALUES (?, ?, ?)""";
+
+  private final String url;
+  private final JsonFileHandlerI fileHandler;
+  private final StorageFormat storageFormat;
+  private final String budgetFilePath = String.format("%s/expense-tracker/config.json",
+      System.getProperty("user.home"));
+
+  private volatile JdbcConnectionPool pool;
+
+  /**
+   * Constructs a new SqlDatabase.
+   *
+   * @param url           the JDBC URL of the database file
+   * @param fileHandler   the plain file handler, used to read the whole-file store once
+   * @param storageFormat the format of the whole-file expense store
+   */
+  public SqlDatabase(
+      @Value("${expense-tracker.storage.sql.url:jdbc:h2:file:${user.home}/expense-tracker/expense-tracker;AUTO_SERVER=TRUE}") String url,
+      JsonFileHandlerI fileHandler, StorageFormat storageFormat) {
+    this.url = url;
+    this.fileHandler = fileHandler;
+    this.storageFormat = storageFormat;
+  }
+
+  /**
+   * Borrows a connection, opening the database first if needed. Closing it returns it to the pool.
+   *
+   * @return an open connection in auto-commit mode
+   */
+  public Connection connection() {
+    try {
+      return pool().getConnection();
+    } catch (SQLException e) {
+      throw new RuntimeException("Error connecting to database", e);
+    }
+  }
+
+  /**
+   * Inserts expenses with the IDs they carry, as one batch on the given connection, so the caller
+   * decides the transaction.
+   *
+   * @param connection the connection to insert with
+   * @param expenses   the expenses to insert
+   * @throws SQLException if an insert fails, e.g. on a duplicate ID
+   */
+  public static void insertExpenses(Connection connection, List<Expense> expenses)
+      throws SQLException {
+    try (PreparedStatement insert = connection.prepareStatement(INSERT_EXPENSE)) {
+      for (Expense expense : expenses) {
+        insert.setInt(1, expense.getId());
+        insert.setDate(2, date(expense.getCreatedAt()));
+        insert.setDate(3, date(expense.getUpdatedAt()));
+        insert.setString(4, expense.getDescription());
+        insert.setBigDecimal(5, expense.getAmount());
+        insert.setString(6, expense.getCategory() == null ? null : expense.getCategory().name());
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  /**
+   * Prepares a statement and binds its parameters in order.
+   *
+   * @param connection the connection to prepare on
+   * @param sql        the statement
+   * @param parameters the values of its {@code ?} placeholders
+   * @return the prepared statement, to be closed by the caller
+   * @throws SQLException if the statement is invalid
+   */
+  public static PreparedStatement prepare(Connection connection, String sql,
+      Object... parameters) throws SQLException {
+    final PreparedStatement statement = connection.prepareStatement(sql);
+    for (int i = 0; i < parameters.length; i++) {
+      statement.setObject(i + 1, parameters[i]);
+    }
+    return statement;
+  }
+
+  /**
+   * Utility: Convert a nullable date to its SQL form.
+   */
+  public static Date date(LocalDate date) {
+    return date == null ? null : Date.valueOf(date);
+  }
+
+  /**
+   * Closes every connection of the pool.
+   */
+  @PreDestroy
+  public synchronized void close() {
+    if (pool != null) {
+      pool.dispose();
+      pool = null;
+    }
+  }
+
+  private JdbcConnectionPool pool() throws SQLException {
+    JdbcConnectionPool opened = pool;
+    if (opened == null) {
+      synchronized (this) {
+        opened = pool;
+        if (opened == null) {
+          opened = JdbcConnectionPool.create(url, "sa", "");
+          try (Connection connection = opened.getConnection()) {
+            createSchema(connection);
+            convertAmountsToDecimal(connection);
+            migrateFromFiles(connection);
+          } catch (SQLException | RuntimeException e) {
+            opened.dispose();
+            throw e;
+          }
+          pool = opened;
+        }
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * Utility: Give rows that share an ID a new one after the highest, as a reload of the file does.
+   */
+  private static List<Expense> withUniqueIds(List<Expense> expenses) {
+    int maxId = expenses.stream().mapToInt(Expense::getId).max().orElse(0);
+    final Set<Integer> seen = new HashSet<>();
+    for (Expense expense : expenses) {
+      if (!seen.add(expense.getId())) {
+        expense.setId(++maxId);
+        seen.add(maxId);
+      }
+    }
+    return expenses;
+  }
+
+  private static void createSchema(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (String ddl : SCHEMA) {
+        statement.execute(ddl);
+      }
+    }
+  }
+
+  /**
+   * Utility: Copy the whole-file store into the database, once. The migration is recorded in the
+   * same transaction as the copied rows, so a failed copy is retried on the next open.
+   */
+  private void migrateFromFiles(Connection connection) throws SQLException {
+    if (migrated(connection, FILE_STORE)) {
+      return;
+    }
+    connection.setAutoCommit(false);
+    try {
+      final List<Expense> expenses = withUniqueIds(readFileStore());
+      insertExpenses(connection, expenses);
+      try (PreparedStatement merge = connection.prepareStatement(MERGE_BUDGET)) {
+        for (Budget budget : fileHandler.read(budgetFilePath, Budget.class)) {
+          merge.setInt(1, budget.getYear());
+          merge.setInt(2, budget.getMonth());
+          merge.setBigDecimal(3, budget.getAmount());
+          merge.addBatch();
+        }
+        merge.executeBatch();
+      }
+      recordMigration(connection, FILE_STORE);
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+    reseedIdSequence(connection);
+  }
+
+  /**
+   * Utility: Read the expenses of the whole-file store. A journal left by the journal engine holds
+   * every change since its last compaction, so it is replayed over the snapshot.
+   */
+  private List<Expense> readFileStore() {
+    final String journalPath = JournalExpenseRepository.journalPath();
+    if (fileHandler.stamp(journalPath).size() > 0) {
+      return JournalExpenseRepository.replay(fileHandler, storageFormat.expenseFilePath(),
+          journalPath);
+    }
+    return fileHandler.read(storageFormat.expenseFilePath(), Expense.class);
+  }
+
+  /**
+   * Utility: Restart the ID sequence after the highest migrated ID. This runs once, after the
+   * migration commits, because changing a sequence commits the open transaction. Should it not
+   * run, new IDs still skip the ones in use.
+   */
+  private static void reseedIdSequence(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM expense")) {
+      max.next();
+      statement.execute("ALTER SEQUENCE expense_id RESTART WITH " + (max.getLong(1) + 1));
+    }
+  }
+
+  /**
+   * Utility: Convert the amount columns of databases created with floating-point amounts to exact
+   * decimals, once. Stored values are rounded to the cent.
+   */
+  private static void convertAmountsToDecimal(Connection connection) throws SQLException {
+    if (migrated(connection, DECIMAL_AMOUNTS)) {
+      return;
+    }
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("ALTER TABLE expense ALTER COLUMN amount SET DATA TYPE DECIMAL(19, 2)");
+      statement.execute("ALTER TABLE budget ALTER COLUMN amount SET DATA TYPE DECIMAL(19, 2)");
+    }
+    recordMigration(connection, DECIMAL_AMOUNTS);
+  }
+
+  private static boolean migrated(Connection connection, String source) throws SQLException {
+    try (PreparedStatement migrated = connection.prepareStatement(
+        "SELECT 1 FROM migration WHERE source = ?")) {
+      migrated.setString(1, source);
+      try (ResultSet rows = migrated.executeQuery()) {
+        return rows.next();
+      }
+    }
+  }
+
+  private static void recordMigration(Connection connection, String source) throws SQLException {
+    try (PreparedStatement record = connection.prepareStatement(
+        "INSERT INTO migration (source, migrated_at) VALUES (?, CURRENT_TIMESTAMP)")) {
+      record.setString(1, source);
+      record.executeUpdate();
+    }
+  }
+}
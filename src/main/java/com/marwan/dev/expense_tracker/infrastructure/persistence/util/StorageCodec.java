@@ -0,0 +1,17 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Encodes lists of items to, and streams them back from, one on-disk {@link StorageFormat}.
+ */
+public interface StorageCodec {
+
+  <T> void write(OutputStream out, List<T> items) throws IOException;
+
+  <T> void readEach(InputStream in, Class<T> clazz, Consumer<? super T> action) throws IOException;
+}
@@ -0,0 +1,54 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * On-disk formats available for the expense data file, identified by the file extension.
+ */
+@Getter
+public enum StorageFormat {
+  JSON("json"), SMILE("smile"), CBOR("cbor"), BINARY("bin");
+
+  private final String extension;
+
+  StorageFormat(String extension) {
+    this.extension = extension;
+  }
+
+  /**
+   * Resolves a format by name or extension, ignoring case.
+   *
+   * @param format the format name, e.g. {@code smile} or {@code bin}
+   * @return the matching format
+   * @throws IllegalArgumentException if no format matches
+   */
+  public static StorageFormat from(String format) {
+    return Arrays.stream(values())
+        .filter(f -> f.name().equalsIgnoreCase(format) || f.extension.equalsIgnoreCase(format))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("unknown storage format: " + format));
+  }
+
+  /**
+   * Resolves the format of a file from its extension.
+   *
+   * @param filePath the file path
+   * @return the matching format, {@link #JSON} for unknown extensions
+   */
+  public static StorageFormat fromPath(String filePath) {
+    final String extension = filePath.substring(filePath.lastIndexOf('.') + 1);
+    return Arrays.stream(values()).filter(f -> f.extension.equalsIgnoreCase(extension)).findFirst()
+        .orElse(JSON);
+  }
+
+  /**
+   * Returns the path of the expense data file stored in this format.
+   *
+   * @return the expense file path in the user's home directory
+   */
+  public String expenseFilePath() {
+    return String.format("%s/expense-tracker/expense.%s", System.getProperty("user.home"),
+        extension);
+  }
+}
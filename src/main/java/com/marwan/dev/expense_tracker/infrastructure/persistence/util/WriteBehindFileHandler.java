@@ -0,0 +1,231 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * File handler that stages mutations in memory and flushes them to the wrapped handler in batches,
+ * so a burst of writes to the same file costs a single rewrite.
+ * <p>
+ * A batch is flushed once its window elapses after the first staged mutation, or as soon as it
+ * holds the configured number of mutations. Within a batch, whole-file writes and deletes replace
+ * whatever was staged for that file before, appends are concatenated, and files are flushed in the
+ * order they were last touched, so a journal dropped after its snapshot was rewritten is still
+ * dropped after it. Callers wait on {@link #flushed()} to learn when their mutations reached the
+ * wrapped handler, which with the default durability means they are on disk.
+ * </p>
+ * <p>
+ * Reads, stamps and locks go straight to the wrapped handler, so they see the files as of the last
+ * flush. Callers that keep their own model of the data, like the in-memory expense repositories,
+ * are unaffected, but another process writing the same files at the same time may lose updates.
+ * </p>
+ */
+public final class WriteBehindFileHandler implements JsonFileHandlerI, AutoCloseable {
+
+  private final JsonFileHandlerI delegate;
+  private final Duration window;
+  private final int maxBatch;
+  private final ScheduledExecutorService flusher;
+
+  /**
+   * Serializes flushes, so batches reach the wrapped handler in the order they were staged.
+   */
+  private final Object flushGuard = new Object();
+
+  private Batch pending = new Batch();
+  private volatile CompletableFuture<Void> lastStaged = CompletableFuture.completedFuture(null);
+
+  /**
+   * Constructs a new WriteBehindFileHandler.
+   *
+   * @param delegate the handler the batches are flushed to
+   * @param window   how long a batch collects mutations after the first one
+   * @param maxBatch the number of mutations that flushes a batch early
+   */
+  public WriteBehindFileHandler(JsonFileHandlerI delegate, Duration window, int maxBatch) {
+    this.delegate = delegate;
+    this.window = window;
+    this.maxBatch = Math.max(1, maxBatch);
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "write-behind");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public <T> List<T> read(String filePath, Class<T> clazz) {
+    return delegate.read(filePath, clazz);
+  }
+
+  @Override
+  public <T> void write(String filePath, List<T> data) {
+    final List<Object> content = new ArrayList<>(data);
+    stage(filePath, file -> file.replace(content));
+  }
+
+  @Override
+  public <T> void readEach(String filePath, Class<T> clazz, Consumer<? super T> action) {
+    delegate.readEach(filePath, clazz, action);
+  }
+
+  @Override
+  public <T> void readLines(String filePath, Class<T> clazz, Consumer<? super T> action) {
+    delegate.readLines(filePath, clazz, action);
+  }
+
+  @Override
+  public <T> void append(String filePath, T item) {
+    stage(filePath, file -> file.appended.add(item));
+  }
+
+  @Override
+  public <T> void appendAll(String filePath, List<T> items) {
+    stage(filePath, file -> file.appended.addAll(items));
+  }
+
+  @Override
+  public void delete(String filePath) {
+    stage(filePath, file -> file.replace(null));
+  }
+
+  @Override
+  public FileStamp stamp(String filePath) {
+    return delegate.stamp(filePath);
+  }
+
+  @Override
+  public InterProcessLock.Hold lockShared(String filePath) {
+    return delegate.lockShared(filePath);
+  }
+
+  @Override
+  public InterProcessLock.Hold lockExclusive(String filePath) {
+    return delegate.lockExclusive(filePath);
+  }
+
+  /**
+   * Returns a future that completes once every mutation staged so far has been flushed, or
+   * completes exceptionally if the batch holding the latest one failed.
+   *
+   * @return the future of the most recently staged batch
+   */
+  @Override
+  public CompletableFuture<Void> flushed() {
+    return lastStaged;
+  }
+
+  /**
+   * Flushes the pending batch now, on the calling thread.
+   */
+  public void flush() {
+    synchronized (flushGuard) {
+      final Batch batch;
+      synchronized (this) {
+        if (pending.mutations == 0) {
+          return;
+        }
+        batch = pending;
+        pending = new Batch();
+      }
+      try {
+        batch.files.forEach(this::apply);
+        batch.done.complete(null);
+      } catch (RuntimeException e) {
+        batch.done.completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * Flushes the pending batch and stops the background flusher.
+   */
+  @Override
+  public void close() {
+    flusher.shutdown();
+    flush();
+  }
+
+  /**
+   * Utility: Record a mutation in the pending batch, and schedule its flush when it is the first
+   * one or fills the batch. Once closed, mutations are flushed right away.
+   */
+  private void stage(String filePath, Consumer<PendingFile> mutation) {
+    final int mutations;
+    synchronized (this) {
+      PendingFile file = pending.files.remove(filePath);
+      if (file == null) {
+        file = new PendingFile();
+      }
+      mutation.accept(file);
+      pending.files.put(filePath, file);
+      mutations = ++pending.mutations;
+      lastStaged = pending.done;
+    }
+    if (flusher.isShutdown()) {
+      flush();
+    } else if (mutations == maxBatch) {
+      flusher.execute(this::flush);
+    } else if (mutations == 1) {
+      flusher.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Utility: Apply the staged mutations of one file under its exclusive lock, so other processes
+   * never see a rewrite without the appends that followed it.
+   */
+  private void apply(String filePath, PendingFile file) {
+    try (var hold = delegate.lockExclusive(filePath)) {
+      if (file.replaced) {
+        if (file.content == null) {
+          delegate.delete(filePath);
+        } else {
+          delegate.write(filePath, file.content);
+        }
+      }
+      if (!file.appended.isEmpty()) {
+        delegate.appendAll(filePath, file.appended);
+      }
+    }
+  }
+
+  /**
+   * Mutations staged for one file: an optional rewrite or delete, followed by appends.
+   */
+  private static final class PendingFile {
+
+    private final List<Object> appended = new ArrayList<>();
+    private boolean replaced;
+    private List<Object> content;
+
+    /**
+     * Replaces the file's content, dropping everything staged before.
+     *
+     * @param content the new content, or null to delete the file
+     */
+    private void replace(List<Object> content) {
+      this.replaced = true;
+      this.content = content;
+      appended.clear();
+    }
+  }
+
+  /**
+   * Mutations collected between two flushes, and the future their callers wait on.
+   */
+  private static final class Batch {
+
+    private final Map<String, PendingFile> files = new LinkedHashMap<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private int mutations;
+  }
+}
@@ -0,0 +1,53 @@
+package com.marwan.dev.expense_tracker.shared;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between amounts and the whole cents they are stored and summed in.
+ * <p>
+ * Amounts live as {@code long} cents everywhere inside the application, so totals are exact and
+ * summing allocates nothing; {@link BigDecimal} is only used where amounts enter or leave, such as
+ * JSON, CSV and the command line. Amounts with more than two decimals are rounded half-up to the
+ * cent, as they were when displayed.
+ * </p>
+ */
+public final class Money {
+
+  private static final int SCALE = 2;
+
+  private Money() {
+  }
+
+  /**
+   * Converts an amount to cents.
+   *
+   * @param amount the amount, or null for none
+   * @return the amount in cents, zero for a null amount
+   */
+  public static long toCents(BigDecimal amount) {
+    return amount == null ? 0
+        : amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  /**
+   * Converts an amount to cents, reading the double as its shortest decimal form, so e.g.
+   * {@code 500.3} is exactly 50030 cents.
+   *
+   * @param amount the amount
+   * @return the amount in cents
+   */
+  public static long toCents(double amount) {
+    return toCents(BigDecimal.valueOf(amount));
+  }
+
+  /**
+   * Converts cents to an amount with two decimals.
+   *
+   * @param cents the amount in cents
+   * @return the amount
+   */
+  public static BigDecimal toAmount(long cents) {
+    return BigDecimal.valueOf(cents, SCALE);
+  }
+}
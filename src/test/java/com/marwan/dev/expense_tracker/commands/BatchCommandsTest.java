@@ -0,0 +1,120 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchCommandsTest {
+
+  @TempDir
+  Path dir;
+
+  private ExpensesCommands expensesCommands;
+  private BudgetCommands budgetCommands;
+  private BatchCommands batchCommands;
+
+  @BeforeEach
+  protected void setUp() {
+    expensesCommands = mock(ExpensesCommands.class);
+    budgetCommands = mock(BudgetCommands.class);
+    batchCommands = new BatchCommands(expensesCommands, budgetCommands);
+  }
+
+  @Test
+  void reads_see_every_earlier_write_and_no_later_one() throws IOException {
+    // gavin
+    final AtomicInteger added = new AtomicInteger();
+    when(expensesCommands.addExpense(anyString(), any(BigDecimal.class), anyString())).thenAnswer(
+        invocation -> {
+          Thread.sleep(2);
+          return "added " + added.incrementAndGet();
+        });
+    when(expensesCommands.summaryExpenses(any(), any(), any(), any())).thenAnswer(
+        invocation -> "total " + added.get());
+    final String script = script(
+        "summary",
+        "add -d coffee -a 3.5 -c FOOD",
+        "summary", "summary --category FOOD", "summary -m 4",
+        "# a comment, then a blank line",
+        "",
+        "add --description 'two words' --amount 2 --category OTHER",
+        "summary");
+
+    // when
+    final String report = batchCommands.batch(script, false, false, 64);
+
+    // then
+    assertTrue(report.startsWith("""
+        1> total 0
+        2> added 1
+        3> total 1
+        4> total 1
+        5> total 1
+        8> added 2
+        9> total 2
+        Ran 7 commands (5 reads, 2 writes) in"""), report);
+    verify(expensesCommands).addExpense("two words", new BigDecimal("2"), "OTHER");
+    verify(expensesCommands).summaryExpenses(4, null, null, null);
+  }
+
+  @Test
+  void reads_between_writes_run_concurrently() throws IOException {
+    // gavin
+    final CountDownLatch allStarted = new CountDownLatch(3);
+    when(budgetCommands.getBudget(any(), any())).thenAnswer(invocation -> {
+      allStarted.countDown();
+      // only returns in time when the three reads run at once
+      return allStarted.await(10, TimeUnit.SECONDS) ? "budget" : "timed out";
+    });
+    final String script = script("get-budget -m 1", "get-budget -m 2 -y 2025", "get-budget");
+
+    // when
+    final String report = batchCommands.batch(script, false, false, 64);
+
+    // then
+    assertTrue(report.startsWith("1> budget\n2> budget\n3> budget\n"), report);
+    verify(budgetCommands).getBudget(2, 2025);
+  }
+
+  @Test
+  void bad_lines_are_reported_without_stopping_the_script() throws IOException {
+    // gavin
+    when(expensesCommands.deleteExpense(7)).thenReturn("Expense deleted successfully");
+    final String script = script("list", "add -d coffee -a 3", "delete --id 7",
+        "summary --bogus 1", "add -d 'unterminated");
+
+    // when
+    final String report = batchCommands.batch(script, true, true, 64);
+
+    // then
+    final List<String> lines = report.lines().toList();
+    assertEquals(List.of(
+        "1> Failed: unknown command list, expected one of [add, delete, get-budget, summary]",
+        "2> Failed: missing --category",
+        "4> Failed: unknown option --bogus",
+        "5> Failed: unterminated quote"), lines.subList(0, 4));
+    assertTrue(lines.get(4).startsWith("Ran 5 commands (0 reads, 2 writes) in"), report);
+    assertTrue(lines.get(4).endsWith("one after another, 4 failed."), report);
+    verify(expensesCommands).deleteExpense(7);
+  }
+
+  private String script(String... lines) throws IOException {
+    return Files.write(dir.resolve("script.txt"), List.of(lines)).toString();
+  }
+}
@@ -0,0 +1,36 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import java.time.LocalDate;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ExpenseRowFormatterTest {
+
+  @Test
+  void rows_match_expense_to_string() {
+    // gavin
+    final var random = new Random(11);
+    final var categories = Category.values();
+
+    for (int i = 0; i < 5_000; i++) {
+      final int id = random.nextInt(i % 3 == 0 ? 10 : 1_000_000);
+      final String description = "d".repeat(random.nextInt(30) + 1);
+      final double amount = random.nextInt(3) == 0 ? random.nextInt(1_000) + 0.005
+          : random.nextDouble() * Math.pow(10, random.nextInt(9));
+      final Expense expense = new Expense(id,
+          LocalDate.of(2000, 1, 1).plusDays(random.nextInt(20_000)), null, description, amount,
+          categories[random.nextInt(categories.length)]);
+
+      // when
+      final var row = new StringBuilder();
+      ExpenseRowFormatter.appendRow(row, expense);
+
+      // then
+      assertEquals(expense + System.lineSeparator(), row.toString());
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.marwan.dev.expense_tracker.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.MonthlyReport;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MonthlyReportFormatterTest {
+
+  @Test
+  void only_categories_with_spending_get_a_column() {
+    // gavin
+    final long[] march = new long[Category.values().length];
+    march[Category.FOOD.ordinal()] = 1250;
+    march[Category.ELECTRICITY_BILL.ordinal()] = 3000;
+    final List<MonthlyReport> report = List.of(
+        new MonthlyReport(new MonthlySpending(2025, 3, march), 4000L),
+        new MonthlyReport(new MonthlySpending(2025, 4, new long[march.length]), null));
+
+    // when
+    final String table = MonthlyReportFormatter.format(report);
+
+    // then
+    final String nl = System.lineSeparator();
+    assertEquals(
+        "Month         FOOD ELECTRICITY_BILL      Spent     Budget   Variance" + nl
+            + "2025-03      12.50            30.00      42.50      40.00      -2.50" + nl
+            + "2025-04       0.00             0.00       0.00          -          -" + nl,
+        table);
+  }
+}
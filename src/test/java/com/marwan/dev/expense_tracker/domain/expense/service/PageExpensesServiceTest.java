@@ -0,0 +1,106 @@
+package com.marwan.dev.expense_tracker.domain.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.ExpensePage;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.PageArgsForList;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PageExpensesServiceTest {
+
+  private ExpenseRepositoryI mockRepository;
+  private PageExpensesService service;
+
+  @BeforeEach
+  protected void setUp() {
+    mockRepository = mock(ExpenseRepositoryI.class);
+    service = new PageExpensesService(mockRepository);
+  }
+
+  @Test
+  void page_number_is_turned_into_an_offset_with_one_extra_row() {
+    // gavin
+    final List<Expense> rows = List.of(
+        new Expense(41, LocalDate.of(2025, 1, 5), null, "lunch", 10.0, Category.FOOD),
+        new Expense(42, LocalDate.of(2025, 1, 6), null, "taxi", 20.0, Category.OTHER),
+        new Expense(43, LocalDate.of(2025, 1, 7), null, "rent", 30.0, Category.DEBTS));
+    when(mockRepository.findPage(null, null, 0, 40, 3)).thenReturn(rows);
+
+    // when
+    final ExpensePage page = service.execute(
+        new PageArgsForList(null, null, null, null, 21, 2, null));
+
+    // then
+    assertEquals(rows.subList(0, 2), page.expenses());
+    assertEquals(42, page.nextAfterId());
+    assertEquals(22, page.nextPage());
+  }
+
+  @Test
+  void limit_above_the_maximum_is_rejected() {
+    // gavin
+    final var input = new PageArgsForList(null, null, null, null, 1, Integer.MAX_VALUE, null);
+
+    // when
+    final var error = assertThrows(IllegalArgumentException.class, () -> service.execute(input));
+
+    // then
+    assertEquals("limit must be at most " + PageExpensesService.MAX_LIMIT, error.getMessage());
+    verifyNoInteractions(mockRepository);
+  }
+
+  @Test
+  void page_whose_offset_overflows_is_rejected() {
+    // gavin
+    final var byNumber = new PageArgsForList(null, null, null, null, 3_000_000,
+        PageExpensesService.MAX_LIMIT, null);
+    final var byDate = new PageArgsForList(null, null, LocalDate.of(2025, 1, 1), null, 3_000_000,
+        PageExpensesService.MAX_LIMIT, null);
+
+    // when
+    final var pageError = assertThrows(IllegalArgumentException.class,
+        () -> service.execute(byNumber));
+    final var rangeError = assertThrows(IllegalArgumentException.class,
+        () -> service.execute(byDate));
+
+    // then
+    assertEquals("page 3000000 is too large", pageError.getMessage());
+    assertEquals("page 3000000 is too large", rangeError.getMessage());
+    verifyNoInteractions(mockRepository);
+  }
+
+  @Test
+  void last_page_of_a_date_range_has_no_next_page() {
+    // gavin
+    final LocalDate from = LocalDate.of(2025, 1, 1);
+    when(mockRepository.findPageBetween(any(), any(), any(), any(), anyInt(), anyInt()))
+        .thenReturn(List.of());
+
+    // when
+    final ExpensePage page = service.execute(
+        new PageArgsForList(null, null, from, null, 2, PageExpensesService.MAX_LIMIT, null));
+
+    // then
+    verify(mockRepository).findPageBetween(from, null, null, null, PageExpensesService.MAX_LIMIT,
+        PageExpensesService.MAX_LIMIT + 1);
+    assertEquals(List.of(), page.expenses());
+    assertNull(page.nextPage());
+  }
+}
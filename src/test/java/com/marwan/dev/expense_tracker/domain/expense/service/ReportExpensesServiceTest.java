@@ -0,0 +1,82 @@
+package com.marwan.dev.expense_tracker.domain.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.budget.repository.BudgetRepositoryI;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.MonthlyReport;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReportExpensesServiceTest {
+
+  private ExpenseRepositoryI mockExpenseRepository;
+  private BudgetRepositoryI mockBudgetRepository;
+  private ReportExpensesService service;
+
+  @BeforeEach
+  protected void setUp() {
+    mockExpenseRepository = mock(ExpenseRepositoryI.class);
+    mockBudgetRepository = mock(BudgetRepositoryI.class);
+    service = new ReportExpensesService(mockExpenseRepository, mockBudgetRepository);
+  }
+
+  @Test
+  void months_are_joined_with_their_budgets() {
+    // gavin
+    when(mockExpenseRepository.spendingByMonth(null)).thenReturn(List.of(
+        spending(2024, 12, Category.FOOD, 40.0),
+        spending(2025, 1, Category.FOOD, 150.0),
+        spending(2025, 3, Category.DEBTS, 20.0)));
+    when(mockBudgetRepository.findByYear(2024)).thenReturn(List.of());
+    when(mockBudgetRepository.findByYear(2025)).thenReturn(List.of(
+        new Budget(100.0, 1, 2025), new Budget(50.0, 2, 2025), new Budget(80.0, 3, 2025)));
+
+    // when
+    final List<MonthlyReport> report = service.execute(null);
+
+    // then
+    assertEquals(List.of("2024-12", "2025-1", "2025-2", "2025-3"), report.stream()
+        .map(row -> row.spending().year() + "-" + row.spending().month()).toList());
+    assertNull(report.get(0).variance());
+    assertEquals(-5000L, report.get(1).variance());
+    assertEquals(0L, report.get(2).spent());
+    assertEquals(5000L, report.get(2).variance());
+    assertEquals(6000L, report.get(3).variance());
+    verify(mockBudgetRepository, times(1)).findByYear(2025);
+  }
+
+  @Test
+  void a_year_without_expenses_still_reports_its_budgets() {
+    // gavin
+    when(mockExpenseRepository.spendingByMonth(2026)).thenReturn(List.of());
+    when(mockBudgetRepository.findByYear(2026)).thenReturn(List.of(new Budget(70.0, 5, 2026)));
+
+    // when
+    final List<MonthlyReport> report = service.execute(2026);
+
+    // then
+    assertEquals(1, report.size());
+    assertEquals(5, report.get(0).spending().month());
+    assertEquals(7000L, report.get(0).variance());
+  }
+
+  private static MonthlySpending spending(int year, int month, Category category, double amount) {
+    final long[] byCategory = new long[Category.values().length];
+    byCategory[category.ordinal()] = Money.toCents(amount);
+    return new MonthlySpending(year, month, byCategory);
+  }
+}
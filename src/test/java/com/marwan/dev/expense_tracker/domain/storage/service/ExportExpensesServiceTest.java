@@ -0,0 +1,162 @@
+package com.marwan.dev.expense_tracker.domain.storage.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ExportExpensesRequest;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ImportExpensesRequest;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalExpenseRepository;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportExpensesServiceTest {
+
+  private static final String NL = System.lineSeparator();
+
+  private final List<Expense> expenses = List.of(
+      new Expense(1, LocalDate.of(2025, 5, 31), null, "lunch, with tea", 12.5, Category.FOOD),
+      new Expense(2, LocalDate.of(2025, 6, 1), null, "taxi", 30.0, Category.OTHER),
+      new Expense(3, LocalDate.of(2025, 6, 20), null, "rent", 12_000_000.0, Category.DEBTS));
+
+  @TempDir
+  Path dir;
+
+  private ExpenseRepositoryI mockRepository;
+  private ObjectMapper mapper;
+  private ExportExpensesService service;
+
+  @BeforeEach
+  protected void setUp() {
+    mockRepository = mock(ExpenseRepositoryI.class);
+    mapper = new ObjectMapper();
+    mapper.registerModule(new JavaTimeModule());
+    service = new ExportExpensesService(mockRepository, mapper);
+    lenient().doAnswer(invocation -> {
+      final Consumer<Expense> action = invocation.getArgument(0);
+      expenses.forEach(action);
+      return null;
+    }).when(mockRepository).forEach(any());
+  }
+
+  @Test
+  void csv_export_escapes_fields_and_writes_plain_amounts() {
+    // gavin
+    final var out = new StringWriter();
+
+    // when
+    final int exported = service.execute(
+        new ExportExpensesRequest(out, "csv", null, null, null, null));
+
+    // then
+    assertEquals(3, exported);
+    assertEquals("id,date,category,description,amount" + NL
+        + "1,2025-05-31,FOOD,\"lunch, with tea\",12.50" + NL
+        + "2,2025-06-01,OTHER,taxi,30.00" + NL
+        + "3,2025-06-20,DEBTS,rent,12000000.00" + NL, out.toString());
+  }
+
+  @Test
+  void jsonl_export_applies_date_range_and_category() {
+    // gavin
+    final var out = new StringWriter();
+
+    // when
+    final int exported = service.execute(new ExportExpensesRequest(out, "jsonl", null, "other",
+        LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)));
+
+    // then
+    assertEquals(1, exported);
+    assertEquals("{\"id\":2,\"date\":\"2025-06-01\",\"category\":\"OTHER\",\"description\":"
+        + "\"taxi\",\"amount\":30.00}" + NL, out.toString());
+  }
+
+  @Test
+  void exported_csv_imports_back_to_the_same_expenses() throws IOException {
+    // gavin
+    final Path file = dir.resolve("export.csv");
+    final ExpenseRepositoryI importRepository = mock(ExpenseRepositoryI.class);
+
+    // when
+    try (var out = Files.newBufferedWriter(file)) {
+      service.execute(new ExportExpensesRequest(out, "csv", 6, null, null, null));
+    }
+    new ImportExpensesService(importRepository, mapper).execute(
+        new ImportExpensesRequest(file.toString(), null));
+
+    // then
+    @SuppressWarnings("unchecked") final ArgumentCaptor<List<Expense>> captor =
+        ArgumentCaptor.forClass(List.class);
+    verify(importRepository).saveAll(captor.capture());
+    assertEquals(List.of(
+        new Expense(0, LocalDate.of(2025, 6, 1), null, "taxi", 30.0, Category.OTHER),
+        new Expense(0, LocalDate.of(2025, 6, 20), null, "rent", 12_000_000.0, Category.DEBTS)),
+        captor.getValue());
+  }
+
+  @ParameterizedTest
+  @CsvSource({"csv, json", "csv, journal", "jsonl, json", "jsonl, journal"})
+  void expense_without_category_imports_back(String format, String engine) throws IOException {
+    // gavin
+    final Path file = dir.resolve("export." + format);
+    final Expense uncategorized = new Expense(4, LocalDate.of(2025, 6, 5), null, "gift", 7.0,
+        null);
+    doAnswer(invocation -> {
+      final Consumer<Expense> action = invocation.getArgument(0);
+      action.accept(expenses.get(1));
+      action.accept(uncategorized);
+      return null;
+    }).when(mockRepository).forEach(any());
+    final JsonFileHandlerI mockHandler = mock(JsonFileHandler.class);
+    lenient().when(mockHandler.stamp(any())).thenReturn(new FileStamp(0, 0));
+    final ExpenseRepositoryI importRepository = engine.equals("journal")
+        ? new JournalExpenseRepository(new ReentrantReadWriteLock(), mockHandler,
+        StorageFormat.JSON, 1024)
+        : new ExpenseRepository(new ReentrantReadWriteLock(), mockHandler);
+
+    // when
+    try (var out = Files.newBufferedWriter(file)) {
+      service.execute(new ExportExpensesRequest(out, format, null, null, null, null));
+    }
+    final var result = new ImportExpensesService(importRepository, mapper).execute(
+        new ImportExpensesRequest(file.toString(), null));
+
+    // then
+    assertEquals(0, result.rejected());
+    assertEquals(List.of(
+            new Expense(1, LocalDate.of(2025, 6, 1), null, "taxi", 30.0, Category.OTHER),
+            new Expense(2, LocalDate.of(2025, 6, 5), null, "gift", 7.0, null)),
+        importRepository.findAll());
+    assertEquals(3700, importRepository.summeryByMonth(6));
+    assertEquals(3000, importRepository.summeryByCategory(Category.OTHER));
+  }
+}
@@ -0,0 +1,199 @@
+package com.marwan.dev.expense_tracker.domain.storage.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ExportExpensesRequest;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.ImportExpensesRequest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ImportExpensesServiceTest {
+
+  @TempDir
+  Path dir;
+
+  private ExpenseRepositoryI mockRepository;
+  private ObjectMapper mapper;
+  private ImportExpensesService service;
+
+  @BeforeEach
+  protected void setUp() {
+    mockRepository = mock(ExpenseRepositoryI.class);
+    mapper = new ObjectMapper();
+    mapper.registerModule(new JavaTimeModule());
+    service = new ImportExpensesService(mockRepository, mapper);
+  }
+
+  @Test
+  void csv_rows_are_validated_and_saved_in_one_batch() throws IOException {
+    // gavin
+    final Path file = write("expenses.csv", """
+        id,date,category,description,amount
+        7,2025-06-15,FOOD,"lunch, with tea",12.5
+        8,2025-06-16,unknown,taxi,30
+        9,2025-06-17,OTHER,books,-4
+        10,2025-06-18,other,"say ""hi""\",4
+        """);
+
+    // when
+    final var result = service.execute(new ImportExpensesRequest(file.toString(), null));
+
+    // then
+    assertEquals(2, result.imported());
+    assertEquals(2, result.rejected());
+    assertTrue(result.errors().get(0).startsWith("line 3: unknown category"));
+    assertTrue(result.errors().get(1).startsWith("line 4: amount must be positive"));
+    assertEquals(List.of(
+        new Expense(0, LocalDate.of(2025, 6, 15), null, "lunch, with tea", 12.5, Category.FOOD),
+        new Expense(0, LocalDate.of(2025, 6, 18), null, "say \"hi\"", 4.0, Category.OTHER)),
+        savedBatch());
+  }
+
+  @Test
+  void json_lines_accept_date_strings_and_arrays() throws IOException {
+    // gavin
+    final Path file = write("expenses.jsonl", """
+        {"description":"rent","amount":900,"category":"DEBTS","date":"2025-01-01"}
+        {"description":"water","amount":15.2,"category":"WATER_BILL","createdAt":[2025,2,3]}
+        {"description":"broken",
+        """);
+
+    // when
+    final var result = service.execute(new ImportExpensesRequest(file.toString(), null));
+
+    // then
+    assertEquals(2, result.imported());
+    assertEquals(List.of("line 3: malformed JSON"), result.errors());
+    assertEquals(LocalDate.of(2025, 2, 3), savedBatch().get(1).getCreatedAt());
+  }
+
+  @Test
+  void multi_line_descriptions_survive_an_export_and_import() throws IOException {
+    // gavin
+    final Path file = dir.resolve("export.csv");
+    final ExpenseRepositoryI exportRepository = mock(ExpenseRepositoryI.class);
+    final List<Expense> expenses = List.of(
+        new Expense(1, LocalDate.of(2025, 6, 1), null, "first line\nsecond, \"quoted\"", 3.0,
+            Category.FOOD),
+        new Expense(2, LocalDate.of(2025, 6, 2), null, "windows\r\nbreak\rand cr", 4.0,
+            Category.OTHER),
+        new Expense(3, LocalDate.of(2025, 6, 3), null, "plain", 5.0, Category.OTHER));
+    doAnswer(invocation -> {
+      final Consumer<Expense> action = invocation.getArgument(0);
+      expenses.forEach(action);
+      return null;
+    }).when(exportRepository).forEach(any());
+    try (var out = Files.newBufferedWriter(file)) {
+      new ExportExpensesService(exportRepository, mapper).execute(
+          new ExportExpensesRequest(out, "csv", null, null, null, null));
+    }
+
+    // when
+    final var result = service.execute(new ImportExpensesRequest(file.toString(), null));
+
+    // then
+    assertEquals(0, result.rejected());
+    assertEquals(expenses.stream().map(Expense::getDescription).toList(),
+        savedBatch().stream().map(Expense::getDescription).toList());
+  }
+
+  @Test
+  void rows_after_a_multi_line_field_report_their_own_line() throws IOException {
+    // gavin
+    final Path file = write("expenses.csv", """
+        description,amount,category
+        "two
+        lines",10,FOOD
+        taxi,-1,OTHER
+        """);
+
+    // when
+    final var result = service.execute(new ImportExpensesRequest(file.toString(), null));
+
+    // then
+    assertEquals(1, result.imported());
+    assertTrue(result.errors().get(0).startsWith("line 4: amount must be positive"));
+    assertEquals("two\nlines", savedBatch().get(0).getDescription());
+  }
+
+  @Test
+  void quote_inside_an_unquoted_field_does_not_swallow_later_rows() throws IOException {
+    // gavin
+    final Path file = write("expenses.csv", """
+        description,amount,category
+        5" tv,10,FOOD
+        taxi,-1,OTHER
+        "say ""hi""\",5,FOOD
+        """);
+
+    // when
+    final var result = service.execute(new ImportExpensesRequest(file.toString(), null));
+
+    // then
+    assertEquals(2, result.imported());
+    assertEquals(1, result.rejected());
+    assertTrue(result.errors().get(0).startsWith("line 3: amount must be positive"));
+    assertEquals(List.of("5\" tv", "say \"hi\""),
+        savedBatch().stream().map(Expense::getDescription).toList());
+  }
+
+  @Test
+  void nothing_is_saved_when_every_row_is_rejected() throws IOException {
+    // gavin
+    final Path file = write("expenses.csv", """
+        description,amount,category
+        ,10,FOOD
+        """);
+
+    // when
+    final var result = service.execute(new ImportExpensesRequest(file.toString(), "csv"));
+
+    // then
+    assertEquals(1, result.rejected());
+    verify(mockRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void csv_without_required_column_fails() throws IOException {
+    // gavin
+    final Path file = write("expenses.csv", "description,category\nlunch,FOOD\n");
+
+    // then
+    assertThrows(IllegalArgumentException.class,
+        () -> service.execute(new ImportExpensesRequest(file.toString(), null)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Expense> savedBatch() {
+    final ArgumentCaptor<List<Expense>> captor = ArgumentCaptor.forClass(List.class);
+    verify(mockRepository).saveAll(captor.capture());
+    return captor.getValue();
+  }
+
+  private Path write(String name, String content) throws IOException {
+    return Files.writeString(dir.resolve(name), content);
+  }
+}
@@ -0,0 +1,100 @@
+package com.marwan.dev.expense_tracker.domain.storage.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.MigrateStorageRequest;
+import com.marwan.dev.expense_tracker.domain.storage.model.dto.MigrateStorageResponse;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalEntry;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MigrateStorageServiceTest {
+
+  private final Expense lunch = new Expense(1, LocalDate.of(2025, 1, 5), null, "lunch", 10.0,
+      Category.FOOD);
+  private final Expense taxi = new Expense(2, LocalDate.of(2025, 1, 6), null, "taxi", 20.0,
+      Category.OTHER);
+  private final Expense rent = new Expense(3, LocalDate.of(2025, 2, 1), null, "rent", 30.0,
+      Category.DEBTS);
+
+  private JsonFileHandlerI mockHandler;
+  private MigrateStorageService service;
+
+  @BeforeEach
+  protected void setUp() {
+    mockHandler = mock(JsonFileHandlerI.class);
+    when(mockHandler.stamp(any())).thenReturn(new FileStamp(0, 0));
+    service = new MigrateStorageService(mockHandler, new ReentrantReadWriteLock(),
+        StorageFormat.JSON);
+  }
+
+  @Test
+  void journal_is_replayed_over_the_configured_source() {
+    // gavin
+    when(mockHandler.stamp(endsWith("expense.journal"))).thenReturn(new FileStamp(1, 64));
+    doAnswer(invocation -> {
+      final Consumer<Expense> action = invocation.getArgument(2);
+      List.of(lunch, taxi).forEach(action);
+      return null;
+    }).when(mockHandler).readEach(any(), eq(Expense.class), any());
+    doAnswer(invocation -> {
+      final Consumer<JournalEntry> action = invocation.getArgument(2);
+      List.of(JournalEntry.delete(1), JournalEntry.put(rent)).forEach(action);
+      return null;
+    }).when(mockHandler).readLines(any(), eq(JournalEntry.class), any());
+
+    // when
+    final MigrateStorageResponse response = service.execute(
+        new MigrateStorageRequest("json", "bin"));
+
+    // then
+    @SuppressWarnings("unchecked") final ArgumentCaptor<List<Expense>> written =
+        ArgumentCaptor.forClass(List.class);
+    final InOrder order = inOrder(mockHandler);
+    order.verify(mockHandler).lockShared(StorageFormat.JSON.expenseFilePath());
+    order.verify(mockHandler).write(eq(StorageFormat.BINARY.expenseFilePath()), written.capture());
+    assertEquals(List.of(2, 3), written.getValue().stream().map(Expense::getId).toList());
+    assertEquals(2, response.expenses());
+  }
+
+  @Test
+  void journal_is_ignored_for_a_source_other_than_the_configured_one() {
+    // gavin
+    lenient().when(mockHandler.stamp(endsWith("expense.journal")))
+        .thenReturn(new FileStamp(1, 64));
+    when(mockHandler.read(StorageFormat.BINARY.expenseFilePath(), Expense.class))
+        .thenReturn(List.of(lunch));
+
+    // when
+    service.execute(new MigrateStorageRequest("bin", "json"));
+
+    // then
+    verify(mockHandler).lockShared(StorageFormat.BINARY.expenseFilePath());
+    verify(mockHandler, never()).readLines(any(), any(), any());
+    verify(mockHandler).write(StorageFormat.JSON.expenseFilePath(), List.of(lunch));
+  }
+}
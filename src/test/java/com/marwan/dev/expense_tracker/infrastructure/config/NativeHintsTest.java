@@ -0,0 +1,70 @@
+package com.marwan.dev.expense_tracker.infrastructure.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.marwan.dev.expense_tracker.commands.ExpensesCommands;
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalEntry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+/**
+ * Checks on the JVM that the native image keeps what Jackson and Spring Shell look up
+ * reflectively.
+ */
+class NativeHintsTest {
+
+  private RuntimeHints hints;
+
+  @BeforeEach
+  protected void setUp() {
+    hints = new RuntimeHints();
+    new NativeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void json_creators_and_accessors_are_registered() throws NoSuchMethodException {
+    // gavin
+    final var expenseCreator = Expense.class.getConstructor(Integer.class, LocalDate.class,
+        LocalDate.class, String.class, BigDecimal.class, Category.class);
+    final var budgetCreator = Budget.class.getConstructor(BigDecimal.class, Integer.class,
+        Integer.class);
+    final var journalCreator = JournalEntry.class.getConstructor(JournalEntry.Operation.class,
+        Integer.class, Expense.class);
+
+    // when
+    final var reflection = RuntimeHintsPredicates.reflection();
+
+    // then
+    assertTrue(reflection.onConstructor(expenseCreator).invoke().test(hints));
+    assertTrue(reflection.onConstructor(budgetCreator).invoke().test(hints));
+    assertTrue(reflection.onConstructor(journalCreator).invoke().test(hints));
+    assertTrue(reflection.onMethod(JournalEntry.class, "op").invoke().test(hints));
+    assertTrue(reflection.onType(JournalEntry.Operation.class).test(hints));
+    assertTrue(reflection.onMethod(Expense.class, "getAmount").invoke().test(hints));
+    assertTrue(reflection.onType(Category.class).test(hints));
+    assertTrue(reflection.onType(LocalDate.class).test(hints));
+  }
+
+  @Test
+  void command_methods_are_invocable() {
+    // gavin
+    final var reflection = RuntimeHintsPredicates.reflection();
+
+    // when
+    final boolean registered = NativeHints.COMMAND_TYPES.stream()
+        .allMatch(commands -> reflection.onType(commands).test(hints));
+
+    // then
+    assertTrue(registered);
+    assertTrue(reflection.onMethod(ExpensesCommands.class, "addExpense").invoke().test(hints));
+    assertTrue(reflection.onType(TypeReference.of(NativeHints.EXPORT_ROW)).test(hints));
+  }
+}
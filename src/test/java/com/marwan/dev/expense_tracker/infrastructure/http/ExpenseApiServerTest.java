@@ -0,0 +1,190 @@
+package com.marwan.dev.expense_tracker.infrastructure.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.budget.model.dto.SearchArgsForBudget;
+import com.marwan.dev.expense_tracker.domain.budget.model.dto.UpdateBudgetRequest;
+import com.marwan.dev.expense_tracker.domain.budget.service.GetBudgetService;
+import com.marwan.dev.expense_tracker.domain.budget.service.UpdateBudgetService;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseRequest;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.CreateExpenseResponse;
+import com.marwan.dev.expense_tracker.domain.expense.model.dto.SearchArgsForList;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.domain.expense.service.AddExpenseService;
+import com.marwan.dev.expense_tracker.domain.expense.service.ListExpensesService;
+import com.marwan.dev.expense_tracker.domain.expense.service.SummaryExpensesService;
+import com.marwan.dev.expense_tracker.shared.exceptions.expense.CategoryNotFoundException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpenseApiServerTest {
+
+  private AddExpenseService addExpenseService;
+  private ListExpensesService listExpensesService;
+  private SummaryExpensesService summaryExpensesService;
+  private GetBudgetService getBudgetService;
+  private UpdateBudgetService updateBudgetService;
+  private ExpenseApiServer server;
+  private HttpClient client;
+  private String baseUrl;
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    addExpenseService = mock(AddExpenseService.class);
+    listExpensesService = mock(ListExpensesService.class);
+    summaryExpensesService = mock(SummaryExpensesService.class);
+    getBudgetService = mock(GetBudgetService.class);
+    updateBudgetService = mock(UpdateBudgetService.class);
+    server = new ExpenseApiServer(addExpenseService, listExpensesService, summaryExpensesService,
+        getBudgetService, updateBudgetService,
+        new ObjectMapper().registerModule(new JavaTimeModule()));
+    final InetSocketAddress address = server.start("127.0.0.1", 0);
+    baseUrl = "http://127.0.0.1:" + address.getPort();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  protected void tearDown() {
+    server.stop();
+    client.close();
+  }
+
+  @Test
+  void post_expense_adds_it() throws Exception {
+    // gavin
+    final var expense = new Expense(7, LocalDate.of(2025, 5, 2), null, "coffee", 3.5,
+        Category.FOOD);
+    when(addExpenseService.execute(
+        new CreateExpenseRequest("coffee", new BigDecimal("3.5"), "FOOD"))).thenReturn(new CreateExpenseResponse(expense, new BigDecimal("96.50")));
+
+    // when
+    final var response = send("POST", "/expenses",
+        "{\"description\":\"coffee\",\"amount\":3.5,\"category\":\"FOOD\"}");
+
+    // then
+    assertEquals(201, response.statusCode());
+    assertTrue(response.body().contains("\"id\":7"), response.body());
+    assertTrue(response.body().contains("\"createdAt\":\"2025-05-02\""), response.body());
+    assertTrue(response.body().contains("\"balanceLeft\":96.50"), response.body());
+  }
+
+  @Test
+  void get_routes_pass_query_parameters_to_the_services() throws Exception {
+    // gavin
+    when(listExpensesService.execute(any())).thenReturn(List.of());
+    when(summaryExpensesService.execute(any())).thenReturn(new BigDecimal("42.50"));
+    when(getBudgetService.execute(new SearchArgsForBudget(4, 2025)))
+        .thenReturn(new Budget(300.0, 4, 2025));
+
+    // when
+    final var list = send("GET", "/expenses?category=FOOD&month=4", null);
+    final var summary = send("GET", "/expenses/summary?from=2025-01-01&to=2025-03-31", null);
+    final var budget = send("GET", "/budgets?month=4&year=2025", null);
+
+    // then
+    assertEquals("[]", list.body());
+    verify(listExpensesService).execute(new SearchArgsForList(4, "FOOD"));
+    assertEquals("{\"total\":42.50}", summary.body());
+    verify(summaryExpensesService).execute(new SearchArgsForList(null, null,
+        LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31)));
+    assertEquals(200, budget.statusCode());
+    assertTrue(budget.body().contains("\"amount\":300.00"), budget.body());
+  }
+
+  @Test
+  void put_budget_updates_it() throws Exception {
+    // gavin
+    when(updateBudgetService.execute(new UpdateBudgetRequest(4, 2025, new BigDecimal("250"))))
+        .thenReturn(new Budget(250.0, 4, 2025));
+
+    // when
+    final var response = send("PUT", "/budgets", "{\"month\":4,\"year\":2025,\"amount\":250}");
+
+    // then
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("\"amount\":250.00"), response.body());
+  }
+
+  @Test
+  void errors_map_to_status_codes() throws Exception {
+    // gavin
+    when(getBudgetService.execute(any())).thenThrow(new NoSuchElementException());
+    when(addExpenseService.execute(any())).thenThrow(new CategoryNotFoundException("SHOES"));
+
+    // when
+    final var missingBudget = send("GET", "/budgets?month=1", null);
+    final var badCategory = send("POST", "/expenses",
+        "{\"description\":\"shoes\",\"amount\":30,\"category\":\"SHOES\"}");
+    final var badJson = send("POST", "/expenses", "{not json");
+    final var badMonth = send("GET", "/expenses/summary?month=april", null);
+    final var unknownPath = send("GET", "/nowhere", null);
+    final var wrongMethod = send("DELETE", "/budgets", null);
+
+    // then
+    assertEquals(404, missingBudget.statusCode());
+    assertEquals("{\"error\":\"budget not found.\"}", missingBudget.body());
+    assertEquals(400, badCategory.statusCode());
+    assertEquals(400, badJson.statusCode());
+    assertEquals(400, badMonth.statusCode());
+    assertEquals(404, unknownPath.statusCode());
+    assertEquals(405, wrongMethod.statusCode());
+  }
+
+  @Test
+  void post_expense_without_a_budget_adds_it_with_no_balance() throws Exception {
+    // gavin
+    final ExpenseRepositoryI expenseRepository = mock(ExpenseRepositoryI.class);
+    when(expenseRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(getBudgetService.execute(any())).thenThrow(new NoSuchElementException());
+    final var budgetless = new ExpenseApiServer(
+        new AddExpenseService(expenseRepository, summaryExpensesService, getBudgetService),
+        listExpensesService, summaryExpensesService, getBudgetService, updateBudgetService,
+        new ObjectMapper().registerModule(new JavaTimeModule()));
+    final int port = budgetless.start("127.0.0.1", 0).getPort();
+    try {
+      // when
+      final var response = client.send(HttpRequest.newBuilder(
+              URI.create("http://127.0.0.1:" + port + "/expenses"))
+          .POST(BodyPublishers.ofString(
+              "{\"description\":\"coffee\",\"amount\":3.5,\"category\":\"FOOD\"}"))
+          .header("Content-Type", "application/json").build(), BodyHandlers.ofString());
+
+      // then
+      assertEquals(201, response.statusCode());
+      assertTrue(response.body().contains("\"balanceLeft\":null"), response.body());
+      verify(expenseRepository, times(1)).save(any());
+    } finally {
+      budgetless.stop();
+    }
+  }
+
+  private HttpResponse<String> send(String method, String path, String body) throws Exception {
+    final var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .method(method, body == null ? BodyPublishers.noBody() : BodyPublishers.ofString(body))
+        .header("Content-Type", "application/json").build();
+    return client.send(request, BodyHandlers.ofString());
+  }
+}
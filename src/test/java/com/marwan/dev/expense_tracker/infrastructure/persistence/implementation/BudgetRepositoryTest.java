@@ -6,13 +6,16 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
 import com.marwan.dev.expense_tracker.domain.budget.repository.BudgetRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
 import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
 import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -73,7 +76,7 @@ class BudgetRepositoryTest {
 
     // then
     assertTrue(found.isPresent());
-    assertEquals(1500.0, found.get().getAmount());
+    assertEquals(new BigDecimal("1500.00"), found.get().getAmount());
   }
 
   @Test
@@ -164,4 +167,57 @@ class BudgetRepositoryTest {
     //then
     verify(mockHandler).write(any(), eq(List.of()));
   }
-}
\ No newline at end of file
+
+  @Test
+  void lookups_read_the_file_once() {
+    // gavin
+    final Budget budget = new Budget(1000.0, 6, 2025);
+    when(mockHandler.read(any(), eq(Budget.class))).thenReturn(List.of(budget));
+
+    // when
+    repository.findByMonthAndYear(6, 2025);
+    repository.findByYear(2025);
+    final int count = repository.count();
+    repository.save(new Budget(500.0, 7, 2025));
+
+    // then
+    assertEquals(1, count);
+    assertEquals(2, repository.count());
+    assertEquals(List.of(6, 7), repository.findByYear(2025).stream().map(Budget::getMonth).toList());
+    verify(mockHandler, times(1)).read(any(), eq(Budget.class));
+  }
+
+  @Test
+  void change_from_another_process_is_read_again() {
+    // gavin
+    final Budget budget = new Budget(1000.0, 6, 2025);
+    final Budget changed = new Budget(700.0, 6, 2025);
+    when(mockHandler.stamp(any())).thenReturn(new FileStamp(1, 1));
+    when(mockHandler.read(any(), eq(Budget.class))).thenReturn(List.of(budget));
+    repository.findByMonthAndYear(6, 2025);
+
+    // when
+    when(mockHandler.stamp(any())).thenReturn(new FileStamp(2, 1));
+    when(mockHandler.read(any(), eq(Budget.class))).thenReturn(List.of(changed));
+    final Optional<Budget> result = repository.findByMonthAndYear(6, 2025);
+
+    // then
+    assertEquals(Optional.of(changed), result);
+  }
+
+  @Test
+  void changing_a_returned_budget_leaves_the_cache_alone() {
+    // gavin
+    final Budget budget = new Budget(1000.0, 6, 2025);
+    when(mockHandler.read(any(), eq(Budget.class))).thenReturn(List.of(budget));
+
+    // when
+    repository.findByMonthAndYear(6, 2025).orElseThrow().setAmount(new BigDecimal("1.00"));
+    repository.findByYear(2025).get(0).setMonth(9);
+
+    // then
+    assertEquals(new BigDecimal("1000.00"),
+        repository.findByMonthAndYear(6, 2025).orElseThrow().getAmount());
+    assertEquals(List.of(6), repository.findByYear(2025).stream().map(Budget::getMonth).toList());
+  }
+}
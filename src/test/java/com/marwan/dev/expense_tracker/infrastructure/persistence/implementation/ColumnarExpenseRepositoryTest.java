@@ -0,0 +1,356 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.MappedColumn;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.ParallelScan;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarExpenseRepositoryTest {
+
+  @TempDir
+  Path dir;
+
+  private ColumnarExpenseRepository repository;
+
+  @BeforeEach
+  protected void setUp() {
+    repository = open();
+  }
+
+  @AfterEach
+  protected void tearDown() {
+    repository.close();
+  }
+
+  @Test
+  void save_assigns_ids_and_round_trips_every_field() {
+    // gavin
+    final Expense expense = new Expense(0, LocalDate.of(2025, 6, 15), null, "lunch", 12.5,
+        Category.FOOD);
+
+    // when
+    repository.save(expense);
+
+    // then
+    assertEquals(1, expense.getId());
+    assertEquals(expense, repository.findById(1).orElseThrow());
+  }
+
+  @Test
+  void sums_and_filters_scan_columns() {
+    // gavin
+    final Expense june = save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+    final Expense juneOther = save(LocalDate.of(2024, 6, 30), 20.0, Category.OTHER);
+    final Expense july = save(LocalDate.of(2025, 7, 1), 30.0, Category.FOOD);
+
+    // then
+    assertEquals(6000L, repository.summeryAll());
+    assertEquals(3000L, repository.summeryByMonth(6));
+    assertEquals(4000L, repository.summeryByCategory(Category.FOOD));
+    assertEquals(1000L, repository.summeryByMonthAndCategory(6, Category.FOOD));
+    assertEquals(List.of(june, juneOther), repository.findByMonth(6));
+    assertEquals(List.of(june, july), repository.findByCategory(Category.FOOD));
+  }
+
+  @Test
+  void update_and_delete_survive_reopen() {
+    // gavin
+    final Expense kept = save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+    final Expense deleted = save(LocalDate.of(2025, 6, 16), 20.0, Category.OTHER);
+
+    // when
+    kept.setDescription("renamed");
+    kept.setAmount(new BigDecimal("15"));
+    repository.save(kept);
+    repository.deleteById(deleted.getId());
+    repository.close();
+    repository = open();
+
+    // then
+    assertEquals(List.of(kept), repository.findAll());
+    assertFalse(repository.existsById(deleted.getId()));
+    assertEquals(1500L, repository.summeryAll());
+    assertEquals(3, save(LocalDate.of(2025, 6, 17), 1.0, Category.FOOD).getId());
+  }
+
+  @Test
+  void columns_grow_past_initial_capacity() {
+    // when
+    for (int i = 0; i < 3_000; i++) {
+      save(LocalDate.of(2025, 1, 1).plusDays(i % 365), 1.0, Category.FOOD);
+    }
+
+    // then
+    assertEquals(300_000L, repository.summeryAll());
+    assertTrue(repository.existsById(3_000));
+  }
+
+  @Test
+  void delete_all_resets_ids() {
+    // gavin
+    save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+
+    // when
+    repository.deleteAll();
+
+    // then
+    assertTrue(repository.findAll().isEmpty());
+    assertEquals(1, save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD).getId());
+  }
+
+  @Test
+  void pages_follow_id_order_across_deletes_and_out_of_order_ids() {
+    // gavin
+    for (int i = 0; i < 10; i++) {
+      save(LocalDate.of(2025, 6, 1).plusDays(i), 1.0,
+          i % 2 == 0 ? Category.FOOD : Category.OTHER);
+    }
+    repository.deleteById(3);
+
+    // then
+    assertEquals(List.of(4, 5, 6), ids(repository.findPage(null, null, 2, 0, 3)));
+    assertEquals(List.of(5, 7, 9), ids(repository.findPage(null, Category.FOOD, 0, 1, 3)));
+
+    // when
+    repository.save(new Expense(3, LocalDate.of(2025, 6, 3), null, "back", 1.0,
+        Category.OTHER));
+
+    // then
+    assertEquals(List.of(3, 4, 5), ids(repository.findPage(null, null, 2, 0, 3)));
+    assertEquals(List.of(9, 10), ids(repository.findPage(6, null, 8, 0, 5)));
+  }
+
+  @Test
+  void date_ranges_are_year_aware_and_follow_updates() {
+    // gavin
+    final Expense march2024 = save(LocalDate.of(2024, 3, 10), 10.0, Category.FOOD);
+    final Expense march2025 = save(LocalDate.of(2025, 3, 20), 20.0, Category.FOOD);
+    final Expense feb2025 = save(LocalDate.of(2025, 2, 1), 30.0, Category.OTHER);
+    final Expense deleted = save(LocalDate.of(2025, 3, 1), 40.0, Category.OTHER);
+    repository.deleteById(deleted.getId());
+
+    // then
+    assertEquals(List.of(march2025),
+        repository.findBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+    assertEquals(2000L, repository.sumBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+    assertEquals(List.of(march2024, feb2025, march2025), repository.findBetween(null, null));
+    assertEquals(4000L, repository.sumBetween(LocalDate.of(2024, 3, 10), LocalDate.of(2025, 2, 1)));
+    assertTrue(repository.findBetween(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 3, 1))
+        .isEmpty());
+    assertEquals(List.of(feb2025, march2025),
+        repository.findPageBetween(LocalDate.of(2024, 3, 11), null, null, null, 0, 5));
+    assertEquals(List.of(march2025),
+        repository.findPageBetween(null, null, 3, Category.FOOD, 1, 5));
+    assertEquals(List.of(march2024), repository.findPageBetween(null, null, null, null, 0, 1));
+    assertEquals(6000L, repository.sumBetween(LocalDate.MIN, LocalDate.MAX));
+
+    // when
+    final Expense moved = new Expense(march2024.getId(), LocalDate.of(2025, 3, 31), null, "test",
+        10.0, Category.FOOD);
+    repository.save(moved);
+
+    // then
+    assertEquals(3000L, repository.sumBetween(LocalDate.of(2025, 3, 1), null));
+    assertEquals(List.of(feb2025), repository.findBetween(null, LocalDate.of(2025, 3, 19)));
+  }
+
+  @Test
+  void month_of_epoch_day_matches_local_date() {
+    for (LocalDate date = LocalDate.of(1899, 1, 1); date.getYear() < 2101;
+        date = date.plusDays(1)) {
+      assertEquals(date.getMonthValue(),
+          ColumnarExpenseRepository.monthOfEpochDay((int) date.toEpochDay()), date.toString());
+      assertEquals(date.getYear() * 12 + date.getMonthValue() - 1,
+          ColumnarExpenseRepository.yearMonthOfEpochDay((int) date.toEpochDay()), date.toString());
+    }
+  }
+
+  @Test
+  void spending_by_month_builds_the_matrix_in_one_scan() {
+    // gavin
+    save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+    save(LocalDate.of(2024, 6, 30), 20.0, Category.OTHER);
+    save(LocalDate.of(2025, 7, 1), 30.0, Category.FOOD);
+    save(LocalDate.of(2025, 6, 2), 5.0, Category.FOOD);
+    final Expense deleted = save(LocalDate.of(2025, 6, 3), 99.0, Category.DEBTS);
+    repository.deleteById(deleted.getId());
+
+    // when
+    final List<MonthlySpending> all = repository.spendingByMonth(null);
+    final List<MonthlySpending> year2025 = repository.spendingByMonth(2025);
+
+    // then
+    assertEquals(List.of("2024-6", "2025-6", "2025-7"), months(all));
+    assertEquals(List.of("2025-6", "2025-7"), months(year2025));
+    assertEquals(1500, year2025.get(0).amount(Category.FOOD));
+    assertEquals(0, year2025.get(0).amount(Category.DEBTS));
+    assertEquals(2000, all.get(0).total());
+  }
+
+  @Test
+  void double_amounts_of_earlier_versions_are_converted_to_cents() throws IOException {
+    // gavin
+    save(LocalDate.of(2025, 6, 15), 500.3, Category.FOOD);
+    save(LocalDate.of(2025, 6, 16), 0.1, Category.FOOD);
+    repository.close();
+    try (MappedColumn cents = new MappedColumn(dir.resolve("amount-cents.col"), Long.BYTES, 2);
+        MappedColumn doubles = new MappedColumn(dir.resolve("amount.col"), Double.BYTES, 2)) {
+      doubles.putDouble(0, cents.getLong(0) / 100.0);
+      doubles.putDouble(1, cents.getLong(1) / 100.0);
+    }
+    Files.delete(dir.resolve("amount-cents.col"));
+
+    // when
+    repository = open();
+
+    // then
+    assertEquals(50_040, repository.summeryAll());
+    assertEquals(new BigDecimal("500.30"), repository.findById(1).orElseThrow().getAmount());
+    assertFalse(Files.exists(dir.resolve("amount.col")));
+  }
+
+  @Test
+  void writes_of_another_instance_are_picked_up_even_when_the_row_count_stays() {
+    // gavin
+    final Expense expense = save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+    final ColumnarExpenseRepository other = open();
+    try {
+      // when
+      expense.setDescription("renamed elsewhere");
+      other.save(expense);
+      final Expense appended = other.save(new Expense(0, LocalDate.of(2025, 6, 16), null,
+          "appended elsewhere", 5.0, Category.OTHER));
+      final Expense mine = save(LocalDate.of(2025, 6, 17), 1.0, Category.FOOD);
+
+      // then
+      assertEquals("renamed elsewhere", repository.findById(1).orElseThrow().getDescription());
+      assertEquals(2, appended.getId());
+      assertEquals(3, mine.getId());
+      assertEquals(List.of(1, 2, 3), ids(other.findAll()));
+    } finally {
+      other.close();
+    }
+  }
+
+  @Test
+  void unchanged_description_is_not_written_again() throws IOException {
+    // gavin
+    final Expense expense = save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+    final long heapSize = Files.size(dir.resolve("description.dat"));
+
+    // when
+    expense.setAmount(new BigDecimal("12"));
+    repository.save(expense);
+
+    // then
+    assertEquals(heapSize, Files.size(dir.resolve("description.dat")));
+    assertEquals(expense, repository.findById(expense.getId()).orElseThrow());
+  }
+
+  @Test
+  void deleted_rows_are_compacted_away_and_other_instances_follow() throws IOException {
+    // gavin
+    for (int i = 0; i < 3_000; i++) {
+      save(LocalDate.of(2025, 1, 1).plusDays(i % 365), 1.0, Category.FOOD);
+    }
+    final ColumnarExpenseRepository other = open();
+    try {
+      // when
+      for (int id = 1; id <= 2_000; id++) {
+        repository.deleteById(id);
+      }
+      final long idFileSize = Files.size(dir.resolve("id.col"));
+      final Expense added = other.save(new Expense(0, LocalDate.of(2025, 6, 1), null, "late",
+          1.0, Category.OTHER));
+
+      // then
+      assertTrue(idFileSize < 3_000L * Integer.BYTES);
+      assertEquals(3_001, added.getId());
+      assertEquals(100_100L, repository.summeryAll());
+      assertEquals(ids(other.findAll()), ids(repository.findAll()));
+      assertEquals(List.of(2_001, 2_002), ids(repository.findPage(null, null, 0, 0, 2)));
+      assertEquals(List.of(), compactionLeftovers());
+    } finally {
+      other.close();
+    }
+  }
+
+  @Test
+  void superseded_descriptions_are_compacted_away() throws IOException {
+    // gavin
+    final Expense expense = save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+    save(LocalDate.of(2025, 6, 16), 20.0, Category.OTHER);
+
+    // when
+    for (int i = 0; i < 300; i++) {
+      expense.setDescription(String.valueOf(i).repeat(1_000 / String.valueOf(i).length()));
+      repository.save(expense);
+    }
+    repository.close();
+    repository = open();
+
+    // then
+    assertTrue(Files.size(dir.resolve("description.dat")) < 150_000);
+    assertEquals(expense.getDescription(),
+        repository.findById(expense.getId()).orElseThrow().getDescription());
+    assertEquals("test", repository.findById(2).orElseThrow().getDescription());
+    assertEquals(List.of(), compactionLeftovers());
+  }
+
+  @Test
+  void compaction_interrupted_before_its_commit_is_dropped_on_open() throws IOException {
+    // gavin
+    final Expense expense = save(LocalDate.of(2025, 6, 15), 10.0, Category.FOOD);
+    repository.close();
+    Files.write(dir.resolve("id.col.compact"), new byte[Integer.BYTES * 4]);
+    Files.write(dir.resolve("description.dat.compact"), new byte[16]);
+
+    // when
+    repository = open();
+
+    // then
+    assertEquals(List.of(expense), repository.findAll());
+    assertEquals(List.of(), compactionLeftovers());
+  }
+
+  private List<Path> compactionLeftovers() throws IOException {
+    try (var files = Files.list(dir)) {
+      return files.filter(file -> file.getFileName().toString().contains("compact")).toList();
+    }
+  }
+
+  private ColumnarExpenseRepository open() {
+    final var opened = new ColumnarExpenseRepository(new ReentrantReadWriteLock(),
+        dir.toString(), ParallelScan.sequential());
+    opened.open();
+    return opened;
+  }
+
+  private static List<String> months(List<MonthlySpending> spending) {
+    return spending.stream().map(month -> month.year() + "-" + month.month()).toList();
+  }
+
+  private static List<Integer> ids(List<Expense> expenses) {
+    return expenses.stream().map(Expense::getId).toList();
+  }
+
+  private Expense save(LocalDate createdAt, double amount, Category category) {
+    return repository.save(new Expense(0, createdAt, null, "test", amount, category));
+  }
+}
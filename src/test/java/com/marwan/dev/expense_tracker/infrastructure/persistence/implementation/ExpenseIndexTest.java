@@ -0,0 +1,216 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Checks that the indexed queries of the in-memory repository return the same results as a linear
+ * scan over every expense, on random data and after random mutations.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExpenseIndexTest {
+
+  private static final Category[] CATEGORIES = Category.values();
+
+  private final Random random = new Random(42);
+  private final List<Expense> persisted = new ArrayList<>();
+  private ExpenseRepositoryI repository;
+
+  @BeforeEach
+  protected void setUp() {
+    final JsonFileHandlerI mockHandler = mock(JsonFileHandler.class);
+    repository = new ExpenseRepository(new ReentrantReadWriteLock(), mockHandler);
+    for (int id = 1; id <= 2_000; id++) {
+      persisted.add(randomExpense(id));
+    }
+    when(mockHandler.read(any(), eq(Expense.class))).thenReturn(persisted);
+  }
+
+  @Test
+  void indexed_queries_match_linear_scan_on_loaded_data() {
+    assertIndexesMatchLinearScan();
+  }
+
+  @Test
+  void indexed_queries_match_linear_scan_after_mutations() {
+    // when
+    for (int i = 0; i < 1_000; i++) {
+      final int id = 1 + random.nextInt(2_500);
+      switch (random.nextInt(3)) {
+        case 0 -> repository.save(randomExpense(0));
+        case 1 -> repository.findById(id).ifPresent(expense -> {
+          expense.setCategory(randomCategory());
+          expense.setAmount(randomAmount());
+          repository.save(expense);
+        });
+        default -> repository.deleteById(id);
+      }
+    }
+
+    // then
+    assertIndexesMatchLinearScan();
+  }
+
+  @Test
+  void expenses_without_a_category_are_listed_but_not_in_category_totals() {
+    // gavin
+    persisted.clear();
+    persisted.add(new Expense(1, LocalDate.of(2024, 3, 1), null, "lunch", BigDecimal.TEN,
+        Category.FOOD));
+    persisted.add(new Expense(2, LocalDate.of(2024, 3, 2), null, "unknown", BigDecimal.ONE, null));
+    persisted.add(new Expense(3, LocalDate.of(2024, 4, 2), null, "unknown", BigDecimal.ONE, null));
+
+    // when
+    final List<Expense> all = repository.findAll();
+
+    // then
+    assertEquals(List.of(1, 2, 3), all.stream().map(Expense::getId).toList());
+    assertEquals(List.of(1, 2), repository.findByMonth(3).stream().map(Expense::getId).toList());
+    assertEquals(List.of(2, 3), repository.findPage(null, null, 1, 0, 10).stream()
+        .map(Expense::getId).toList());
+    assertEquals(List.of(2), repository.findPage(3, null, 1, 0, 10).stream()
+        .map(Expense::getId).toList());
+    assertEquals(1200, repository.summeryAll());
+    assertEquals(1100, repository.summeryByMonth(3));
+    assertEquals(1000, repository.summeryByCategory(Category.FOOD));
+    final List<MonthlySpending> spending = repository.spendingByMonth(null);
+    assertEquals(1, spending.size());
+    assertEquals(1000, spending.get(0).total());
+
+    // when
+    repository.deleteById(2);
+    repository.deleteById(3);
+
+    // then
+    assertEquals(1000, repository.summeryAll());
+    assertEquals(List.of(1), repository.findByMonth(3).stream().map(Expense::getId).toList());
+  }
+
+  private void assertIndexesMatchLinearScan() {
+    final List<Expense> all = repository.findAll();
+    assertEquals(sum(all, expense -> true), repository.summeryAll());
+    for (int month = 1; month <= 12; month++) {
+      final int m = month;
+      final Predicate<Expense> byMonth = expense -> expense.getCreatedAt().getMonthValue() == m;
+      assertEquals(filter(all, byMonth), repository.findByMonth(month));
+      assertEquals(sum(all, byMonth), repository.summeryByMonth(month));
+      for (Category category : CATEGORIES) {
+        final Predicate<Expense> byBoth = byMonth.and(
+            expense -> expense.getCategory() == category);
+        assertEquals(filter(all, byBoth), repository.findByMonthAndCategory(month, category));
+        assertEquals(sum(all, byBoth), repository.summeryByMonthAndCategory(month, category));
+      }
+    }
+    for (Category category : CATEGORIES) {
+      final Predicate<Expense> byCategory = expense -> expense.getCategory() == category;
+      assertEquals(filter(all, byCategory), repository.findByCategory(category));
+      assertEquals(sum(all, byCategory), repository.summeryByCategory(category));
+    }
+    assertSpendingMatchesLinearScan(all);
+    for (int i = 0; i < 200; i++) {
+      assertPageMatchesLinearScan(all);
+      assertRangeMatchesLinearScan(all);
+    }
+  }
+
+  private void assertSpendingMatchesLinearScan(List<Expense> all) {
+    final List<MonthlySpending> spending = repository.spendingByMonth(null);
+    assertEquals(all.stream().filter(expense -> expense.getCategory() != null)
+        .map(expense -> YearMonth.from(expense.getCreatedAt())).distinct().sorted().toList(), spending.stream().map(row -> YearMonth.of(row.year(), row.month()))
+        .toList());
+    for (MonthlySpending row : spending) {
+      final Predicate<Expense> byMonth = expense -> YearMonth.from(expense.getCreatedAt())
+          .equals(YearMonth.of(row.year(), row.month()));
+      for (Category category : CATEGORIES) {
+        assertEquals(sum(all, byMonth.and(expense -> expense.getCategory() == category)),
+            row.amount(category));
+      }
+    }
+    assertEquals(spending.stream().filter(row -> row.year() == 2022).count(),
+        repository.spendingByMonth(2022).size());
+  }
+
+  private void assertRangeMatchesLinearScan(List<Expense> all) {
+    final LocalDate from = random.nextInt(5) == 0 ? null : randomDate();
+    final LocalDate to = random.nextInt(5) == 0 ? null
+        : (from == null ? randomDate() : from.plusDays(random.nextInt(120) - 10));
+    final Predicate<Expense> between = expense -> (from == null || !expense.getCreatedAt()
+        .isBefore(from)) && (to == null || !expense.getCreatedAt().isAfter(to));
+    final List<Expense> expected = all.stream().filter(between)
+        .sorted(Comparator.comparing(Expense::getCreatedAt)).toList();
+    assertEquals(expected, repository.findBetween(from, to));
+    assertEquals(sum(all, between), repository.sumBetween(from, to));
+    final Integer month = random.nextBoolean() ? null : 1 + random.nextInt(12);
+    final Category category = random.nextBoolean() ? null : randomCategory();
+    final int offset = random.nextInt(30);
+    final int limit = 1 + random.nextInt(60);
+    assertEquals(expected.stream()
+            .filter(expense -> month == null || expense.getCreatedAt().getMonthValue() == month)
+            .filter(expense -> category == null || expense.getCategory() == category)
+            .skip(offset).limit(limit).toList(),
+        repository.findPageBetween(from, to, month, category, offset, limit));
+  }
+
+  private void assertPageMatchesLinearScan(List<Expense> all) {
+    final Integer month = random.nextBoolean() ? null : 1 + random.nextInt(12);
+    final Category category = random.nextBoolean() ? null : randomCategory();
+    final int afterId = random.nextInt(2_500);
+    final int offset = random.nextInt(30);
+    final int limit = 1 + random.nextInt(60);
+    final List<Expense> expected = all.stream()
+        .filter(expense -> expense.getId() > afterId)
+        .filter(expense -> month == null || expense.getCreatedAt().getMonthValue() == month)
+        .filter(expense -> category == null || expense.getCategory() == category)
+        .sorted(Comparator.comparing(Expense::getId))
+        .skip(offset).limit(limit).toList();
+    assertEquals(expected, repository.findPage(month, category, afterId, offset, limit));
+  }
+
+  private static List<Expense> filter(List<Expense> expenses, Predicate<Expense> condition) {
+    return expenses.stream().filter(condition).toList();
+  }
+
+  private static long sum(List<Expense> expenses, Predicate<Expense> condition) {
+    return expenses.stream().filter(condition).mapToLong(Expense::getAmountCents).sum();
+  }
+
+  private Expense randomExpense(int id) {
+    final Category category = random.nextInt(20) == 0 ? null : randomCategory();
+    return new Expense(id, randomDate(), null, "expense " + id, randomAmount(), category);
+  }
+
+  private LocalDate randomDate() {
+    return LocalDate.of(2020, 1, 1).plusDays(random.nextInt(6 * 365));
+  }
+
+  private BigDecimal randomAmount() {
+    return BigDecimal.valueOf(random.nextInt(100_000), 2);
+  }
+
+  private Category randomCategory() {
+    return CATEGORIES[random.nextInt(CATEGORIES.length)];
+  }
+}
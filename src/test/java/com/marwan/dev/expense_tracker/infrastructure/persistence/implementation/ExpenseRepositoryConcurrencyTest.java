@@ -0,0 +1,148 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.OptimisticReadWriteLock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Hammers the in-memory repository with concurrent readers while writers insert and delete, and
+ * checks that no read ever sees a half-applied write and that a visit never holds writers up,
+ * with either lock.
+ */
+class ExpenseRepositoryConcurrencyTest {
+
+  private static final int LEDGER_SIZE = 1_000;
+  private static final int WRITERS = 2;
+  private static final int READERS = Math.max(2, Math.min(8,
+      Runtime.getRuntime().availableProcessors()));
+  private static final int WRITE_CYCLES = 2_000;
+
+  static Stream<Supplier<ReadWriteLock>> locks() {
+    return Stream.of(ReentrantReadWriteLock::new, OptimisticReadWriteLock::new);
+  }
+
+  @ParameterizedTest
+  @MethodSource("locks")
+  void reads_stay_consistent_while_writes_happen(Supplier<ReadWriteLock> lock) throws Exception {
+    // gavin
+    final JsonFileHandlerI handler = mock(JsonFileHandlerI.class, withSettings().stubOnly());
+    // every expense is one cent, so the totals in cents count the expenses
+    final List<Expense> persisted = new ArrayList<>();
+    for (int id = 1; id <= LEDGER_SIZE; id++) {
+      persisted.add(new Expense(id, LocalDate.of(2025, 1, 1).plusDays(id % 365), null, "test",
+          0.01, Category.FOOD));
+    }
+    when(handler.read(any(), eq(Expense.class))).thenReturn(persisted);
+    final var repository = new ExpenseRepository(lock.get(), handler);
+    repository.initializeMaxId();
+
+    final ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+    final AtomicBoolean writing = new AtomicBoolean(true);
+    try {
+      // when
+      final List<Future<?>> writers = new ArrayList<>();
+      for (int i = 0; i < WRITERS; i++) {
+        writers.add(pool.submit(() -> {
+          for (int cycle = 0; cycle < WRITE_CYCLES; cycle++) {
+            final Expense added = repository.save(new Expense("temporary", 0.01, Category.OTHER));
+            repository.deleteById(added.getId());
+          }
+        }));
+      }
+      final List<Future<Long>> readers = new ArrayList<>();
+      for (int i = 0; i < READERS; i++) {
+        readers.add(pool.submit(() -> {
+          long reads = 0;
+          do {
+            final long total = repository.summeryAll();
+            assertTrue(total >= LEDGER_SIZE && total <= LEDGER_SIZE + WRITERS,
+                "torn total " + total);
+            assertEquals(LEDGER_SIZE, repository.summeryByCategory(Category.FOOD));
+            assertTrue(repository.findById(1 + ThreadLocalRandom.current().nextInt(LEDGER_SIZE))
+                .isPresent());
+            reads++;
+          } while (writing.get());
+          return reads;
+        }));
+      }
+      for (Future<?> writer : writers) {
+        writer.get(60, TimeUnit.SECONDS);
+      }
+      writing.set(false);
+
+      // then
+      for (Future<Long> reader : readers) {
+        assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+      }
+      assertEquals(LEDGER_SIZE, repository.summeryAll());
+      assertEquals(0, repository.summeryByCategory(Category.OTHER));
+    } finally {
+      writing.set(false);
+      pool.shutdownNow();
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("locks")
+  void for_each_action_runs_without_blocking_writers(Supplier<ReadWriteLock> lock)
+      throws Exception {
+    // gavin
+    final JsonFileHandlerI handler = mock(JsonFileHandlerI.class, withSettings().stubOnly());
+    final List<Expense> persisted = new ArrayList<>();
+    for (int id = 1; id <= 3 * LEDGER_SIZE; id++) {
+      persisted.add(new Expense(id, LocalDate.of(2025, 1, 1), null, "test", 0.01,
+          Category.FOOD));
+    }
+    when(handler.read(any(), eq(Expense.class))).thenReturn(persisted);
+    final var repository = new ExpenseRepository(lock.get(), handler);
+    repository.initializeMaxId();
+    final ExecutorService pool = Executors.newSingleThreadExecutor();
+    final List<Integer> visited = new ArrayList<>();
+
+    try {
+      // when
+      repository.forEach(expense -> {
+        if (visited.isEmpty()) {
+          try {
+            pool.submit(() -> repository.save(new Expense("added", 1.0, Category.OTHER)))
+                .get(10, TimeUnit.SECONDS);
+          } catch (Exception e) {
+            throw new IllegalStateException("writer blocked by the visit", e);
+          }
+        }
+        assertTrue(repository.existsById(expense.getId()));
+        visited.add(expense.getId());
+      });
+    } finally {
+      pool.shutdownNow();
+    }
+
+    // then
+    assertEquals(3 * LEDGER_SIZE + 1, visited.size());
+    assertEquals(3 * LEDGER_SIZE + 1, visited.get(visited.size() - 1));
+  }
+}
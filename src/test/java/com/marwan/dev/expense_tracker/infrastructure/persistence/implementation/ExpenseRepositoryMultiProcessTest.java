@@ -0,0 +1,121 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.OptimisticReadWriteLock;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.ParallelScan;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Runs several JVMs adding expenses to the same home directory at once, and checks that every add
+ * survives with its own ID.
+ */
+class ExpenseRepositoryMultiProcessTest {
+
+  private static final int PROCESSES = 4;
+  private static final int ADDS_PER_PROCESS = 40;
+
+  @TempDir
+  Path home;
+
+  @ParameterizedTest
+  @ValueSource(strings = {"json", "journal", "columnar"})
+  void concurrent_processes_lose_no_updates(String engine) throws Exception {
+    // when
+    final List<Process> processes = new ArrayList<>();
+    for (int i = 0; i < PROCESSES; i++) {
+      processes.add(new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java")
+          .toString(), "-Duser.home=" + home, "-cp", System.getProperty("java.class.path"),
+          ExpenseRepositoryMultiProcessTest.class.getName(), engine, String.valueOf(i))
+          .inheritIO().start());
+    }
+    for (Process process : processes) {
+      assertTrue(process.waitFor(2, TimeUnit.MINUTES), "child process timed out");
+      assertEquals(0, process.exitValue());
+    }
+
+    // then
+    final List<Expense> expenses = withHome(home, () -> {
+      final ExpenseRepositoryI repository = open(engine);
+      try {
+        return repository.findAll();
+      } finally {
+        close(repository);
+      }
+    });
+    final int total = PROCESSES * ADDS_PER_PROCESS;
+    assertEquals(total, expenses.size());
+    assertEquals(IntStream.rangeClosed(1, total).boxed().toList(),
+        expenses.stream().map(Expense::getId).sorted().toList());
+    final Set<String> descriptions = new HashSet<>();
+    expenses.forEach(expense -> descriptions.add(expense.getDescription()));
+    assertEquals(total, descriptions.size());
+  }
+
+  /**
+   * Child process entry point: adds expenses one at a time, as separate CLI invocations would.
+   *
+   * @param args the engine name and the process number
+   */
+  public static void main(String[] args) {
+    final ExpenseRepositoryI repository = open(args[0]);
+    for (int i = 0; i < ADDS_PER_PROCESS; i++) {
+      repository.save(new Expense("process " + args[1] + " add " + i, 1.0, Category.FOOD));
+    }
+    close(repository);
+  }
+
+  private static ExpenseRepositoryI open(String engine) {
+    if ("columnar".equals(engine)) {
+      final var columnar = new ColumnarExpenseRepository(new ReentrantReadWriteLock(),
+          Path.of(System.getProperty("user.home"), "expense-tracker", "columnar").toString(),
+          ParallelScan.sequential());
+      columnar.open();
+      return columnar;
+    }
+    final var fileHandler = new JsonFileHandler(
+        new ObjectMapper().registerModule(new JavaTimeModule()), false);
+    final InMemoryExpenseRepository repository = "journal".equals(engine)
+        // a small threshold so compactions race with appends from the other processes
+        ? new JournalExpenseRepository(new OptimisticReadWriteLock(), fileHandler,
+        StorageFormat.JSON, 2_048)
+        : new ExpenseRepository(new OptimisticReadWriteLock(), fileHandler);
+    repository.initializeMaxId();
+    return repository;
+  }
+
+  private static void close(ExpenseRepositoryI repository) {
+    if (repository instanceof ColumnarExpenseRepository columnar) {
+      columnar.close();
+    }
+  }
+
+  private static <R> R withHome(Path home, Supplier<R> work) {
+    final String previous = System.getProperty("user.home");
+    System.setProperty("user.home", home.toString());
+    try {
+      return work.get();
+    } finally {
+      System.setProperty("user.home", previous);
+    }
+  }
+}
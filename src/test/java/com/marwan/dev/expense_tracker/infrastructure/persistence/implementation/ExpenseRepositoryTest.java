@@ -7,6 +7,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -66,6 +68,21 @@ public class ExpenseRepositoryTest {
         argThat(list -> list.contains(newExpense) && list.size() == 2));
   }
 
+  @Test
+  void first_save_loads_the_file_once() {
+    // gavin
+    final Expense existingExpense = new Expense("test", 500.3, Category.from("food"));
+    final Expense newExpense = new Expense("test", 200.0, Category.from("food"));
+
+    // when
+    when(mockHandler.read(any(), eq(Expense.class))).thenReturn(List.of(existingExpense));
+    repository.save(newExpense);
+
+    // then
+    verify(mockHandler, times(1)).read(any(), eq(Expense.class));
+    verify(mockHandler, never()).lockShared(any());
+  }
+
   @Test
   void existById_find_expense() {
     // gavin mothing
@@ -272,4 +289,22 @@ public class ExpenseRepositoryTest {
     // then
     assertEquals(expenses, result);
   }
-}
\ No newline at end of file
+
+  @Test
+  void saveAll_assigns_id_block_and_writes_once() {
+    // gavin
+    final Expense existingExpense = new Expense(4, LocalDate.now(), null, "test", 500.3,
+        Category.from("food"));
+    final Expense first = new Expense(9, LocalDate.now(), null, "first", 10.0, Category.OTHER);
+    final Expense second = new Expense("second", 20.0, Category.OTHER);
+
+    // when
+    when(mockHandler.read(any(), eq(Expense.class))).thenReturn(List.of(existingExpense));
+    repository.saveAll(List.of(first, second));
+
+    // then
+    assertEquals(5, first.getId());
+    assertEquals(6, second.getId());
+    verify(mockHandler).write(any(), argThat(list -> list.size() == 3));
+  }
+}
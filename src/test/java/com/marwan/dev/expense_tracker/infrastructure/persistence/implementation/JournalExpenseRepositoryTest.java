@@ -0,0 +1,130 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.repository.ExpenseRepositoryI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.JournalEntry.Operation;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandler;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class JournalExpenseRepositoryTest {
+
+  private static final long COMPACT_THRESHOLD = 1024;
+
+  private ExpenseRepositoryI repository;
+  private JsonFileHandlerI mockHandler;
+
+  @BeforeEach
+  protected void setUp() {
+    mockHandler = mock(JsonFileHandler.class);
+    repository = new JournalExpenseRepository(new ReentrantReadWriteLock(), mockHandler,
+        StorageFormat.JSON, COMPACT_THRESHOLD);
+    when(mockHandler.stamp(any())).thenReturn(new FileStamp(0, 0));
+  }
+
+  @Test
+  void save_appends_to_journal_without_rewriting_snapshot() {
+    // gavin
+    final Expense newExpense = new Expense("test", 500.3, Category.FOOD);
+
+    // when
+    repository.save(newExpense);
+
+    // then
+    verify(mockHandler).append(endsWith("expense.journal"),
+        argThat((JournalEntry entry) -> entry.op() == Operation.PUT && entry.expense()
+            .equals(newExpense)));
+    verify(mockHandler, never()).write(any(), any());
+  }
+
+  @Test
+  void load_replays_journal_over_snapshot() {
+    // gavin
+    final Expense kept = new Expense(1, LocalDate.of(2025, 6, 15), null, "kept", 10.0,
+        Category.FOOD);
+    final Expense deleted = new Expense(2, LocalDate.of(2025, 6, 15), null, "deleted", 20.0,
+        Category.FOOD);
+    final Expense added = new Expense(3, LocalDate.of(2025, 6, 16), null, "added", 30.0,
+        Category.OTHER);
+
+    // when
+    stubSnapshot(kept, deleted);
+    stubJournal(JournalEntry.put(added), JournalEntry.delete(2));
+    final List<Expense> result = repository.findAll();
+
+    // then
+    assertEquals(List.of(kept, added), result);
+  }
+
+  @Test
+  void load_replays_clear() {
+    // gavin
+    final Expense cleared = new Expense(1, LocalDate.of(2025, 6, 15), null, "cleared", 10.0,
+        Category.FOOD);
+    final Expense added = new Expense(2, LocalDate.of(2025, 6, 16), null, "added", 30.0,
+        Category.OTHER);
+
+    // when
+    stubSnapshot(cleared);
+    stubJournal(JournalEntry.clear(), JournalEntry.put(added));
+
+    // then
+    assertEquals(List.of(added), repository.findAll());
+    assertFalse(repository.existsById(1));
+  }
+
+  @Test
+  void journal_past_threshold_is_compacted_into_snapshot() {
+    // gavin
+    final Expense newExpense = new Expense("test", 500.3, Category.FOOD);
+
+    // when
+    when(mockHandler.stamp(endsWith("expense.journal"))).thenReturn(
+        new FileStamp(0, COMPACT_THRESHOLD));
+    repository.save(newExpense);
+
+    // then
+    verify(mockHandler).write(endsWith("expense.json"),
+        argThat(list -> list.contains(newExpense) && list.size() == 1));
+    verify(mockHandler).delete(endsWith("expense.journal"));
+  }
+
+  private void stubSnapshot(Expense... expenses) {
+    doAnswer(invocation -> {
+      final Consumer<Expense> action = invocation.getArgument(2);
+      List.of(expenses).forEach(action);
+      return null;
+    }).when(mockHandler).readEach(any(), eq(Expense.class), any());
+  }
+
+  private void stubJournal(JournalEntry... entries) {
+    doAnswer(invocation -> {
+      final Consumer<JournalEntry> action = invocation.getArgument(2);
+      List.of(entries).forEach(action);
+      return null;
+    }).when(mockHandler).readLines(any(), eq(JournalEntry.class), any());
+  }
+}
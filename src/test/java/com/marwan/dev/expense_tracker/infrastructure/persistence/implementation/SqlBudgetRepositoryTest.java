@@ -0,0 +1,75 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.SqlDatabase;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SqlBudgetRepositoryTest {
+
+  @TempDir
+  Path dir;
+
+  private SqlDatabase database;
+  private SqlBudgetRepository repository;
+
+  @BeforeEach
+  protected void setUp() {
+    final JsonFileHandlerI fileHandler = mock(JsonFileHandlerI.class);
+    when(fileHandler.stamp(any())).thenReturn(new FileStamp(0, 0));
+    database = new SqlDatabase("jdbc:h2:file:" + dir.resolve("expense-tracker"), fileHandler,
+        StorageFormat.JSON);
+    repository = new SqlBudgetRepository(database);
+  }
+
+  @AfterEach
+  protected void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void save_replaces_the_budget_of_the_same_month() {
+    // gavin
+    repository.save(new Budget(100.0, 5, 2025));
+
+    // when
+    repository.save(new Budget(250.0, 5, 2025));
+    repository.save(new Budget(80.0, 2, 2025));
+    repository.save(new Budget(90.0, 2, 2024));
+
+    // then
+    assertEquals(3, repository.count());
+    assertEquals(new BigDecimal("250.00"),
+        repository.findByMonthAndYear(5, 2025).orElseThrow().getAmount());
+    assertEquals(List.of(2, 5),
+        repository.findByYear(2025).stream().map(Budget::getMonth).toList());
+  }
+
+  @Test
+  void delete_removes_only_the_given_month() {
+    // gavin
+    repository.save(new Budget(100.0, 5, 2025));
+    repository.save(new Budget(80.0, 6, 2025));
+
+    // when
+    repository.deleteByMonthAndYear(5, 2025);
+
+    // then
+    assertTrue(repository.findByMonthAndYear(5, 2025).isEmpty());
+    assertEquals(1, repository.count());
+  }
+}
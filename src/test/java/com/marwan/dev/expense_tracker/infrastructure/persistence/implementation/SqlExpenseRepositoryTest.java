@@ -0,0 +1,207 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.budget.model.Budget;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.domain.expense.model.MonthlySpending;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.FileStamp;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.JsonFileHandlerI;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.SqlDatabase;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.util.StorageFormat;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SqlExpenseRepositoryTest {
+
+  @TempDir
+  Path dir;
+
+  private JsonFileHandlerI fileHandler;
+  private SqlDatabase database;
+  private SqlExpenseRepository repository;
+
+  @BeforeEach
+  protected void setUp() {
+    fileHandler = mock(JsonFileHandlerI.class);
+    when(fileHandler.stamp(any())).thenReturn(new FileStamp(0, 0));
+    database = open();
+    repository = new SqlExpenseRepository(database);
+  }
+
+  @AfterEach
+  protected void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void file_store_is_migrated_once() {
+    // gavin
+    when(fileHandler.read(any(), eq(Expense.class))).thenReturn(new ArrayList<>(List.of(
+        expense(1, LocalDate.of(2025, 1, 5), 10.0, Category.FOOD),
+        expense(1, LocalDate.of(2025, 2, 5), 20.0, Category.DEBTS))));
+    when(fileHandler.read(any(), eq(Budget.class))).thenReturn(List.of(new Budget(100.0, 1, 2025)));
+
+    // when
+    final List<Expense> migrated = repository.findAll();
+    final Expense added = repository.save(new Expense("new", 5.0, Category.OTHER));
+    database.close();
+    database = open();
+    final List<Expense> reopened = new SqlExpenseRepository(database).findAll();
+
+    // then
+    assertEquals(List.of(1, 2), migrated.stream().map(Expense::getId).toList());
+    assertEquals(3, added.getId());
+    assertEquals(3, reopened.size());
+    assertEquals(new BigDecimal("100.00"),
+        new SqlBudgetRepository(database).findByMonthAndYear(1, 2025).orElseThrow().getAmount());
+    verify(fileHandler, times(1)).read(any(), eq(Expense.class));
+  }
+
+  @Test
+  void journal_is_replayed_over_the_snapshot_when_migrating() {
+    // gavin
+    when(fileHandler.stamp(endsWith("expense.journal"))).thenReturn(new FileStamp(1, 64));
+    doAnswer(invocation -> {
+      final Consumer<Expense> action = invocation.getArgument(2);
+      List.of(expense(1, LocalDate.of(2025, 1, 5), 10.0, Category.FOOD),
+          expense(2, LocalDate.of(2025, 1, 6), 20.0, Category.FOOD)).forEach(action);
+      return null;
+    }).when(fileHandler).readEach(any(), eq(Expense.class), any());
+    doAnswer(invocation -> {
+      final Consumer<JournalEntry> action = invocation.getArgument(2);
+      List.of(JournalEntry.delete(1),
+          JournalEntry.put(expense(3, LocalDate.of(2025, 2, 1), 30.0, Category.DEBTS)))
+          .forEach(action);
+      return null;
+    }).when(fileHandler).readLines(any(), eq(JournalEntry.class), any());
+
+    // when
+    final List<Expense> migrated = repository.findAll();
+    final Expense added = repository.save(new Expense("new", 5.0, Category.OTHER));
+
+    // then
+    assertEquals(List.of(2, 3), migrated.stream().map(Expense::getId).toList());
+    assertEquals(new BigDecimal("30.00"), migrated.get(1).getAmount());
+    assertEquals(4, added.getId());
+  }
+
+  @Test
+  void filters_and_sums_run_in_the_database() {
+    // gavin
+    repository.saveAll(new ArrayList<>(List.of(
+        expense(0, LocalDate.of(2024, 3, 1), 1.5, Category.FOOD),
+        expense(0, LocalDate.of(2025, 3, 9), 2.0, Category.FOOD),
+        expense(0, LocalDate.of(2025, 3, 10), 4.0, Category.DEBTS),
+        expense(0, LocalDate.of(2025, 4, 1), 8.0, Category.FOOD))));
+
+    // when
+    final List<Expense> march = repository.findByMonth(3);
+    final List<Expense> page = repository.findPage(3, Category.FOOD, 1, 0, 10);
+
+    // then
+    assertEquals(List.of(1, 2, 3), march.stream().map(Expense::getId).toList());
+    assertEquals(List.of(2), page.stream().map(Expense::getId).toList());
+    assertEquals(750L, repository.summeryByMonth(3));
+    assertEquals(350L, repository.summeryByMonthAndCategory(3, Category.FOOD));
+    assertEquals(1150L, repository.summeryByCategory(Category.FOOD));
+    assertEquals(1550L, repository.summeryAll());
+    assertEquals(1400L, repository.sumBetween(LocalDate.of(2025, 3, 9), null));
+    assertEquals(List.of(3, 4), repository.findBetween(LocalDate.of(2025, 3, 10),
+        LocalDate.of(2025, 4, 1)).stream().map(Expense::getId).toList());
+    assertEquals(List.of(2, 3), repository.findPageBetween(LocalDate.of(2025, 1, 1), null, 3, null,
+        0, 5).stream().map(Expense::getId).toList());
+    assertEquals(List.of(4), repository.findPageBetween(null, null, null, Category.FOOD, 2, 1)
+        .stream().map(Expense::getId).toList());
+    assertEquals(0L, repository.summeryByMonth(12));
+  }
+
+  @Test
+  void spending_by_month_groups_in_the_database() {
+    // gavin
+    repository.saveAll(new ArrayList<>(List.of(
+        expense(0, LocalDate.of(2024, 12, 31), 1.5, Category.FOOD),
+        expense(0, LocalDate.of(2025, 3, 9), 2.0, Category.FOOD),
+        expense(0, LocalDate.of(2025, 3, 10), 4.0, Category.DEBTS),
+        expense(0, LocalDate.of(2025, 3, 11), 0.5, Category.FOOD),
+        expense(0, LocalDate.of(2025, 4, 1), 8.0, Category.FOOD))));
+
+    // when
+    final List<MonthlySpending> all = repository.spendingByMonth(null);
+    final List<MonthlySpending> year2025 = repository.spendingByMonth(2025);
+
+    // then
+    assertEquals(List.of(12, 3, 4), all.stream().map(MonthlySpending::month).toList());
+    assertEquals(List.of(3, 4), year2025.stream().map(MonthlySpending::month).toList());
+    assertEquals(250, year2025.get(0).amount(Category.FOOD));
+    assertEquals(400, year2025.get(0).amount(Category.DEBTS));
+    assertEquals(650, year2025.get(0).total());
+  }
+
+  @Test
+  void save_replaces_an_existing_expense_and_delete_all_restarts_ids() {
+    // gavin
+    final Expense saved = repository.save(new Expense("lunch", 12.0, Category.FOOD));
+    final Expense changed = expense(saved.getId(), saved.getCreatedAt(), 15.0, Category.FOOD);
+
+    // when
+    repository.save(changed);
+    final Expense stored = repository.findById(saved.getId()).orElseThrow();
+    repository.deleteAll();
+    final Expense first = repository.save(new Expense("again", 1.0, Category.OTHER));
+
+    // then
+    assertEquals(new BigDecimal("15.00"), stored.getAmount());
+    assertNotNull(stored.getUpdatedAt());
+    assertFalse(repository.existsById(saved.getId() + 1));
+    assertEquals(1, first.getId());
+  }
+
+  @Test
+  void new_ids_pass_over_ids_saved_explicitly() {
+    // gavin
+    repository.save(new Expense("first", 1.0, Category.OTHER));
+    repository.save(expense(2, LocalDate.of(2025, 3, 1), 2.0, Category.FOOD));
+    repository.save(expense(4, LocalDate.of(2025, 3, 2), 4.0, Category.FOOD));
+
+    // when
+    final Expense next = repository.save(new Expense("next", 3.0, Category.OTHER));
+    final List<Expense> batch = repository.saveAll(new ArrayList<>(List.of(
+        expense(0, LocalDate.of(2025, 3, 3), 5.0, Category.FOOD),
+        expense(0, LocalDate.of(2025, 3, 4), 6.0, Category.FOOD))));
+
+    // then
+    assertEquals(3, next.getId());
+    assertEquals(List.of(5, 6), batch.stream().map(Expense::getId).toList());
+    assertEquals(List.of(1, 2, 3, 4, 5, 6),
+        repository.findAll().stream().map(Expense::getId).toList());
+  }
+
+  private SqlDatabase open() {
+    return new SqlDatabase("jdbc:h2:file:" + dir.resolve("expense-tracker"), fileHandler,
+        StorageFormat.JSON);
+  }
+
+  private static Expense expense(int id, LocalDate createdAt, double amount, Category category) {
+    return new Expense(id, createdAt, null, "test", amount, category);
+  }
+}
@@ -0,0 +1,127 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Checks that whole-file writes replace the file atomically and that appended lines survive a torn
+ * tail, at every durability level.
+ */
+class JsonFileHandlerTest {
+
+  @TempDir
+  Path dir;
+
+  @ParameterizedTest
+  @EnumSource(Durability.class)
+  void write_replaces_the_file_without_leftovers(Durability durability) throws IOException {
+    // gavin
+    final var handler = handler(durability);
+    final String file = dir.resolve("expense.json").toString();
+    handler.write(file, List.of(expense(1), expense(2)));
+
+    // when
+    handler.write(file, List.of(expense(3)));
+    handler.appendAll(dir.resolve("expense.jsonl").toString(), List.of(expense(4)));
+    handler.close();
+
+    // then
+    assertEquals(List.of(expense(3)), handler.read(file, Expense.class));
+    final List<Expense> appended = new ArrayList<>();
+    handler.readLines(dir.resolve("expense.jsonl").toString(), Expense.class, appended::add);
+    assertEquals(List.of(expense(4)), appended);
+    assertEquals(List.of(), temporaryFiles());
+  }
+
+  @ParameterizedTest
+  @EnumSource(Durability.class)
+  void failed_write_keeps_the_previous_file(Durability durability) throws IOException {
+    // gavin
+    final var handler = handler(durability);
+    final String file = dir.resolve("expense.json").toString();
+    handler.write(file, List.of(expense(1), expense(2)));
+
+    // when
+    assertThrows(RuntimeException.class,
+        () -> handler.write(file, List.of(expense(3), new Object())));
+    handler.close();
+
+    // then
+    assertEquals(List.of(expense(1), expense(2)), handler.read(file, Expense.class));
+    assertEquals(List.of(), temporaryFiles());
+  }
+
+  @ParameterizedTest
+  @EnumSource(Durability.class)
+  void torn_last_line_is_cut_off_before_the_next_append(Durability durability)
+      throws IOException {
+    // gavin
+    final var handler = handler(durability);
+    final Path file = dir.resolve("expense.journal");
+    handler.append(file.toString(), expense(1));
+    Files.writeString(file, "{\"expenseId\":2,\"descr", StandardOpenOption.APPEND);
+
+    // when
+    final List<Expense> beforeAppend = new ArrayList<>();
+    handler.readLines(file.toString(), Expense.class, beforeAppend::add);
+    handler.appendAll(file.toString(), List.of(expense(3), expense(4)));
+    handler.close();
+
+    // then
+    final List<Expense> afterAppend = new ArrayList<>();
+    handler.readLines(file.toString(), Expense.class, afterAppend::add);
+    assertEquals(List.of(expense(1)), beforeAppend);
+    assertEquals(List.of(expense(1), expense(3), expense(4)), afterAppend);
+  }
+
+  @ParameterizedTest
+  @EnumSource(Durability.class)
+  void corrupt_line_before_the_end_fails_the_read(Durability durability) throws IOException {
+    // gavin
+    final var handler = handler(durability);
+    final Path file = dir.resolve("expense.journal");
+    handler.append(file.toString(), expense(1));
+    Files.writeString(file, "{\"expenseId\":2,\"descr\n", StandardOpenOption.APPEND);
+    handler.append(file.toString(), expense(3));
+    handler.close();
+
+    // when
+    // then
+    assertThrows(RuntimeException.class,
+        () -> handler.readLines(file.toString(), Expense.class, expense -> {
+        }));
+  }
+
+  private static JsonFileHandler handler(Durability durability) {
+    return new JsonFileHandler(new ObjectMapper().registerModule(new JavaTimeModule()), false,
+        durability, Duration.ofMillis(10));
+  }
+
+  private static Expense expense(int id) {
+    return new Expense(id, LocalDate.of(2025, 3, id), null, "expense " + id, id * 1.5,
+        Category.FOOD);
+  }
+
+  private List<Path> temporaryFiles() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList();
+    }
+  }
+}
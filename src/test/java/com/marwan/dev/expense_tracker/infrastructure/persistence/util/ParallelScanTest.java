@@ -0,0 +1,68 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.marwan.dev.expense_tracker.shared.Money;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ParallelScanTest {
+
+  private static final int ROWS = 300_001;
+
+  private final long[] cents = new Random(7).longs(ROWS, 0, 1_000_000).toArray();
+
+  @Test
+  void parallel_sum_is_the_same_for_every_thread_count() {
+    // gavin
+    final long sequential = ParallelScan.sequential().sum(ROWS, row -> true, row -> cents[row]);
+
+    for (int threads = 1; threads <= 4; threads++) {
+      final ParallelScan scan = new ParallelScan(0, threads);
+      try {
+        // when
+        final long parallel = scan.sum(ROWS, row -> true, row -> cents[row]);
+
+        // then
+        assertEquals(sequential, parallel);
+      } finally {
+        scan.close();
+      }
+    }
+  }
+
+  @Test
+  void sum_of_cents_matches_decimal_arithmetic() {
+    // gavin
+    BigDecimal exact = BigDecimal.ZERO;
+    for (long amount : cents) {
+      exact = exact.add(Money.toAmount(amount));
+    }
+
+    // when
+    final long sum = ParallelScan.sequential().sum(ROWS, row -> true, row -> cents[row]);
+
+    // then
+    assertEquals(exact, Money.toAmount(sum));
+  }
+
+  @Test
+  void filter_keeps_row_order_and_sums_only_matching_rows() {
+    // gavin
+    final ParallelScan scan = new ParallelScan(0, 3);
+    try {
+      // when
+      final int[] rows = scan.filter(ROWS, row -> row % 1_000 == 3);
+      final long sum = scan.sum(ROWS, row -> row % 2 != 0, row -> 1);
+
+      // then
+      assertArrayEquals(IntStream.range(0, ROWS).filter(row -> row % 1_000 == 3).toArray(), rows);
+      assertEquals(ROWS / 2L, sum);
+    } finally {
+      scan.close();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round-trips expenses through every storage format and compares file sizes. Throughput is
+ * measured by {@code JsonFileHandlerBenchmark}.
+ */
+class StorageCodecTest {
+
+  private static final int ROWS = 20_000;
+
+  @TempDir
+  Path dir;
+
+  private List<Expense> expenses;
+
+  @BeforeEach
+  protected void setUp() {
+    final var random = new Random(7);
+    final var categories = Category.values();
+    expenses = new ArrayList<>();
+    for (int id = 1; id <= ROWS; id++) {
+      final LocalDate createdAt = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(2_000));
+      expenses.add(new Expense(id, createdAt, id % 5 == 0 ? createdAt.plusDays(3) : null,
+          "expense number " + id, Math.round(random.nextDouble() * 100_000) / 100.0,
+          categories[random.nextInt(categories.length)]));
+    }
+  }
+
+  @Test
+  void every_format_round_trips_expenses() {
+    final var handler = handler(false);
+    for (StorageFormat format : StorageFormat.values()) {
+      final String file = file(format);
+      handler.write(file, expenses);
+      assertEquals(expenses, handler.read(file, Expense.class), format.name());
+    }
+  }
+
+  @Test
+  void binary_and_compact_formats_are_smaller_than_pretty_json() {
+    final Map<StorageFormat, Long> sizes = new EnumMap<>(StorageFormat.class);
+    final var handler = handler(false);
+    for (StorageFormat format : StorageFormat.values()) {
+      handler.write(file(format), expenses);
+      sizes.put(format, handler.stamp(file(format)).size());
+    }
+    final String pretty = dir.resolve("pretty.json").toString();
+    handler(true).write(pretty, expenses);
+    final long prettySize = handler.stamp(pretty).size();
+
+    assertTrue(sizes.get(StorageFormat.JSON) < prettySize);
+    assertTrue(sizes.get(StorageFormat.SMILE) < sizes.get(StorageFormat.JSON));
+    assertTrue(sizes.get(StorageFormat.CBOR) < sizes.get(StorageFormat.JSON));
+    assertTrue(sizes.get(StorageFormat.BINARY) < sizes.get(StorageFormat.SMILE));
+    assertTrue(sizes.get(StorageFormat.BINARY) < sizes.get(StorageFormat.CBOR));
+  }
+
+  @Test
+  void amounts_of_earlier_files_read_back_as_exact_cents() throws IOException {
+    // gavin
+    final Path json = dir.resolve("earlier.json");
+    Files.writeString(json, "[{\"expenseId\":1,\"createAt\":\"2025-03-01\","
+        + "\"description\":\"tea\",\"amount\":500.3,\"category\":\"FOOD\"}]");
+    final Path binary = dir.resolve("earlier.bin");
+    try (var data = new DataOutputStream(Files.newOutputStream(binary))) {
+      data.writeInt(0x45585042);
+      data.writeByte(1);
+      data.writeInt(1);
+      data.writeInt(1);
+      data.writeInt(Math.toIntExact(LocalDate.of(2025, 3, 1).toEpochDay()));
+      data.writeInt(Integer.MIN_VALUE);
+      data.writeDouble(500.3);
+      data.writeByte(Category.FOOD.ordinal());
+      data.writeInt(3);
+      data.writeBytes("tea");
+    }
+
+    // when
+    final var handler = handler(false);
+    final Expense fromJson = handler.read(json.toString(), Expense.class).get(0);
+    final Expense fromBinary = handler.read(binary.toString(), Expense.class).get(0);
+
+    // then
+    assertEquals(50_030, fromJson.getAmountCents());
+    assertEquals(new BigDecimal("500.30"), fromJson.getAmount());
+    assertEquals(fromJson, fromBinary);
+  }
+
+  private JsonFileHandler handler(boolean prettyPrint) {
+    final var mapper = new ObjectMapper();
+    mapper.registerModule(new JavaTimeModule());
+    return new JsonFileHandler(mapper, prettyPrint);
+  }
+
+  private String file(StorageFormat format) {
+    return dir.resolve("expense." + format.getExtension()).toString();
+  }
+}
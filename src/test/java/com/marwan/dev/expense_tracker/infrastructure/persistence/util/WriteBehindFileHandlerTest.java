@@ -0,0 +1,170 @@
+package com.marwan.dev.expense_tracker.infrastructure.persistence.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.marwan.dev.expense_tracker.domain.expense.model.Category;
+import com.marwan.dev.expense_tracker.domain.expense.model.Expense;
+import com.marwan.dev.expense_tracker.infrastructure.persistence.implementation.ExpenseRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+class WriteBehindFileHandlerTest {
+
+  private JsonFileHandlerI delegate;
+  private WriteBehindFileHandler handler;
+
+  @BeforeEach
+  protected void setUp() {
+    delegate = mock(JsonFileHandlerI.class);
+  }
+
+  @AfterEach
+  protected void tearDown() {
+    if (handler != null) {
+      handler.close();
+    }
+  }
+
+  @Test
+  void full_batch_is_flushed_as_one_write_per_file() throws Exception {
+    // gavin
+    handler = new WriteBehindFileHandler(delegate, Duration.ofHours(1), 3);
+
+    // when
+    handler.write("expense.json", List.of("a"));
+    handler.write("expense.json", List.of("a", "b"));
+    assertFalse(handler.flushed().isDone());
+    handler.write("expense.json", List.of("a", "b", "c"));
+    handler.flushed().get(5, TimeUnit.SECONDS);
+
+    // then
+    verify(delegate, times(1)).write(any(), anyList());
+    verify(delegate).write("expense.json", List.of("a", "b", "c"));
+  }
+
+  @Test
+  void window_flushes_a_partial_batch() throws Exception {
+    // gavin
+    handler = new WriteBehindFileHandler(delegate, Duration.ofMillis(20), 100);
+
+    // when
+    handler.append("expense.journal", "a");
+    handler.appendAll("expense.journal", List.of("b", "c"));
+    handler.flushed().get(5, TimeUnit.SECONDS);
+
+    // then
+    verify(delegate).appendAll("expense.journal", List.of("a", "b", "c"));
+  }
+
+  @Test
+  void files_are_flushed_in_the_order_they_were_last_touched() throws Exception {
+    // gavin
+    handler = new WriteBehindFileHandler(delegate, Duration.ofHours(1), 100);
+
+    // when
+    handler.append("expense.journal", "old");
+    handler.write("expense.json", List.of("snapshot"));
+    handler.delete("expense.journal");
+    handler.append("expense.journal", "new");
+    handler.flush();
+
+    // then
+    final InOrder order = inOrder(delegate);
+    order.verify(delegate).write("expense.json", List.of("snapshot"));
+    order.verify(delegate).delete("expense.journal");
+    order.verify(delegate).appendAll("expense.journal", List.of("new"));
+    verify(delegate, never()).appendAll(eq("expense.journal"), eq(List.of("old", "new")));
+    assertTrue(handler.flushed().isDone());
+  }
+
+  @Test
+  void failed_flush_fails_the_callers_future() {
+    // gavin
+    handler = new WriteBehindFileHandler(delegate, Duration.ofHours(1), 100);
+    doThrow(new RuntimeException("disk full")).when(delegate).write(any(), anyList());
+
+    // when
+    handler.write("expense.json", List.of("a"));
+    final CompletableFuture<Void> flushed = handler.flushed();
+    handler.flush();
+
+    // then
+    final ExecutionException thrown = assertThrows(ExecutionException.class, flushed::get);
+    assertEquals("disk full", thrown.getCause().getMessage());
+  }
+
+  @Test
+  void concurrent_saves_share_flushes_and_return_once_flushed() throws Exception {
+    // gavin
+    final AtomicInteger writes = new AtomicInteger();
+    final AtomicInteger flushedMaxId = new AtomicInteger();
+    when(delegate.read(any(), eq(Expense.class))).thenReturn(List.of());
+    when(delegate.stamp(any())).thenReturn(new FileStamp(0, 0));
+    doAnswer(invocation -> {
+      Thread.sleep(5);
+      final List<?> written = invocation.getArgument(1);
+      if (!written.isEmpty() && written.getFirst() instanceof Expense) {
+        writes.incrementAndGet();
+        written.forEach(
+            item -> flushedMaxId.accumulateAndGet(((Expense) item).getId(), Math::max));
+      }
+      return null;
+    }).when(delegate).write(any(), anyList());
+    handler = new WriteBehindFileHandler(delegate, Duration.ofMillis(5), 64);
+    final var repository = new ExpenseRepository(new ReentrantReadWriteLock(), handler);
+    repository.initializeMaxId();
+    final int threads = 8;
+    final int savesPerThread = 25;
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+    try {
+      // when
+      final List<Future<?>> savers = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        savers.add(pool.submit(() -> {
+          for (int save = 0; save < savesPerThread; save++) {
+            final Expense saved = repository.save(new Expense("burst", 1.0, Category.FOOD));
+            assertTrue(flushedMaxId.get() >= saved.getId(), "returned before its flush");
+          }
+        }));
+      }
+      for (Future<?> saver : savers) {
+        saver.get(60, TimeUnit.SECONDS);
+      }
+
+      // then
+      final int saves = threads * savesPerThread;
+      assertEquals(saves, repository.findAll().size());
+      assertTrue(writes.get() < saves, "writes " + writes.get());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}